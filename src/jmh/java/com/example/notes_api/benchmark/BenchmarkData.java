@@ -0,0 +1,71 @@
+package com.example.notes_api.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.notes_api.NotesApiApplication;
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.service.NoteService;
+
+/*
+    Datos y contexto compartidos por los benchmarks.
+    La aplicación arranca sin servidor web sobre H2 en memoria (src/test/resources/application.properties).
+*/
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static String text(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        String words = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+        while (builder.length() < length) {
+            builder.append(words);
+        }
+        return builder.substring(0, length);
+    }
+
+    static NoteRequest request(int i, int contentLength) {
+        return new NoteRequest("Note " + i, text(contentLength));
+    }
+
+    static List<NoteResponse> responses(int size, int contentLength) {
+        List<NoteResponse> notes = new ArrayList<>(size);
+        String content = text(contentLength);
+        for (int i = 0; i < size; i++) {
+            notes.add(new NoteResponse((long) i, "Note " + i, content,
+                                       LocalDateTime.now(), LocalDateTime.now(), 0L));
+        }
+        return notes;
+    }
+
+    static ConfigurableApplicationContext startApplication(Map<String, Object> properties) {
+        return new SpringApplicationBuilder(NotesApiApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(properties)
+            .properties(Map.of("logging.level.root", "WARN"))
+            .run();
+    }
+
+    // Inserta "count" notas con el endpoint batch y devuelve sus ids
+    static long[] seed(NoteService noteService, int count, int contentLength) {
+        List<NoteRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(request(i, contentLength));
+        }
+        return noteService.createBatch(requests)
+                          .getItems()
+                          .stream()
+                          .mapToLong(BatchItemResult::getId)
+                          .toArray();
+    }
+
+}
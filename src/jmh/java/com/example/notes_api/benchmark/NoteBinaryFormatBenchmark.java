@@ -0,0 +1,96 @@
+package com.example.notes_api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.PageResponse;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/*
+    JSON frente a CBOR y Smile: serialización y lectura de un NoteRequest y de una página de
+    NoteResponse. El tamaño de cada payload se imprime al preparar el benchmark, ya que JMH
+    solo mide tiempos.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteBinaryFormatBenchmark {
+
+    private static final TypeReference<PageResponse<NoteResponse>> PAGE_TYPE = new TypeReference<>() { };
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    @Param({ "1", "100" })
+    private int size;
+
+    @Param({ "100", "1000", "10000" })
+    private int contentLength;
+
+    private ObjectMapper mapper;
+
+    private NoteRequest request;
+
+    private PageResponse<NoteResponse> page;
+
+    private byte[] requestBytes;
+
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        request = BenchmarkData.request(0, contentLength);
+        page = new PageResponse<>(BenchmarkData.responses(size, contentLength), "next");
+        requestBytes = mapper.writeValueAsBytes(request);
+        pageBytes = mapper.writeValueAsBytes(page);
+        System.out.printf("%n[payload] format=%s size=%d contentLength=%d request=%d B page=%d B%n",
+                          format, size, contentLength, requestBytes.length, pageBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() {
+        return mapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public NoteRequest readRequest() {
+        return mapper.readValue(requestBytes, NoteRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writePage() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageResponse<NoteResponse> readPage() {
+        return mapper.readValue(pageBytes, PAGE_TYPE);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.notes_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.PageResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    Serialización con Jackson de una nota, de una lista y de una página, variando
+    el número de notas y el tamaño del content.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteJsonBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    private int size;
+
+    @Param({ "100", "10000" })
+    private int contentLength;
+
+    private JsonMapper jsonMapper;
+
+    private NoteResponse note;
+
+    private List<NoteResponse> notes;
+
+    private PageResponse<NoteResponse> page;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        notes = BenchmarkData.responses(size, contentLength);
+        note = notes.get(0);
+        page = new PageResponse<>(notes, "next");
+    }
+
+    @Benchmark
+    public byte[] single() {
+        return jsonMapper.writeValueAsBytes(note);
+    }
+
+    @Benchmark
+    public byte[] list() {
+        return jsonMapper.writeValueAsBytes(notes);
+    }
+
+    @Benchmark
+    public byte[] page() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.notes_api.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.json.NoteJsonWriter;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    NoteJsonWriter frente a Jackson escribiendo la misma página o lista en un stream,
+    como hacen los converters al escribir la respuesta (sin el byte[] intermedio de NoteJsonBenchmark).
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteJsonWriterBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    private int size;
+
+    @Param({ "100", "10000" })
+    private int contentLength;
+
+    // Descarta lo escrito; close() no hace nada (Jackson cierra el stream al terminar)
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private JsonMapper jsonMapper;
+
+    private List<NoteResponse> notes;
+
+    private PageResponse<NoteResponse> page;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        notes = BenchmarkData.responses(size, contentLength);
+        page = new PageResponse<>(notes, "next");
+    }
+
+    @Benchmark
+    public void jacksonPage() {
+        jsonMapper.writeValue(out, page);
+    }
+
+    @Benchmark
+    public void writerPage() throws IOException {
+        NoteJsonWriter.writePage(page, out);
+    }
+
+    @Benchmark
+    public void jacksonList() {
+        jsonMapper.writeValue(out, notes);
+    }
+
+    @Benchmark
+    public void writerList() throws IOException {
+        NoteJsonWriter.writeNotes(notes, out);
+    }
+
+}
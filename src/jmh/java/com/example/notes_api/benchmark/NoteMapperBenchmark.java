@@ -0,0 +1,49 @@
+package com.example.notes_api.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.mapper.NoteMapper;
+import com.example.notes_api.model.Note;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteMapperBenchmark {
+
+    private NoteRequest request;
+
+    private Note note;
+
+    @Setup
+    public void setUp() {
+        request = BenchmarkData.request(1, 500);
+        note = NoteMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public NoteResponse toResponse() {
+        return NoteMapper.toResponse(note);
+    }
+
+    @Benchmark
+    public Note toEntity() {
+        return NoteMapper.toEntity(request);
+    }
+
+}
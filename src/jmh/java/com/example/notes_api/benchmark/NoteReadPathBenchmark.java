@@ -0,0 +1,105 @@
+package com.example.notes_api.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.mapper.NoteMapper;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.service.NoteService;
+
+/*
+    Lectura con entidades gestionadas + NoteMapper frente a proyecciones por constructor.
+    Con -prof gc, gc.alloc.rate.norm muestra los bytes asignados por operación de cada camino.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteReadPathBenchmark {
+
+    private static final int PAGE = 50;
+
+    private ConfigurableApplicationContext context;
+
+    private NoteRepository noteRepository;
+
+    private TransactionTemplate readOnly;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(Map.of(
+            "spring.cache.type", "none",
+            "spring.datasource.url", "jdbc:h2:mem:read-bench;MODE=MySQL;DB_CLOSE_DELAY=-1"
+        ));
+        noteRepository = context.getBean(NoteRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        ids = BenchmarkData.seed(context.getBean(NoteService.class), 10_000, 2_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NoteResponse byIdEntity() {
+        long id = randomId();
+        return readOnly.execute(status -> noteRepository.findById(id).map(NoteMapper::toResponse).orElseThrow());
+    }
+
+    @Benchmark
+    public NoteResponse byIdProjection() {
+        long id = randomId();
+        return readOnly.execute(status -> noteRepository.findResponseById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<NoteResponse> pageEntity() {
+        // Keyset con Limit como pageProjection: sin el COUNT(*) que añadiría un Page
+        return readOnly.execute(status -> noteRepository.findAfter(0L, Limit.of(PAGE))
+                                                          .stream()
+                                                          .map(NoteMapper::toResponse)
+                                                          .toList());
+    }
+
+    @Benchmark
+    public List<NoteResponse> pageProjection() {
+        return readOnly.execute(status -> noteRepository.findResponsesAfter(0L, Limit.of(PAGE)));
+    }
+
+    @Benchmark
+    public List<NoteSummaryResponse> pageSummaryProjection() {
+        return readOnly.execute(status -> noteRepository.findSummariesAfter(0L, Limit.of(PAGE)));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+}
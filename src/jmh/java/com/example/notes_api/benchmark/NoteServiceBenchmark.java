@@ -0,0 +1,94 @@
+package com.example.notes_api.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.service.NoteService;
+
+/*
+    Operaciones de NoteService contra H2 en memoria, con y sin la caché de notas.
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteServiceBenchmark {
+
+    @Param({ "caffeine", "none" })
+    private String cache;
+
+    @Param({ "10000" })
+    private int notes;
+
+    private ConfigurableApplicationContext context;
+
+    private NoteService noteService;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startApplication(Map.of(
+            "spring.cache.type", cache,
+            "spring.datasource.url", "jdbc:h2:mem:service-bench;MODE=MySQL;DB_CLOSE_DELAY=-1"
+        ));
+        noteService = context.getBean(NoteService.class);
+        ids = BenchmarkData.seed(noteService, notes, 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NoteResponse getById() {
+        return noteService.getById(randomId());
+    }
+
+    @Benchmark
+    public PageResponse<NoteResponse> getPage() {
+        return noteService.getPage(null, 50);
+    }
+
+    @Benchmark
+    public PageResponse<NoteSummaryResponse> getSummaryPage() {
+        return noteService.getSummaryPage(null, 50);
+    }
+
+    @Benchmark
+    public NoteResponse create() {
+        return noteService.create(BenchmarkData.request(0, 500));
+    }
+
+    @Benchmark
+    public NoteResponse update() {
+        return noteService.update(randomId(), BenchmarkData.request(1, 500), null);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.example.notes_api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.search.NoteTagIndex;
+import com.example.notes_api.search.TagMatch;
+
+/*
+    Filtro por etiquetas sobre el índice en memoria: una página de 50 ids para AND y OR de 2 y 5
+    etiquetas, con `notes` notas repartidas entre 100 etiquetas (3 por nota, las primeras más usadas).
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteTagIndexBenchmark {
+
+    private static final int TAGS = 100;
+
+    private static final PlatformTransactionManager NO_TRANSACTIONS = new PlatformTransactionManager() {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+
+    };
+
+    @Param({ "100000", "1000000" })
+    private int notes;
+
+    private NoteTagIndex tagIndex;
+
+    private final List<String> twoTags = List.of("tag-0", "tag-1");
+
+    private final List<String> fiveTags = List.of("tag-0", "tag-1", "tag-2", "tag-3", "tag-4");
+
+    @Setup
+    public void setUp() {
+        // Sin BD: el índice se llena con eventos y refresh() no se llama nunca
+        tagIndex = new NoteTagIndex(null, null, NO_TRANSACTIONS);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= notes; id++) {
+            List<String> tags = new ArrayList<>(3);
+            for (int i = 0; i < 3; i++) {
+                // Cuadrado de un uniforme: las etiquetas bajas aparecen mucho más que las altas
+                double r = random.nextDouble();
+                tags.add("tag-" + (int) (r * r * TAGS));
+            }
+            NoteResponse note = new NoteResponse(id, "Title", "Content", tags.stream().distinct().sorted().toList(), null, null, 0L);
+            tagIndex.onNoteChanged(NoteChangedEvent.created(note));
+        }
+    }
+
+    @Benchmark
+    public List<Long> andTwoTags() {
+        return tagIndex.findIds(twoTags, TagMatch.AND, 0, 50);
+    }
+
+    @Benchmark
+    public List<Long> andFiveTags() {
+        return tagIndex.findIds(fiveTags, TagMatch.AND, 0, 50);
+    }
+
+    @Benchmark
+    public List<Long> orTwoTags() {
+        return tagIndex.findIds(twoTags, TagMatch.OR, 0, 50);
+    }
+
+    @Benchmark
+    public List<Long> orFiveTags() {
+        return tagIndex.findIds(fiveTags, TagMatch.OR, 0, 50);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.notes_api.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+    Ids de notas existentes. create añade, delete retira, get/update eligen uno al azar.
+    Un array con borrado por intercambio es suficiente: el coste del lock es
+    despreciable frente a una petición HTTP.
+*/
+final class IdPool {
+
+    private long[] ids;
+
+    private int size;
+
+    IdPool(int capacity) {
+        ids = new long[Math.max(capacity, 16)];
+    }
+
+    synchronized void add(long id) {
+        if (size == ids.length) {
+            long[] grown = new long[ids.length * 2];
+            System.arraycopy(ids, 0, grown, 0, size);
+            ids = grown;
+        }
+        ids[size++] = id;
+    }
+
+    synchronized long random() {
+        return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    synchronized long takeRandom() {
+        if (size == 0) {
+            return -1;
+        }
+        int index = ThreadLocalRandom.current().nextInt(size);
+        long id = ids[index];
+        ids[index] = ids[--size];
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+}
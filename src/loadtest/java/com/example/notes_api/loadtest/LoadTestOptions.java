@@ -0,0 +1,71 @@
+package com.example.notes_api.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Opciones del generador de carga en formato --clave=valor.
+
+    --url           servidor ya levantado; si se omite se arranca la app sobre H2 en memoria
+    --duration      duración de la medición en segundos (30)
+    --warmup        calentamiento previo en segundos, no se reporta (10)
+    --concurrency   hilos cliente (16)
+    --notes         notas sembradas antes de empezar (10000)
+    --content       longitud del content de cada nota (500)
+    --mix           peso de cada ruta, p. ej. list=20,get=60,create=10,update=5,delete=5
+    --rate          peticiones/segundo objetivo en total; 0 = bucle cerrado sin pausa (0)
+    --hgrm-dir      si se indica, escribe la distribución de percentiles de cada ruta (.hgrm)
+*/
+record LoadTestOptions(String url,
+                       Duration duration,
+                       Duration warmup,
+                       int concurrency,
+                       int notes,
+                       int contentLength,
+                       Map<Route, Integer> mix,
+                       double rate,
+                       String hgrmDir) {
+
+    private static final String DEFAULT_MIX = "list=20,get=60,create=10,update=5,delete=5";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument, expected --key=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadTestOptions(
+            values.get("url"),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+            Integer.parseInt(values.getOrDefault("concurrency", "16")),
+            Integer.parseInt(values.getOrDefault("notes", "10000")),
+            Integer.parseInt(values.getOrDefault("content", "500")),
+            parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+            Double.parseDouble(values.getOrDefault("rate", "0")),
+            values.get("hgrm-dir")
+        );
+    }
+
+    private static Map<Route, Integer> parseMix(String mix) {
+        Map<Route, Integer> weights = new EnumMap<>(Route.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Route.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix must give a positive weight to at least one route");
+        }
+        return weights;
+    }
+
+}
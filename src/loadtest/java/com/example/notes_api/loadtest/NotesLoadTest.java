@@ -0,0 +1,348 @@
+package com.example.notes_api.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.notes_api.NotesApiApplication;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    Generador de carga end-to-end sobre la API HTTP.
+
+    Arranca la aplicación sobre H2 en memoria (o usa --url), siembra notas con el endpoint
+    batch y lanza --concurrency clientes que eligen ruta según --mix. Al terminar imprime,
+    por ruta, el throughput y los percentiles p50/p99/p999 registrados con HdrHistogram.
+
+    Con --rate cada cliente sigue un calendario fijo y la latencia se mide desde el instante
+    en que la petición debía salir, de modo que las esperas del servidor no se ocultan
+    (coordinated omission).
+
+        mvn -Pload-test test-compile exec:exec -Dload.args="--concurrency=32 --mix=create=1"
+*/
+public class NotesLoadTest {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int SEED_CHUNK = 500;
+
+    private static final int PAGE_LIMIT = 50;
+
+    private final LoadTestOptions options;
+
+    private final String baseUrl;
+
+    private final HttpClient httpClient;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final IdPool ids;
+
+    private final Map<Route, Recorder> recorders = new EnumMap<>(Route.class);
+
+    private final AtomicLongArray misses = new AtomicLongArray(Route.values().length);
+
+    private final AtomicLongArray errors = new AtomicLongArray(Route.values().length);
+
+    private final Route[] routes;
+
+    private final int[] cumulativeWeights;
+
+    private volatile boolean running = true;
+
+    NotesLoadTest(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                                    .version(HttpClient.Version.HTTP_1_1)
+                                    .connectTimeout(Duration.ofSeconds(5))
+                                    .build();
+        this.ids = new IdPool(options.notes());
+
+        for (Route route : Route.values()) {
+            recorders.put(route, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+        }
+
+        routes = options.mix().keySet().toArray(Route[]::new);
+        cumulativeWeights = new int[routes.length];
+        int total = 0;
+        for (int i = 0; i < routes.length; i++) {
+            total += options.mix().get(routes[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.url();
+        if (baseUrl == null) {
+            // El reinicio de devtools relanzaría main sin los argumentos
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(NotesApiApplication.class)
+                .properties(
+                    "server.port=0",
+                    "spring.datasource.url=jdbc:h2:mem:load-test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                    // Todas las peticiones son del mismo cliente: con el límite por cliente se mediría el 429
+                    "notes.rate-limit.enabled=false",
+                    // Se mide la latencia del servicio con toda la concurrencia, no los 503 del control de admisión
+                    "notes.admission.enabled=false",
+                    "logging.level.root=WARN"
+                )
+                .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new NotesLoadTest(options, baseUrl).run(System.out);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run(PrintStream out) throws Exception {
+        out.printf("Seeding %d notes into %s%n", options.notes(), baseUrl);
+        seed();
+
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            clients.submit(this::client);
+        }
+
+        out.printf("Warming up for %ds with %d clients%n", options.warmup().toSeconds(), options.concurrency());
+        Thread.sleep(options.warmup().toMillis());
+        resetCounters();
+
+        out.printf("Measuring for %ds%n", options.duration().toSeconds());
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        Map<Route, Histogram> histograms = new EnumMap<>(Route.class);
+        recorders.forEach((route, recorder) -> histograms.put(route, recorder.getIntervalHistogram()));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        running = false;
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(out, histograms, seconds);
+    }
+
+    private void client() {
+        long interval = options.rate() > 0 ? (long) (1e9 * options.concurrency() / options.rate()) : 0;
+        long next = System.nanoTime();
+
+        while (running) {
+            long start;
+            if (interval > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = next;
+                next += interval;
+            } else {
+                start = System.nanoTime();
+            }
+
+            Route route = nextRoute();
+            Outcome outcome;
+            try {
+                outcome = execute(route);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                outcome = Outcome.ERROR;
+            }
+
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            recorders.get(route).recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+            if (outcome == Outcome.MISS) {
+                misses.incrementAndGet(route.ordinal());
+            } else if (outcome == Outcome.ERROR) {
+                errors.incrementAndGet(route.ordinal());
+            }
+        }
+    }
+
+    private Route nextRoute() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return routes[i];
+            }
+        }
+        return routes[routes.length - 1];
+    }
+
+    private Outcome execute(Route route) throws IOException, InterruptedException {
+        switch (route) {
+            case LIST -> {
+                return expect(send(get("/api/notes?limit=" + PAGE_LIMIT)));
+            }
+            case GET -> {
+                long id = ids.random();
+                return id < 0 ? Outcome.MISS : expect(send(get("/api/notes/" + id)));
+            }
+            case CREATE -> {
+                HttpResponse<String> response = send(json("POST", "/api/notes", noteBody()));
+                Outcome outcome = expect(response);
+                if (outcome == Outcome.OK) {
+                    ids.add(jsonMapper.readTree(response.body()).get("id").asLong());
+                }
+                return outcome;
+            }
+            case UPDATE -> {
+                long id = ids.random();
+                return id < 0 ? Outcome.MISS : expect(send(json("PUT", "/api/notes/" + id, noteBody())));
+            }
+            case DELETE -> {
+                long id = ids.takeRandom();
+                return id < 0 ? Outcome.MISS : expect(send(request("/api/notes/" + id).DELETE().build()));
+            }
+            default -> throw new IllegalStateException("Unknown route " + route);
+        }
+    }
+
+    // Un 404 en get/update/delete suele ser una carrera con un delete concurrente, no un fallo del servidor
+    private static Outcome expect(HttpResponse<String> response) {
+        if (response.statusCode() / 100 == 2) {
+            return Outcome.OK;
+        }
+        return response.statusCode() == 404 ? Outcome.MISS : Outcome.ERROR;
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < options.notes(); from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, options.notes());
+            List<Map<String, String>> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(note("Seed " + i));
+            }
+
+            HttpResponse<String> response = send(json("POST", "/api/notes/batch", jsonMapper.writeValueAsString(batch)));
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode item : jsonMapper.readTree(response.body()).get("items")) {
+                if (item.hasNonNull("id")) {
+                    ids.add(item.get("id").asLong());
+                }
+            }
+        }
+    }
+
+    private void resetCounters() {
+        recorders.values().forEach(Recorder::reset);
+        for (int i = 0; i < Route.values().length; i++) {
+            misses.set(i, 0);
+            errors.set(i, 0);
+        }
+    }
+
+    private void report(PrintStream out, Map<Route, Histogram> histograms, double seconds) throws IOException {
+        out.println();
+        out.printf("%-8s %10s %8s %8s %10s %9s %9s %9s %9s%n",
+                   "route", "count", "misses", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        Histogram all = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        for (Route route : routes) {
+            Histogram histogram = histograms.get(route);
+            all.add(histogram);
+            printRow(out, route.name().toLowerCase(), histogram, misses.get(route.ordinal()), errors.get(route.ordinal()), seconds);
+            writeDistribution(route.name().toLowerCase(), histogram);
+        }
+
+        long totalMisses = 0;
+        long totalErrors = 0;
+        for (Route route : routes) {
+            totalMisses += misses.get(route.ordinal());
+            totalErrors += errors.get(route.ordinal());
+        }
+        printRow(out, "total", all, totalMisses, totalErrors, seconds);
+        writeDistribution("total", all);
+        out.printf("%nNotes at the end of the run: %d%n", ids.size());
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long misses, long errors, double seconds) {
+        out.printf("%-8s %10d %8d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                   name,
+                   histogram.getTotalCount(),
+                   misses,
+                   errors,
+                   histogram.getTotalCount() / seconds,
+                   histogram.getValueAtPercentile(50) / 1000.0,
+                   histogram.getValueAtPercentile(99) / 1000.0,
+                   histogram.getValueAtPercentile(99.9) / 1000.0,
+                   histogram.getMaxValue() / 1000.0);
+    }
+
+    private void writeDistribution(String name, Histogram histogram) throws IOException {
+        if (options.hgrmDir() == null) {
+            return;
+        }
+        Path directory = Files.createDirectories(Path.of(options.hgrmDir()));
+        try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+            histogram.outputPercentileDistribution(file, 1000.0);
+        }
+    }
+
+    private String noteBody() {
+        return jsonMapper.writeValueAsString(note("Load " + ThreadLocalRandom.current().nextInt()));
+    }
+
+    private Map<String, String> note(String title) {
+        return Map.of("title", title, "content", "x".repeat(options.contentLength()));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return request(path).header("Content-Type", "application/json")
+                            .method(method, HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private enum Outcome {
+        OK,
+        MISS,
+        ERROR
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.example.notes_api.loadtest;
+
+/*
+    Rutas de NoteController que ejercita el generador de carga.
+*/
+enum Route {
+    LIST,
+    GET,
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,320 @@
+package com.example.notes_api.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.example.notes_api.NotesApiApplication;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    Mide lo que tarda una instancia nueva en ser útil al escalar, arranque a arranque:
+
+    - ready: desde lanzar la JVM hasta que /actuator/health/readiness responde 200 (con el perfil
+      prod incluye las migraciones y el calentamiento de StartupWarmup).
+    - spring: application.ready.time, el mismo intervalo medido por Spring desde dentro de la JVM.
+    - first: latencia de la primera petición tras ready.
+    - steady: desde lanzar la JVM hasta el inicio de la primera ventana de un segundo a partir de la
+      cual el p99 de todas las peticiones siguientes no supera --tolerance veces el p99 del último
+      tercio de la carga.
+
+    Cada arranque es un proceso nuevo, así que no hereda JIT ni cachés del anterior. Por defecto la
+    instancia usa H2 en memoria con el dialecto de MySQL, como SchemaMigrationTest; con
+    --app-args="--spring.datasource.url=..." usa esa base de datos. El límite por cliente y el
+    control de admisión se desactivan: todas las peticiones salen de un único cliente.
+
+    Para comparar opciones de arranque se ejecuta una vez por variante, p. ej. con
+    --jvm-args="-XX:SharedArchiveFile=target/app.jsa" o --app-args="--notes.warmup.enabled=false".
+
+        mvn -Pload-test test-compile exec:exec -Dload.main=com.example.notes_api.loadtest.StartupBenchmark -Dload.args="--runs=5"
+*/
+public class StartupBenchmark {
+
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+
+    private static final Duration WINDOW = Duration.ofSeconds(1);
+
+    private static final int SEED_CHUNK = 500;
+
+    private static final int PAGE_LIMIT = 50;
+
+    private static final List<String> BENCHMARK_ARGS = List.of(
+        "--notes.rate-limit.enabled=false",
+        "--notes.admission.enabled=false"
+    );
+
+    private static final List<String> H2_ARGS = List.of(
+        "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "--spring.datasource.driver-class-name=org.h2.Driver",
+        "--spring.datasource.username=sa",
+        "--spring.datasource.password="
+    );
+
+    private record RunResult(double readyMs, double springReadyMs, double firstRequestMs, double steadyP99Ms, double steadyAtMs) {
+    }
+
+    private final StartupBenchmarkOptions options;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+                                                    .version(HttpClient.Version.HTTP_1_1)
+                                                    .connectTimeout(Duration.ofSeconds(2))
+                                                    .build();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    StartupBenchmark(StartupBenchmarkOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark(StartupBenchmarkOptions.parse(args)).run(System.out);
+    }
+
+    void run(PrintStream out) throws Exception {
+        out.printf("%d runs, profile %s, JVM args %s, app args %s%n", options.runs(), options.profile(), options.jvmArgs(), options.appArgs());
+        out.printf("%-6s %10s %10s %10s %10s %12s%n", "run", "ready ms", "spring ms", "first ms", "p99 ms", "steady at ms");
+
+        List<RunResult> results = new ArrayList<>();
+        for (int i = 1; i <= options.runs(); i++) {
+            RunResult result = measure(i);
+            results.add(result);
+            printRow(out, String.valueOf(i), result);
+        }
+
+        out.println();
+        printRow(out, "median", summarize(results, values -> values[values.length / 2]));
+        printRow(out, "min", summarize(results, values -> values[0]));
+        printRow(out, "max", summarize(results, values -> values[values.length - 1]));
+        out.printf("%nInstance logs in %s%n", options.logDir());
+    }
+
+    private RunResult measure(int index) throws Exception {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options.jvmArgs());
+        // Con target/classes en el classpath devtools relanzaría la aplicación en otro class loader
+        command.add("-Dspring.devtools.restart.enabled=false");
+        command.add("-cp");
+        command.add(options.classpath());
+        command.add(NotesApiApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=" + options.profile());
+        command.addAll(BENCHMARK_ARGS);
+        if (options.appArgs().stream().noneMatch(arg -> arg.startsWith("--spring.datasource.url="))) {
+            command.addAll(H2_ARGS);
+        }
+        command.addAll(options.appArgs());
+
+        Path log = Files.createDirectories(Path.of(options.logDir())).resolve("run-" + index + ".log");
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            awaitReady(process, baseUrl, launchedAt, log);
+            double readyMs = millisSince(launchedAt);
+            double springReadyMs = springReadyTime(baseUrl);
+
+            long firstAt = System.nanoTime();
+            send(get(baseUrl + "/api/notes?limit=" + PAGE_LIMIT));
+            double firstRequestMs = millisSince(firstAt);
+
+            IdPool ids = new IdPool(options.notes());
+            seed(baseUrl, ids);
+            List<Histogram> windows = load(baseUrl, ids);
+            return steadyState(windows, launchedAt, readyMs, springReadyMs, firstRequestMs);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitReady(Process process, String baseUrl, long launchedAt, Path log) throws IOException, InterruptedException {
+        HttpRequest readiness = get(baseUrl + "/actuator/health/readiness");
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The instance exited with code " + process.exitValue() + ", see " + log);
+            }
+            if (System.nanoTime() - launchedAt > READY_TIMEOUT.toNanos()) {
+                throw new IllegalStateException("The instance was not ready after " + READY_TIMEOUT + ", see " + log);
+            }
+            try {
+                if (send(readiness).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // El servidor aún no escucha
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private double springReadyTime(String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(get(baseUrl + "/actuator/metrics/application.ready.time"));
+        if (response.statusCode() != 200) {
+            return Double.NaN;
+        }
+        return jsonMapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble(Double.NaN) * 1000;
+    }
+
+    private void seed(String baseUrl, IdPool ids) throws IOException, InterruptedException {
+        for (int from = 0; from < options.notes(); from += SEED_CHUNK) {
+            int to = Math.min(from + SEED_CHUNK, options.notes());
+            List<Map<String, String>> batch = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                batch.add(Map.of("title", "Seed " + i, "content", "x".repeat(500)));
+            }
+            HttpResponse<String> response = send(json("POST", baseUrl + "/api/notes/batch", jsonMapper.writeValueAsString(batch)));
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode item : jsonMapper.readTree(response.body()).get("items")) {
+                if (item.hasNonNull("id")) {
+                    ids.add(item.get("id").asLong());
+                }
+            }
+        }
+    }
+
+    // Carga de list/get/create en bucle cerrado; devuelve el histograma de cada ventana
+    private List<Histogram> load(String baseUrl, IdPool ids) throws InterruptedException {
+        Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        long end = System.nanoTime() + options.duration().toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(options.concurrency());
+        for (int i = 0; i < options.concurrency(); i++) {
+            clients.submit(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        request(baseUrl, ids);
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (IOException | RuntimeException e) {
+                        // Se registra igualmente: un error también es latencia para el cliente
+                    }
+                    recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_LATENCY_MICROS));
+                }
+            });
+        }
+
+        List<Histogram> windows = new ArrayList<>();
+        recorder.reset();
+        for (long next = System.nanoTime() + WINDOW.toNanos(); next <= end; next += WINDOW.toNanos()) {
+            TimeUnit.NANOSECONDS.sleep(next - System.nanoTime());
+            windows.add(recorder.getIntervalHistogram());
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+        return windows;
+    }
+
+    private void request(String baseUrl, IdPool ids) throws IOException, InterruptedException {
+        int pick = ThreadLocalRandom.current().nextInt(10);
+        long id = ids.random();
+        if (pick < 2 || id < 0) {
+            send(get(baseUrl + "/api/notes?limit=" + PAGE_LIMIT));
+        } else if (pick < 9) {
+            send(get(baseUrl + "/api/notes/" + id));
+        } else {
+            String body = jsonMapper.writeValueAsString(Map.of("title", "Load", "content", "x".repeat(500)));
+            HttpResponse<String> response = send(json("POST", baseUrl + "/api/notes", body));
+            if (response.statusCode() / 100 == 2) {
+                ids.add(jsonMapper.readTree(response.body()).get("id").asLong());
+            }
+        }
+    }
+
+    private RunResult steadyState(List<Histogram> windows, long launchedAt, double readyMs, double springReadyMs, double firstRequestMs) {
+        // Referencia: el p99 del último tercio de la carga, cuando ya no queda nada por calentar
+        int tailStart = windows.size() - Math.max(1, windows.size() / 3);
+        Histogram suffix = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        windows.subList(tailStart, windows.size()).forEach(suffix::add);
+        double steadyP99Ms = suffix.getValueAtPercentile(99) / 1000.0;
+
+        // Hacia atrás mientras el p99 de todo lo que queda desde esa ventana siga dentro de la tolerancia
+        // (una ventana suelta con una pausa de GC no cuenta como no estable)
+        int steady = tailStart;
+        while (steady > 0) {
+            suffix.add(windows.get(steady - 1));
+            if (suffix.getValueAtPercentile(99) / 1000.0 > steadyP99Ms * options.tolerance()) {
+                break;
+            }
+            steady--;
+        }
+        double loadStartMs = millisSince(launchedAt) - windows.size() * (double) WINDOW.toMillis();
+        double steadyAtMs = loadStartMs + steady * (double) WINDOW.toMillis();
+        return new RunResult(readyMs, springReadyMs, firstRequestMs, steadyP99Ms, steadyAtMs);
+    }
+
+    private static RunResult summarize(List<RunResult> results, ToDoubleFunction<double[]> pick) {
+        return new RunResult(pick(results, RunResult::readyMs, pick),
+                             pick(results, RunResult::springReadyMs, pick),
+                             pick(results, RunResult::firstRequestMs, pick),
+                             pick(results, RunResult::steadyP99Ms, pick),
+                             pick(results, RunResult::steadyAtMs, pick));
+    }
+
+    // Las medidas sin valor (NaN) no cuentan
+    private static double pick(List<RunResult> results, ToDoubleFunction<RunResult> measure, ToDoubleFunction<double[]> pick) {
+        double[] values = results.stream().mapToDouble(measure).filter(value -> !Double.isNaN(value)).sorted().toArray();
+        return values.length == 0 ? Double.NaN : pick.applyAsDouble(values);
+    }
+
+    private static void printRow(PrintStream out, String name, RunResult result) {
+        out.printf("%-6s %10.0f %10.0f %10.2f %10.2f %12.0f%n",
+                   name, result.readyMs(), result.springReadyMs(), result.firstRequestMs(), result.steadyP99Ms(), result.steadyAtMs());
+    }
+
+    private static double millisSince(long nanos) {
+        return (System.nanoTime() - nanos) / 1e6;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static HttpRequest json(String method, String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                          .timeout(Duration.ofSeconds(30))
+                          .header("Content-Type", "application/json")
+                          .method(method, HttpRequest.BodyPublishers.ofString(body))
+                          .build();
+    }
+
+}
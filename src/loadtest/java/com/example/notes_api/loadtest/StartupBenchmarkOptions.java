@@ -0,0 +1,75 @@
+package com.example.notes_api.loadtest;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/*
+    Opciones de StartupBenchmark en formato --clave=valor.
+
+    --runs          arranques medidos (5)
+    --duration      carga tras cada arranque, en segundos (30)
+    --concurrency   hilos cliente (8)
+    --notes         notas sembradas al quedar lista la instancia (1000)
+    --profile       perfiles de Spring de la instancia (prod)
+    --classpath     classpath de la instancia; por defecto el de este proceso sin target/test-classes
+                    (su application.properties sustituiría al de la aplicación): target/classes + dependencias, con H2
+    --jvm-args      opciones de la JVM separadas por espacios, p. ej. "-XX:SharedArchiveFile=target/app.jsa"
+    --app-args      argumentos de la aplicación separados por espacios; con spring.datasource.url no se usa H2
+    --tolerance     margen sobre el p99 final para considerar estable la latencia (1.25)
+    --log-dir       salida de cada instancia (target/startup-benchmark)
+*/
+record StartupBenchmarkOptions(int runs,
+                               Duration duration,
+                               int concurrency,
+                               int notes,
+                               String profile,
+                               String classpath,
+                               List<String> jvmArgs,
+                               List<String> appArgs,
+                               double tolerance,
+                               String logDir) {
+
+    static StartupBenchmarkOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument, expected --key=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new StartupBenchmarkOptions(
+            Integer.parseInt(values.getOrDefault("runs", "5")),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+            Integer.parseInt(values.getOrDefault("concurrency", "8")),
+            Integer.parseInt(values.getOrDefault("notes", "1000")),
+            values.getOrDefault("profile", "prod"),
+            values.getOrDefault("classpath", applicationClasspath()),
+            split(values.get("jvm-args")),
+            split(values.get("app-args")),
+            Double.parseDouble(values.getOrDefault("tolerance", "1.25")),
+            values.getOrDefault("log-dir", "target/startup-benchmark")
+        );
+    }
+
+    private static String applicationClasspath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                     .filter(entry -> !Path.of(entry).endsWith("test-classes"))
+                     .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static List<String> split(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.asList(value.trim().split("\\s+"));
+    }
+
+}
@@ -1,12 +1,16 @@
 package com.example.notes_api;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.notes_api.model.Note;
 import com.example.notes_api.repository.NoteRepository;
 
+// Nota de ejemplo solo fuera de producción: con el perfil prod el arranque no consulta ni escribe notas
 @Component
+@Profile("!prod")
 public class DataInitializer implements CommandLineRunner {
 
     private final NoteRepository noteRepository;
@@ -15,7 +19,9 @@ public class DataInitializer implements CommandLineRunner {
         this.noteRepository = noteRepository;
     }
 
+    // Una sola transacción de escritura: con réplicas de lectura, el count() también se hace en el primario
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         // Aquí puedes inicializar datos si es necesario
         //No data duplicada
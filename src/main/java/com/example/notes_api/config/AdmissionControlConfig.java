@@ -0,0 +1,44 @@
+package com.example.notes_api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.notes_api.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.notes_api.ratelimit.AdmissionControlInterceptor;
+import com.example.notes_api.startup.StartupWarmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+    Control de admisión adaptativo sobre /api/** (notes.admission.*).
+    La importación masiva queda fuera: dura lo que tarde la subida y su duración no es latencia.
+*/
+@Configuration
+@ConditionalOnProperty(name = "notes.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor interceptor;
+
+    private final StartupWarmup warmup;
+
+    public AdmissionControlConfig(MeterRegistry meterRegistry, Environment environment, StartupWarmup warmup) {
+        this.warmup = warmup;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                environment.getProperty("notes.admission.latency-target", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty("notes.admission.initial-limit", Integer.class, 50),
+                environment.getProperty("notes.admission.min-limit", Integer.class, 10),
+                environment.getProperty("notes.admission.max-limit", Integer.class, 500));
+        this.interceptor = new AdmissionControlInterceptor(meterRegistry, limiter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(warmup.exempt(interceptor)).addPathPatterns("/api/**").excludePathPatterns("/api/notes/import").order(RateLimitConfig.ORDER + 1);
+    }
+
+}
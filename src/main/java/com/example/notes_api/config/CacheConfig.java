@@ -0,0 +1,84 @@
+package com.example.notes_api.config;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+    Activa la caché de Spring. El proveedor (Caffeine), el tamaño y el TTL se configuran
+    en application.properties; spring.cache.type=none la desactiva sin tocar código.
+
+    La caché sigue a la transacción en curso: los @CachePut/@CacheEvict hechos dentro de una
+    se aplican al confirmarla y se descartan si se deshace. Sin esto, una escritura que se
+    deshace después del método (p. ej. la clave de idempotencia repetida en la misma transacción)
+    dejaría en caché una nota que nunca llegó a la BD. Fuera de una transacción se aplican al momento.
+
+    Con réplicas de lectura, lo que carga la caché en un fallo (@Cacheable con sync = true, como
+    getById) se lee del primario: tras un delete o un evict, una réplica atrasada devolvería la
+    nota borrada o la versión anterior y quedaría en caché hasta que caduque. El resto de
+    lecturas readOnly sigue yendo a las réplicas.
+*/
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String NOTES_CACHE = "notes";
+
+    // Envuelve el CacheManager que crea Spring Boot; con spring.cache.type=none no hay nada que cargar ni deshacer
+    @Bean
+    static BeanPostProcessor notesCacheManagerDecorator() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof NoOpCacheManager) && !(bean instanceof NotesCacheManager)) {
+                    return new NotesCacheManager(cacheManager);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static class NotesCacheManager implements CacheManager {
+
+        private final CacheManager target;
+
+        NotesCacheManager(CacheManager target) {
+            this.target = target;
+        }
+
+        @Override
+        public Cache getCache(String name) {
+            Cache cache = target.getCache(name);
+            return cache != null ? new NotesCache(cache) : null;
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return target.getCacheNames();
+        }
+
+    }
+
+    // Extiende el decorador de Spring para que las métricas de la caché sigan viendo la de Caffeine (getTargetCache)
+    static class NotesCache extends TransactionAwareCacheDecorator {
+
+        NotesCache(Cache target) {
+            super(target);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return super.get(key, () -> ReplicaDataSource.callOnPrimary(valueLoader));
+        }
+
+    }
+
+}
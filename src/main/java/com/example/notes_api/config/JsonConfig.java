@@ -0,0 +1,23 @@
+package com.example.notes_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.notes_api.json.NoteJsonHttpMessageConverter;
+
+/*
+    Los HttpMessageConverter declarados como bean se colocan antes que los de Spring Boot,
+    así NoteResponse y sus listas se escriben con NoteJsonWriter en lugar de Jackson.
+    notes.json.fast-writer.enabled=false vuelve a Jackson para todo.
+*/
+@Configuration
+@ConditionalOnProperty(name = "notes.json.fast-writer.enabled", havingValue = "true")
+public class JsonConfig {
+
+    @Bean
+    NoteJsonHttpMessageConverter noteJsonHttpMessageConverter() {
+        return new NoteJsonHttpMessageConverter();
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.notes_api.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.example.notes_api.metrics.QueryCountFilter;
+import com.example.notes_api.metrics.StatementCounter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+    Métricas propias de la aplicación. El resto llega por autoconfiguración de Actuator:
+
+    - notes.service: @Timed en INoteService (management.observations.annotations.enabled)
+    - spring.data.repository.invocations: cada llamada a NoteRepository
+    - hibernate.*: estadísticas de Hibernate (hibernate.generate_statistics)
+    - hikaricp.connections.*: estado del pool
+
+    Aquí se añade el contador de sentencias por petición (notes.query-guard.*).
+*/
+@Configuration
+@ConditionalOnProperty(name = "notes.query-guard.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    QueryCountFilter queryCountFilter(MeterRegistry meterRegistry, Environment environment) {
+        return new QueryCountFilter(meterRegistry, environment.getProperty("notes.query-guard.max-statements", Integer.class, 10));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.notes_api.config;
+
+import org.hibernate.cfg.MultiTenancySettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.owner.OwnerFilter;
+import com.example.notes_api.owner.OwnerIdentifierResolver;
+
+import tools.jackson.databind.ObjectMapper;
+
+/*
+    Notas por dueño (tenant): cada nota pertenece al owner_id de quien la creó y solo él la ve.
+
+    - OwnerFilter toma el dueño de la cabecera X-Owner-Id (notes.owner.required la hace obligatoria).
+    - Hibernate filtra por owner_id en todas las consultas (@TenantId en Note y NoteTombstone).
+    - El executor de tareas asíncronas copia el dueño al hilo que escribe las respuestas en streaming.
+*/
+@Configuration
+public class OwnerConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer ownerIdentifierCustomizer() {
+        return properties -> properties.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new OwnerIdentifierResolver());
+    }
+
+    // Antes que el resto de filtros: todos trabajan ya con el dueño de la petición
+    @Bean
+    FilterRegistrationBean<OwnerFilter> ownerFilter(ObjectMapper objectMapper, Environment environment) {
+        boolean required = environment.getProperty("notes.owner.required", Boolean.class, false);
+        FilterRegistrationBean<OwnerFilter> registration = new FilterRegistrationBean<>(new OwnerFilter(objectMapper, required));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    @Bean
+    TaskDecorator ownerTaskDecorator() {
+        return OwnerContext::wrap;
+    }
+
+}
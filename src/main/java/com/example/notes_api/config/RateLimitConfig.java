@@ -0,0 +1,50 @@
+package com.example.notes_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.notes_api.ratelimit.ClientRateLimitInterceptor;
+import com.example.notes_api.ratelimit.ClientRateLimitInterceptor.Limit;
+import com.example.notes_api.startup.StartupWarmup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+    Límite de peticiones por cliente y por dirección remota sobre /api/** (notes.rate-limit.*),
+    separado para lecturas y escrituras.
+    Va antes que el control de admisión: un cliente que supera su cupo no llega a ocupar un permiso.
+*/
+@Configuration
+@ConditionalOnProperty(name = "notes.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    static final int ORDER = 0;
+
+    private final ClientRateLimitInterceptor interceptor;
+
+    private final StartupWarmup warmup;
+
+    public RateLimitConfig(MeterRegistry meterRegistry, Environment environment, StartupWarmup warmup) {
+        this.warmup = warmup;
+        this.interceptor = new ClientRateLimitInterceptor(meterRegistry,
+                limit(environment, "read", 100.0, 200),
+                limit(environment, "write", 20.0, 40),
+                limit(environment, "address.read", 1000.0, 2000),
+                limit(environment, "address.write", 200.0, 400));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(warmup.exempt(interceptor)).addPathPatterns("/api/**").order(ORDER);
+    }
+
+    private static Limit limit(Environment environment, String operation, double permitsPerSecond, int burst) {
+        String prefix = "notes.rate-limit." + operation + ".";
+        return new Limit(environment.getProperty(prefix + "requests-per-second", Double.class, permitsPerSecond),
+                         environment.getProperty(prefix + "burst", Integer.class, burst));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.example.notes_api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.notes_api.config.ReplicaDataSource.Strategy;
+import com.zaxxer.hikari.HikariDataSource;
+
+/*
+    Réplicas de lectura (notes.read-replicas.enabled=true).
+
+    El DataSource de la aplicación es un LazyConnectionDataSourceProxy: la conexión real
+    se pide en la primera sentencia, cuando ya se sabe si la transacción es readOnly.
+    Las transacciones readOnly (getById, getPage, getSummaryPage, streamAll...) van a
+    ReplicaDataSource; el resto, siempre al primario (spring.datasource.*).
+*/
+@Configuration
+@ConditionalOnProperty(name = "notes.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, DataSourceProperties properties, Environment environment) {
+        String[] urls = environment.getRequiredProperty("notes.read-replicas.urls", String[].class);
+        String username = environment.getProperty("notes.read-replicas.username", properties.determineUsername());
+        String password = environment.getProperty("notes.read-replicas.password", properties.determinePassword());
+        int poolSize = environment.getProperty("notes.read-replicas.pool-size", Integer.class, 10);
+        Duration connectionTimeout = environment.getProperty("notes.read-replicas.connection-timeout", Duration.class, Duration.ofSeconds(2));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls[i].trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1); // Arranca aunque una réplica esté caída
+            replicas.add(replica);
+        }
+
+        return new ReplicaDataSource(primaryDataSource, replicas,
+                                     environment.getProperty("notes.read-replicas.strategy", Strategy.class, Strategy.ROUND_ROBIN),
+                                     environment.getProperty("notes.read-replicas.cooldown", Duration.class, Duration.ofSeconds(30)));
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        return new ReadYourWritesFilter(environment.getProperty("notes.read-replicas.sticky-window", Duration.class, Duration.ofSeconds(5)));
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.example.notes_api.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/*
+    DataSource de solo lectura que reparte las conexiones entre las réplicas.
+
+    - ROUND_ROBIN: una réplica tras otra. LEAST_CONNECTIONS: la que tiene menos conexiones activas en su pool.
+    - Si una réplica no entrega conexión se aparta durante "cooldown" y se prueba la siguiente;
+      si ninguna responde se usa el primario.
+    - Dentro de stickToPrimary() todas las lecturas van al primario (read-your-writes).
+    - callOnPrimary(...) hace lo mismo solo para una llamada (cargas de la caché, ver CacheConfig).
+
+    Se usa como readOnlyDataSource de LazyConnectionDataSourceProxy (ver ReadReplicaConfig).
+*/
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    public enum Strategy { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final Strategy strategy;
+
+    private final long cooldownNanos;
+
+    private final AtomicLongArray downUntil;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy, Duration cooldown) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.cooldownNanos = cooldown.toNanos();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    public static void stickToPrimary() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    public static void clearStickiness() {
+        STICKY.remove();
+    }
+
+    // Ejecuta la llamada leyendo del primario y deja la petición como estaba
+    public static <T> T callOnPrimary(Callable<T> call) throws Exception {
+        Boolean previous = STICKY.get();
+        STICKY.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            if (previous == null) {
+                STICKY.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (STICKY.get() == null && !replicas.isEmpty()) {
+            int first = select();
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = (first + i) % replicas.size();
+                if (isDown(index)) {
+                    continue;
+                }
+                try {
+                    return connect(replicas.get(index), username, password);
+                } catch (SQLException ex) {
+                    downUntil.set(index, System.nanoTime() + cooldownNanos);
+                    log.warn("Read replica {} unavailable, skipping it for {} ms", index, cooldownNanos / 1_000_000, ex);
+                }
+            }
+        }
+        return connect(primary, username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private int select() {
+        if (strategy == Strategy.LEAST_CONNECTIONS) {
+            int best = 0;
+            int bestActive = Integer.MAX_VALUE;
+            for (int i = 0; i < replicas.size(); i++) {
+                int active = activeConnections(replicas.get(i));
+                if (!isDown(i) && active < bestActive) {
+                    best = i;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    private boolean isDown(int index) {
+        long until = downUntil.get(index);
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+}
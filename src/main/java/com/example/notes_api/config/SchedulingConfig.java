@@ -0,0 +1,11 @@
+package com.example.notes_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Activa las tareas @Scheduled (purga de tombstones, etc.)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,98 @@
+package com.example.notes_api.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordingStream;
+
+/*
+    Modo de hilos virtuales (opcional, requiere Java 21).
+
+    spring.threads.virtual.enabled=true hace que Tomcat y el executor de tareas asíncronas
+    (el que escribe las respuestas en streaming) usen hilos virtuales. Esta configuración
+    solo se activa en ese modo y añade:
+
+    - Un bulkhead delante del DataSource, con tantos permisos como conexiones tiene Hikari,
+      para que miles de hilos virtuales no se amontonen sobre el pool.
+    - Diagnóstico de pinning: escucha el evento JFR jdk.VirtualThreadPinned, lo registra en el log
+      con su stack trace y lo cuenta en la métrica notes.virtual-threads.pinned.
+*/
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private RecordingStream pinningRecording;
+
+    @Bean
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Solo los pools reales: no los proxies (LazyConnectionDataSourceProxy, el propio bulkhead) ni el router de réplicas
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource || bean instanceof ReplicaDataSource) {
+                    return bean;
+                }
+                int poolSize = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                int permits = environment.getProperty("notes.db-bulkhead.permits", Integer.class, poolSize);
+                Duration timeout = environment.getProperty("notes.db-bulkhead.timeout", Duration.class, Duration.ofSeconds(5));
+
+                log.info("Virtual threads enabled: limiting DataSource '{}' to {} concurrent connections", beanName, permits);
+                return new BulkheadDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    Gauge dbBulkheadQueueGauge(DataSource dataSource, MeterRegistry meterRegistry) {
+        return Gauge.builder("notes.db-bulkhead.waiting", dataSource,
+                             ds -> ds instanceof BulkheadDataSource bulkhead ? bulkhead.queueLength() : 0)
+                    .description("Threads waiting for a database permit")
+                    .register(meterRegistry);
+    }
+
+    @Bean
+    Counter pinnedThreadsCounter(MeterRegistry meterRegistry, Environment environment) {
+        Counter pinned = Counter.builder("notes.virtual-threads.pinned")
+                                .description("Virtual threads pinned to their carrier thread (JFR jdk.VirtualThreadPinned)")
+                                .register(meterRegistry);
+
+        Duration threshold = environment.getProperty("notes.virtual-threads.pinned-threshold", Duration.class, Duration.ofMillis(20));
+
+        pinningRecording = new RecordingStream();
+        pinningRecording.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        pinningRecording.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            log.warn("Virtual thread pinned for {} ms:\n{}", event.getDuration().toMillis(), event.getStackTrace());
+        });
+        pinningRecording.startAsync();
+
+        return pinned;
+    }
+
+    @PreDestroy
+    void stopPinningRecording() {
+        if (pinningRecording != null) {
+            pinningRecording.close();
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.notes_api.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.notes_api.event.NoteChangeBroker;
+
+/*
+    Stream de cambios (server-sent events) para no tener que sondear GET /api/notes.
+    Se reanuda con ?since=<eventId> o con la cabecera Last-Event-ID que envía EventSource al reconectar.
+*/
+@RestController
+@RequestMapping("/api/notes/changes")
+public class NoteChangesController {
+
+    private final NoteChangeBroker changeBroker;
+
+    public NoteChangesController(NoteChangeBroker changeBroker) {
+        this.changeBroker = changeBroker;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) String since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeBroker.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+}
@@ -1,21 +1,45 @@
 package com.example.notes_api.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.NoteBatchUpdateRequest;
 import com.example.notes_api.dto.NoteRequest;
 import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteRevisionResponse;
+import com.example.notes_api.dto.NoteRevisionSummary;
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.NoteSyncResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.exception.NoteVersionMismatchException;
+import com.example.notes_api.idempotency.IdempotencyKeys;
+import com.example.notes_api.search.TagMatch;
+import com.example.notes_api.service.NoteRevisionService;
 import com.example.notes_api.service.NoteService;
+import com.example.notes_api.service.NoteSyncService;
 
 import jakarta.validation.Valid;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PutMapping;
 
 
@@ -26,35 +50,197 @@ import org.springframework.web.bind.annotation.PutMapping;
 @RequestMapping("/api/notes")
 public class NoteController {
 
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final NoteService noteService;
 
-    public NoteController(NoteService noteService) {
+    private final NoteSyncService noteSyncService;
+
+    private final NoteRevisionService noteRevisionService;
+
+    private final ObjectMapper objectMapper;
+
+    private final IdempotencyKeys idempotencyKeys;
+
+    public NoteController(NoteService noteService, NoteSyncService noteSyncService, NoteRevisionService noteRevisionService,
+                          ObjectMapper objectMapper, IdempotencyKeys idempotencyKeys) {
         this.noteService = noteService;
+        this.noteSyncService = noteSyncService;
+        this.noteRevisionService = noteRevisionService;
+        this.objectMapper = objectMapper;
+        this.idempotencyKeys = idempotencyKeys;
     }
 
     @GetMapping
-    public List<NoteResponse> getNotes() {
-        return noteService.getAll();
+    public PageResponse<NoteResponse> getNotes(@RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int limit) {
+        return noteService.getPage(cursor, limit);
+    }
+
+    // Listado resumido: no lee ni transfiere el content de cada nota
+    @GetMapping(params = "summary=true")
+    public PageResponse<NoteSummaryResponse> getNoteSummaries(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int limit) {
+        return noteService.getSummaryPage(cursor, limit);
+    }
+
+    // Filtro por etiquetas (?tags=a,b): mode=and -> todas, mode=or -> alguna. Se pagina con nextCursor igual que el listado
+    @GetMapping(params = "tags")
+    public PageResponse<NoteResponse> getNotesByTags(@RequestParam List<String> tags,
+                                                     @RequestParam(defaultValue = "and") TagMatch mode,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int limit) {
+        return noteService.getPageByTags(tags, mode, cursor, limit);
+    }
+
+    /*
+        Sincronización incremental: notas creadas o modificadas y notas borradas desde modifiedSince
+        (fecha ISO, p. ej. 2024-05-01T10:00:00). Se pagina con nextCursor igual que el listado.
+    */
+    @GetMapping(params = "modifiedSince")
+    public NoteSyncResponse getNoteChanges(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime modifiedSince,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        return noteSyncService.getChangesSince(modifiedSince, cursor, limit);
+    }
+
+    /*
+        Con "Accept: application/x-ndjson" se devuelven todas las notas, una por línea,
+        escribiendo cada fila en cuanto sale del cursor JDBC (memoria constante).
+    */
+    @GetMapping(produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamNotes() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                noteService.streamAll(note -> {
+                    objectMapper.writeValue(generator, note);
+                    generator.writeRaw('\n');
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                             .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                             .body(body);
     }
 
+    // Búsqueda de texto completo en title y content, ordenada por relevancia
+    @GetMapping("/search")
+    public PageResponse<NoteSearchHit> search(@RequestParam String q,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        return noteService.search(q, cursor, limit);
+    }
+
+    /*
+        La versión de la nota viaja como ETag. Si el cliente envía If-None-Match con la misma
+        versión, Spring responde 304 sin cuerpo.
+    */
     @GetMapping("/{id}")
-    NoteResponse getById(@PathVariable Long id) {
-        return noteService.getById(id);
+    ResponseEntity<NoteResponse> getById(@PathVariable Long id) {
+        NoteResponse note = noteService.getById(id);
+        return ResponseEntity.ok().eTag(eTagOf(note)).body(note);
     }
 
+    /*
+        Idempotency-Key opcional en las escrituras: al repetir la petición con la misma clave se
+        devuelve la respuesta de la primera vez sin volver a ejecutarla (ver IdempotencyKeys).
+    */
     @PostMapping
-    public NoteResponse creaNote(@Valid @RequestBody NoteRequest noteRequest) {
-        return noteService.create(noteRequest);
+    public ResponseEntity<NoteResponse> creaNote(@Valid @RequestBody NoteRequest noteRequest,
+                                                 @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        IdempotencyKeys.Result result = idempotencyKeys.execute(idempotencyKey, "POST /api/notes", noteRequest,
+                                                                () -> noteService.create(noteRequest));
+        return withReplayHeader(ResponseEntity.ok(), result).body(result.response());
     }
 
+    // If-Match opcional: si la versión no coincide se responde 412 Precondition Failed
     @PutMapping("/{id}")
-    public NoteResponse updateNoteById(@PathVariable Long id, @Valid @RequestBody NoteRequest noteRequest) {
-        return noteService.update(id, noteRequest);    
+    public ResponseEntity<NoteResponse> updateNoteById(@PathVariable Long id, @Valid @RequestBody NoteRequest noteRequest,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        IdempotencyKeys.Result result = idempotencyKeys.execute(idempotencyKey, "PUT /api/notes/" + id + " If-Match: " + ifMatch,
+                                                                noteRequest, () -> noteService.update(id, noteRequest, versionOf(ifMatch)));
+        return withETag(result);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteNoteById(@PathVariable Long id) {
-        noteService.deleteById(id);
+    public void deleteNoteById(@PathVariable Long id,
+                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        noteService.deleteById(id, versionOf(ifMatch));
+    }
+
+    // Historial de revisiones, de la más reciente a la más antigua (sin content)
+    @GetMapping("/{id}/revisions")
+    public PageResponse<NoteRevisionSummary> getRevisions(@PathVariable Long id,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return noteRevisionService.getRevisions(id, cursor, limit);
+    }
+
+    @GetMapping("/{id}/revisions/{revision}")
+    public NoteRevisionResponse getRevision(@PathVariable Long id, @PathVariable int revision) {
+        return noteRevisionService.getRevision(id, revision);
+    }
+
+    // Restaura la revisión como una modificación más; admite If-Match igual que PUT
+    @PostMapping("/{id}/revisions/{revision}/restore")
+    public ResponseEntity<NoteResponse> restoreRevision(@PathVariable Long id, @PathVariable int revision,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+        IdempotencyKeys.Result result = idempotencyKeys.execute(idempotencyKey,
+                                                                "POST /api/notes/" + id + "/revisions/" + revision + "/restore If-Match: " + ifMatch,
+                                                                null, () -> noteRevisionService.restore(id, revision, versionOf(ifMatch)));
+        return withETag(result);
+    }
+
+    /*
+        Endpoints batch: cada elemento se valida por separado y la respuesta indica
+        el resultado de cada uno (CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, VERSION_MISMATCH
+        o FAILED si su bloque falló al escribirse).
+    */
+    @PostMapping("/batch")
+    public BatchResponse createNotes(@RequestBody List<NoteRequest> notes) {
+        return noteService.createBatch(notes);
+    }
+
+    @PutMapping("/batch")
+    public BatchResponse updateNotes(@RequestBody List<NoteBatchUpdateRequest> notes) {
+        return noteService.updateBatch(notes);
+    }
+
+    @DeleteMapping("/batch")
+    public BatchResponse deleteNotes(@RequestBody List<Long> ids) {
+        return noteService.deleteBatch(ids);
+    }
+
+    private static ResponseEntity<NoteResponse> withETag(IdempotencyKeys.Result result) {
+        return withReplayHeader(ResponseEntity.ok(), result).eTag(eTagOf(result.response())).body(result.response());
+    }
+
+    // Idempotent-Replayed: true cuando la respuesta es la guardada de una petición anterior con la misma clave
+    private static ResponseEntity.BodyBuilder withReplayHeader(ResponseEntity.BodyBuilder response, IdempotencyKeys.Result result) {
+        return result.replayed() ? response.header(IdempotencyKeys.REPLAYED_HEADER, "true") : response;
+    }
+
+    private static String eTagOf(NoteResponse note) {
+        return "\"" + note.getVersion() + "\"";
+    }
+
+    // Convierte el valor de If-Match ("3", "\"3\"" o W/"3") en la versión esperada; "*" o ausente = sin condición
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new NoteVersionMismatchException("Invalid If-Match header: " + ifMatch);
+        }
     }
 
 }
@@ -0,0 +1,48 @@
+package com.example.notes_api.controller;
+
+import java.net.URI;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.notes_api.dto.IngestStatusResponse;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.ingest.NoteIngestQueue;
+
+import jakarta.validation.Valid;
+
+/*
+    Alta asíncrona de notas (notes.ingest.enabled=true): responde 202 con un ticket
+    y la nota se escribe después en batch. El estado se consulta en Location.
+*/
+@RestController
+@RequestMapping("/api/notes/ingest")
+@ConditionalOnProperty(name = "notes.ingest.enabled", havingValue = "true")
+public class NoteIngestController {
+
+    private final NoteIngestQueue ingestQueue;
+
+    public NoteIngestController(NoteIngestQueue ingestQueue) {
+        this.ingestQueue = ingestQueue;
+    }
+
+    @PostMapping
+    public ResponseEntity<IngestStatusResponse> ingestNote(@Valid @RequestBody NoteRequest noteRequest) {
+        IngestStatusResponse status = ingestQueue.submit(noteRequest);
+        return ResponseEntity.accepted()
+                             .location(URI.create("/api/notes/ingest/" + status.getTicket()))
+                             .body(status);
+    }
+
+    @GetMapping("/{ticket}")
+    public IngestStatusResponse getIngestStatus(@PathVariable String ticket) {
+        return ingestQueue.getStatus(ticket);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.notes_api.controller;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.notes_api.dto.NoteImportResponse;
+import com.example.notes_api.model.NoteImport;
+import com.example.notes_api.service.NoteImportService;
+import com.example.notes_api.service.NoteService;
+import com.example.notes_api.transfer.NoteTransferCodec;
+import com.example.notes_api.transfer.NoteTransferFormat;
+
+import tools.jackson.databind.SequenceWriter;
+
+/*
+    Copias de seguridad y migraciones: exportación e importación de todas las notas del dueño
+    en NDJSON o CSV, sin cargarlas nunca en memoria.
+*/
+@RestController
+@RequestMapping("/api/notes")
+public class NoteTransferController {
+
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final NoteService noteService;
+
+    private final NoteImportService noteImportService;
+
+    private final NoteTransferCodec codec;
+
+    public NoteTransferController(NoteService noteService, NoteImportService noteImportService, NoteTransferCodec codec) {
+        this.noteService = noteService;
+        this.noteImportService = noteImportService;
+        this.codec = codec;
+    }
+
+    /*
+        Escribe cada fila en cuanto sale del cursor JDBC. Con gzip=true se descarga un fichero
+        .gz (que se puede volver a importar tal cual); sin él, el servidor comprime igualmente
+        la transferencia si el cliente envía Accept-Encoding: gzip.
+    */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        NoteTransferFormat transferFormat = NoteTransferFormat.fromExtension(format);
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try (SequenceWriter writer = codec.writer(transferFormat, target)) {
+                noteService.streamAll(writer::write);
+            }
+        };
+        String filename = "notes." + transferFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                             .contentType(gzip ? APPLICATION_GZIP : transferFormat.getMediaType())
+                             .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                             .body(body);
+    }
+
+    /*
+        El cuerpo es el fichero (Content-Type application/x-ndjson o text/csv, comprimido con gzip o no).
+        Responde cuando termina: 200 si se completó, 422 si falló a medias (lo guardado se conserva
+        y repetir la petición con el mismo importId continúa desde el checkpoint).
+    */
+    @PostMapping(value = "/import", consumes = { NoteController.APPLICATION_NDJSON, "text/csv" })
+    public ResponseEntity<NoteImportResponse> importNotes(@RequestParam(required = false) String importId,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) {
+        NoteImportResponse result = noteImportService.importNotes(importId, NoteTransferFormat.fromContentType(contentType), body);
+        HttpStatus status = result.getStatus() == NoteImport.Status.FAILED ? HttpStatus.UNPROCESSABLE_CONTENT : HttpStatus.OK;
+        return ResponseEntity.status(status)
+                             .location(URI.create("/api/notes/import/" + result.getImportId()))
+                             .body(result);
+    }
+
+    // Progreso de una importación, también mientras se ejecuta (se actualiza tras cada bloque)
+    @GetMapping("/import/{importId}")
+    public NoteImportResponse getImport(@PathVariable String importId) {
+        return noteImportService.getImport(importId);
+    }
+
+}
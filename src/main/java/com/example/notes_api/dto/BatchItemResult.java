@@ -0,0 +1,57 @@
+package com.example.notes_api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/*
+    Resultado de un elemento de una operación batch.
+    index es la posición del elemento en el array recibido; errors sigue el formato de ValidationErrorResponse.
+    FAILED: el bloque del elemento falló al escribirse y se deshizo entero; se puede reintentar tal cual.
+*/
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BatchItemResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, VERSION_MISMATCH, FAILED }
+
+    private final int index;
+
+    private final Long id;
+
+    private final Status status;
+
+    private final List<String> errors;
+
+    public static BatchItemResult success(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, List.of());
+    }
+
+    public static BatchItemResult invalid(int index, List<String> errors) {
+        return new BatchItemResult(index, null, Status.INVALID, errors);
+    }
+
+    public static BatchItemResult notFound(int index, Long id) {
+        return new BatchItemResult(index, id, Status.NOT_FOUND, List.of("Note not found with id: " + id));
+    }
+
+    public static BatchItemResult versionMismatch(int index, Long id, Long expectedVersion) {
+        return new BatchItemResult(index, id, Status.VERSION_MISMATCH, List.of("Note " + id + " does not match version " + expectedVersion));
+    }
+
+    public static BatchItemResult failed(int index, Long id) {
+        return new BatchItemResult(index, id, Status.FAILED, List.of("Not written: the chunk containing this item failed and was rolled back"));
+    }
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.notes_api.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+
+
+@Getter
+public class BatchResponse {
+
+    private final int succeeded;
+
+    private final int failed;
+
+    private final List<BatchItemResult> items;
+
+    public BatchResponse(List<BatchItemResult> items) {
+        this.items = items;
+        this.succeeded = (int) items.stream().filter(BatchItemResult::isSuccess).count();
+        this.failed = items.size() - succeeded;
+    }
+
+}
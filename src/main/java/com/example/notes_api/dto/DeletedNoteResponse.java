@@ -0,0 +1,19 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+@AllArgsConstructor @NoArgsConstructor
+@Getter @Setter
+public class DeletedNoteResponse {
+
+    private Long id;
+
+    private LocalDateTime deletedAt;
+
+}
@@ -0,0 +1,41 @@
+package com.example.notes_api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+    Estado de una nota enviada a la cola de ingesta.
+    QUEUED: aceptada y guardada en el journal; PERSISTED: ya tiene id en la BD; FAILED: rechazada al escribirla.
+*/
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class IngestStatusResponse {
+
+    public enum Status { QUEUED, PERSISTED, FAILED }
+
+    private final String ticket;
+
+    private final Status status;
+
+    private final Long id;
+
+    private final List<String> errors;
+
+    public static IngestStatusResponse queued(String ticket) {
+        return new IngestStatusResponse(ticket, Status.QUEUED, null, List.of());
+    }
+
+    public static IngestStatusResponse persisted(String ticket, Long id) {
+        return new IngestStatusResponse(ticket, Status.PERSISTED, id, List.of());
+    }
+
+    public static IngestStatusResponse failed(String ticket, List<String> errors) {
+        return new IngestStatusResponse(ticket, Status.FAILED, null, errors);
+    }
+
+}
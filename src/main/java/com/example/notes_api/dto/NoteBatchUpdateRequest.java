@@ -0,0 +1,28 @@
+package com.example.notes_api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/*
+    Elemento de PUT /api/notes/batch: los mismos campos que NoteRequest más el id a actualizar.
+    version es opcional y funciona como If-Match en PUT /api/notes/{id}: si no coincide, ese
+    elemento queda VERSION_MISMATCH y el resto del bloque se escribe igual.
+*/
+@NoArgsConstructor
+@Getter @Setter
+public class NoteBatchUpdateRequest extends NoteRequest {
+
+    @NotNull(message = "Id must not be null")
+    private Long id;
+
+    private Long version;
+
+    public NoteBatchUpdateRequest(Long id, String title, String content) {
+        super(title, content);
+        this.id = id;
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.notes_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+    Cambio emitido por GET /api/notes/changes.
+
+    eventId es el id SSE ("<epoch>-<sequence>") y lo que se pasa como since para reanudar.
+
+    type: created, updated, deleted, o los de control:
+    - ready: fin de la reproducción inicial; eventId es la posición actual del stream
+    - reset: el "since" pedido ya no está en el buffer o es de antes de un reinicio; hay que recargar
+      las notas y seguir desde eventId
+
+    note solo viene en created y updated.
+*/
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteChangeResponse {
+
+    private final String eventId;
+
+    private final long sequence;
+
+    private final String type;
+
+    private final Long id;
+
+    private final NoteResponse note;
+
+}
@@ -0,0 +1,41 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.notes_api.model.NoteImport.Status;
+import com.example.notes_api.transfer.NoteTransferFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/*
+    Progreso de una importación masiva. processed = registros del fichero ya tratados
+    (imported + invalid); al reanudar se continúa desde ahí.
+*/
+@AllArgsConstructor @NoArgsConstructor
+@Getter @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteImportResponse {
+
+    private String importId;
+
+    private NoteTransferFormat format;
+
+    private Status status;
+
+    private long processed;
+
+    private long imported;
+
+    private long invalid;
+
+    private String error;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+}
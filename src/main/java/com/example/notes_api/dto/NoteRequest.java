@@ -1,6 +1,11 @@
 package com.example.notes_api.dto;
 
+import java.util.List;
+
+import com.example.notes_api.model.NoteTags;
+
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,4 +24,13 @@ public class NoteRequest {
     @NotBlank(message = "Content must not be blank")
     private String content;
 
+    // null en una modificación = conservar las etiquetas que tenga la nota; [] las quita
+    @Size(max = NoteTags.MAX_TAGS, message = "A note can have at most " + NoteTags.MAX_TAGS + " tags")
+    private List<@Pattern(regexp = NoteTags.PATTERN,
+                          message = "Tags must be 1-" + NoteTags.MAX_LENGTH + " letters, digits, '_', '-' or '.'") String> tags;
+
+    public NoteRequest(String title, String content) {
+        this(title, content, null);
+    }
+
 }
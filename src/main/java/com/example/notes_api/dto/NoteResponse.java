@@ -1,6 +1,9 @@
 package com.example.notes_api.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -8,6 +11,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
+// Orden fijo: NoteJsonWriter escribe los mismos campos en el mismo orden
+@JsonPropertyOrder({ "id", "title", "content", "tags", "createdAt", "updatedAt", "version" })
 @AllArgsConstructor @NoArgsConstructor
 @Getter @Setter
 public class NoteResponse {
@@ -18,8 +23,16 @@ public class NoteResponse {
 
     private String content;
 
+    private List<String> tags = List.of();
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
 
+    private Long version;
+
+    public NoteResponse(Long id, String title, String content, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, content, List.of(), createdAt, updatedAt, version);
+    }
+
 }
@@ -0,0 +1,24 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor @NoArgsConstructor
+@Getter @Setter
+public class NoteRevisionResponse {
+
+    private Long noteId;
+
+    private int revision;
+
+    private String title;
+
+    private String content;
+
+    private LocalDateTime createdAt;
+
+}
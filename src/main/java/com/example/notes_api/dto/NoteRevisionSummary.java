@@ -0,0 +1,23 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Una revisión en el listado: sin el content, que habría que reconstruir
+@AllArgsConstructor @NoArgsConstructor
+@Getter @Setter
+public class NoteRevisionSummary {
+
+    private int revision;
+
+    private String title;
+
+    private int contentLength;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,28 @@
+package com.example.notes_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/*
+    Resultado de búsqueda: la nota, su puntuación (BM25) y fragmentos resaltados con <em>.
+    Los fragmentos son null cuando el término no aparece en ese campo.
+*/
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteSearchHit {
+
+    private final Long id;
+
+    private final String title;
+
+    private final float score;
+
+    private final String titleHighlight;
+
+    private final String contentHighlight;
+
+}
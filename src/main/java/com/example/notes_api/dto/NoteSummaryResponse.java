@@ -0,0 +1,31 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/*
+    Versión resumida de NoteResponse para listados: en lugar del content (columna TEXT)
+    incluye sus primeros caracteres (preview) y su longitud total (contentLength).
+*/
+@AllArgsConstructor @NoArgsConstructor
+@Getter @Setter
+public class NoteSummaryResponse {
+
+    private Long id;
+
+    private String title;
+
+    private String preview;
+
+    private Integer contentLength;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,30 @@
+package com.example.notes_api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/*
+    Página de la sincronización incremental: notas creadas o modificadas y notas borradas
+    desde modifiedSince, cada lista ordenada por fecha (updatedAt / deletedAt) y luego por id.
+    nextCursor funciona igual que en PageResponse: null cuando ya no quedan cambios.
+
+    syncToken solo viene en la última página: es el modifiedSince de la siguiente sincronización.
+    Lo fija el servidor (ver INoteSyncService); el cliente no debe calcularlo con sus fechas.
+*/
+@AllArgsConstructor
+@Getter
+public class NoteSyncResponse {
+
+    private final List<NoteResponse> items;
+
+    private final List<DeletedNoteResponse> deleted;
+
+    private final String nextCursor;
+
+    private final LocalDateTime syncToken;
+
+}
@@ -0,0 +1,25 @@
+package com.example.notes_api.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/*
+    Página de resultados con paginación por cursor (keyset).
+    nextCursor es un token opaco: el cliente lo reenvía tal cual para pedir la siguiente página
+    y es null cuando no quedan más resultados.
+*/
+@JsonPropertyOrder({ "items", "nextCursor" })
+@AllArgsConstructor
+@Getter
+public class PageResponse<T> {
+
+    private final List<T> items;
+
+    private final String nextCursor;
+
+}
@@ -0,0 +1,285 @@
+package com.example.notes_api.event;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.notes_api.dto.NoteChangeResponse;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.owner.OwnerContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+    Difusión en memoria de los cambios de notas a los clientes SSE.
+
+    - Cada NoteChangedEvent confirmado recibe un número de secuencia y se guarda en un buffer
+      circular con los últimos buffer-size cambios, desde donde se reanuda con since / Last-Event-ID.
+    - La secuencia vuelve a 0 en cada arranque, así que el id de cada evento es "<epoch>-<sequence>",
+      con un epoch aleatorio por arranque: un id de otro arranque (o de otra instancia) recibe reset
+      aunque su número caiga dentro del buffer actual.
+    - Cada suscriptor tiene su propia cola acotada (subscriber-buffer). Un pool pequeño de hilos
+      la vacía hacia el SseEmitter, así un cliente lento no frena a quien escribe ni a los demás.
+    - Si la cola de un suscriptor se llena, se le desconecta; al reconectar con Last-Event-ID
+      recupera lo que le falte desde el buffer circular.
+    - Cada heartbeat se envía un comentario SSE para mantener viva la conexión.
+
+    Cada suscriptor recibe solo los cambios de su dueño (OwnerContext al suscribirse); la secuencia
+    es común a todos, así que un cliente puede ver saltos en los números.
+
+    El stream es por instancia: con varias instancias cada una tiene su propia secuencia y su epoch.
+*/
+@Component
+public class NoteChangeBroker {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteChangeBroker.class);
+
+    private static final NoteChangeResponse HEARTBEAT = new NoteChangeResponse(null, 0, "heartbeat", null, null);
+
+    // Sin '-': separa el epoch de la secuencia en el id de los eventos
+    final String epoch = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX);
+
+    private final Object lock = new Object();
+
+    private final Change[] history;
+
+    private int historyStart;
+
+    private int historySize;
+
+    private long sequence;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final int subscriberBuffer;
+
+    private final Duration timeout;
+
+    private final ExecutorService delivery;
+
+    private final ScheduledExecutorService heartbeat;
+
+    private final Counter evicted;
+
+    public NoteChangeBroker(MeterRegistry meterRegistry,
+                            @Value("${notes.changes.buffer-size:10000}") int bufferSize,
+                            @Value("${notes.changes.subscriber-buffer:1000}") int subscriberBuffer,
+                            @Value("${notes.changes.delivery-threads:4}") int deliveryThreads,
+                            @Value("${notes.changes.heartbeat:15s}") Duration heartbeatInterval,
+                            @Value("${notes.changes.timeout:30m}") Duration timeout) {
+        this.history = new Change[bufferSize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeout = timeout;
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("note-changes-");
+        threadFactory.setDaemon(true);
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, threadFactory);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("notes.changes.subscribers", subscribers, Set::size)
+             .description("Connected change stream subscribers")
+             .register(meterRegistry);
+        this.evicted = Counter.builder("notes.changes.evicted")
+                              .description("Change stream subscribers disconnected for not keeping up")
+                              .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        synchronized (lock) {
+            Change change = new Change(event.ownerId(), response(++sequence, event.type().name().toLowerCase(), event.id(), event.note()));
+            remember(change);
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.ownerId.equals(change.ownerId())) {
+                    subscriber.offer(change.response());
+                }
+            }
+        }
+    }
+
+    public SseEmitter subscribe(String since) {
+        return subscribe(since, new SseEmitter(timeout.toMillis()));
+    }
+
+    // Registro y reproducción bajo el mismo lock que onNoteChanged: no se pierde ni se duplica ningún cambio
+    SseEmitter subscribe(String since, SseEmitter emitter) {
+        String ownerId = OwnerContext.current();
+        Long sinceSequence = sequenceOf(since);
+        synchronized (lock) {
+            List<NoteChangeResponse> replay = new ArrayList<>();
+            long oldest = sequence - historySize + 1;
+
+            if (since == null) {
+                replay.add(response(sequence, "ready", null, null));
+            } else if (sinceSequence == null || sinceSequence < oldest - 1 || sinceSequence > sequence) {
+                // De otro arranque o instancia, o ya fuera del buffer
+                replay.add(response(sequence, "reset", null, null));
+            } else {
+                for (int i = (int) (sinceSequence - oldest + 1); i < historySize; i++) {
+                    Change change = history[(historyStart + i) % history.length];
+                    if (change.ownerId().equals(ownerId)) {
+                        replay.add(change.response());
+                    }
+                }
+                replay.add(response(sequence, "ready", null, null));
+            }
+
+            Subscriber subscriber = new Subscriber(ownerId, emitter, subscriberBuffer + replay.size());
+            emitter.onCompletion(subscriber::close);
+            emitter.onTimeout(subscriber::close);
+            emitter.onError(error -> subscriber.close());
+
+            subscribers.add(subscriber);
+            replay.forEach(subscriber::offer);
+        }
+        return emitter;
+    }
+
+    // Al cerrar el contexto, antes de que el servidor espere a las peticiones en curso: las conexiones SSE no terminan solas
+    @EventListener(ContextClosedEvent.class)
+    public void disconnectAll() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeat.shutdownNow();
+        disconnectAll();
+        delivery.shutdownNow();
+    }
+
+    private NoteChangeResponse response(long sequence, String type, Long id, NoteResponse note) {
+        return new NoteChangeResponse(epoch + "-" + sequence, sequence, type, id, note);
+    }
+
+    // La secuencia de un id de este arranque; null si es de otro epoch o no tiene el formato
+    private Long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private void remember(Change change) {
+        if (historySize < history.length) {
+            history[(historyStart + historySize++) % history.length] = change;
+        } else {
+            history[historyStart] = change;
+            historyStart = (historyStart + 1) % history.length;
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    private record Change(String ownerId, NoteChangeResponse response) {
+    }
+
+    private final class Subscriber {
+
+        private final String ownerId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<NoteChangeResponse> queue;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        Subscriber(String ownerId, SseEmitter emitter, int capacity) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(NoteChangeResponse change) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                evicted.increment();
+                log.info("Disconnecting change stream subscriber: {} changes pending", queue.size());
+                close();
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                NoteChangeResponse change;
+                while (!closed && (change = queue.poll()) != null) {
+                    send(change);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // El cliente se desconectó
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && !queue.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void send(NoteChangeResponse change) throws IOException {
+            if (change == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                                   .id(change.getEventId())
+                                   .name(change.getType())
+                                   .data(change, MediaType.APPLICATION_JSON));
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.notes_api.event;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.owner.OwnerContext;
+
+/*
+    Evento que publica el service después de cada escritura.
+    Los componentes que mantienen copias derivadas de las notas (índice de búsqueda, etc.)
+    lo escuchan en lugar de depender del service.
+
+    ownerId es el dueño de la nota: el del hilo que hizo la escritura (OwnerContext).
+    note es null cuando type es DELETED.
+*/
+public record NoteChangedEvent(Type type, String ownerId, Long id, NoteResponse note) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static NoteChangedEvent created(NoteResponse note) {
+        return new NoteChangedEvent(Type.CREATED, OwnerContext.current(), note.getId(), note);
+    }
+
+    public static NoteChangedEvent updated(NoteResponse note) {
+        return new NoteChangedEvent(Type.UPDATED, OwnerContext.current(), note.getId(), note);
+    }
+
+    public static NoteChangedEvent deleted(Long id) {
+        return new NoteChangedEvent(Type.DELETED, OwnerContext.current(), id, null);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.notes_api.event;
+
+import java.time.LocalDateTime;
+
+/*
+    Evento que publica el service justo antes de sobrescribir el title y el content de una nota,
+    dentro de la misma transacción. Lleva el estado anterior (que tras el UPDATE ya no se puede leer)
+    y el nuevo; el historial de revisiones lo usa para guardar la versión que se sobrescribe.
+*/
+public record NoteUpdatingEvent(Long id, String previousTitle, String previousContent, LocalDateTime previousUpdatedAt,
+                                String title, String content) {
+
+    public boolean changesNote() {
+        return !previousTitle.equals(title) || !previousContent.equals(content);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.example.notes_api.exception;
+
+public class IngestTicketNotFoundException extends RuntimeException {
+    public IngestTicketNotFoundException(String message) {
+        super(message);
+    }
+
+}
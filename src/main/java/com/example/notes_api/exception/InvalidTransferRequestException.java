@@ -0,0 +1,9 @@
+package com.example.notes_api.exception;
+
+public class InvalidTransferRequestException extends RuntimeException {
+
+    public InvalidTransferRequestException(String message) {
+        super(message);
+    }
+
+}
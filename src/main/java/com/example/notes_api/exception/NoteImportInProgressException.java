@@ -0,0 +1,9 @@
+package com.example.notes_api.exception;
+
+public class NoteImportInProgressException extends RuntimeException {
+
+    public NoteImportInProgressException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.notes_api.exception;
+
+public class NoteImportNotFoundException extends RuntimeException {
+
+    public NoteImportNotFoundException(String message) {
+        super(message);
+    }
+
+}
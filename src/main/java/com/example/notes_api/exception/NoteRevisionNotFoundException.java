@@ -0,0 +1,9 @@
+package com.example.notes_api.exception;
+
+public class NoteRevisionNotFoundException extends RuntimeException {
+
+    public NoteRevisionNotFoundException(String message) {
+        super(message);
+    }
+
+}
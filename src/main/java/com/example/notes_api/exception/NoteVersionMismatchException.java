@@ -0,0 +1,8 @@
+package com.example.notes_api.exception;
+
+public class NoteVersionMismatchException extends RuntimeException {
+    public NoteVersionMismatchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.example.notes_api.exception;
+
+public class SyncExpiredException extends RuntimeException {
+    public SyncExpiredException(String message) {
+        super(message);
+    }
+
+}
@@ -2,7 +2,10 @@ package com.example.notes_api.handler;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,7 +14,21 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import com.example.notes_api.dto.ApiErrorResponse;
 import com.example.notes_api.dto.ValidationErrorResponse;
+import com.example.notes_api.exception.IdempotencyKeyInProgressException;
+import com.example.notes_api.exception.IdempotencyKeyReusedException;
+import com.example.notes_api.exception.IngestQueueFullException;
+import com.example.notes_api.exception.IngestTicketNotFoundException;
+import com.example.notes_api.exception.InvalidCursorException;
+import com.example.notes_api.exception.InvalidIdempotencyKeyException;
+import com.example.notes_api.exception.InvalidTransferRequestException;
+import com.example.notes_api.exception.NoteImportInProgressException;
+import com.example.notes_api.exception.NoteImportNotFoundException;
 import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteRevisionNotFoundException;
+import com.example.notes_api.exception.NoteVersionMismatchException;
+import com.example.notes_api.exception.RateLimitExceededException;
+import com.example.notes_api.exception.ServiceOverloadedException;
+import com.example.notes_api.exception.SyncExpiredException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,6 +39,106 @@ public class GlobalExceptionHandler {
         return new ApiErrorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(NoteRevisionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiErrorResponse handleNoteRevisionNotFound(NoteRevisionNotFoundException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(IngestTicketNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiErrorResponse handleIngestTicketNotFound(IngestTicketNotFoundException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(NoteImportNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ApiErrorResponse handleNoteImportNotFound(NoteImportNotFoundException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    // Ya hay una importación con ese importId ejecutándose
+    @ExceptionHandler(NoteImportInProgressException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrorResponse handleNoteImportInProgress(NoteImportInProgressException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    // Un duplicado esperó a la petición con la misma Idempotency-Key y esta aún no ha terminado
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrorResponse handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_CONTENT)
+    public ApiErrorResponse handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrorResponse handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(NoteVersionMismatchException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ApiErrorResponse handleVersionMismatch(NoteVersionMismatchException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrorResponse handleInvalidCursor(InvalidCursorException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    // Formato de exportación o importación no soportado, o importId no válido
+    @ExceptionHandler(InvalidTransferRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrorResponse handleInvalidTransferRequest(InvalidTransferRequestException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    // Los tombstones de ese periodo ya se purgaron: la sincronización incremental no sería completa
+    @ExceptionHandler(SyncExpiredException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public ApiErrorResponse handleSyncExpired(SyncExpiredException ex) {
+        return new ApiErrorResponse(ex.getMessage());
+    }
+
+    // Cola de ingesta llena: el cliente debe esperar antes de reintentar
+    @ExceptionHandler(IngestQueueFullException.class)
+    public ResponseEntity<ApiErrorResponse> handleIngestQueueFull(IngestQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .header(HttpHeaders.RETRY_AFTER, "1")
+                             .body(new ApiErrorResponse(ex.getMessage()));
+    }
+
+    // El cliente superó su límite de peticiones: Retry-After indica cuándo vuelve a tener permisos
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                             .body(new ApiErrorResponse(ex.getMessage()));
+    }
+
+    // El control de admisión descartó la petición porque la latencia está subiendo
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                             .body(new ApiErrorResponse(ex.getMessage()));
+    }
+
+    // No se obtuvo conexión a tiempo (pool o bulkhead saturados): el cliente puede reintentar
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiErrorResponse handleDatabaseUnavailable(CannotCreateTransactionException ex) {
+        return new ApiErrorResponse("Database is busy, please retry later");
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,91 @@
+package com.example.notes_api.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.model.NoteIdempotencyKey;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteIdempotencyKeyRepository;
+
+import tools.jackson.databind.ObjectMapper;
+
+/*
+    Store compartido por todas las instancias (notes.idempotency.store=database), que sobrevive
+    a los reinicios.
+
+    La escritura y su respuesta se guardan en la misma transacción: no puede quedar una nota
+    creada sin su clave (un reintento la duplicaría) ni una clave sin su nota. Si otra instancia
+    guardó la misma clave antes, la restricción única deshace esta transacción entera y
+    IdempotencyKeys devuelve la respuesta de la otra.
+
+    Las búsquedas tampoco son readOnly: con réplicas de lectura, una clave recién guardada en el
+    primario podría no haber llegado aún a la réplica. Las claves se purgan cada purge-interval,
+    así que pueden durar algo más que ttl.
+*/
+@Component
+@ConditionalOnProperty(name = "notes.idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIdempotencyStore.class);
+
+    private final NoteIdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+
+    public DatabaseIdempotencyStore(NoteIdempotencyKeyRepository repository, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${notes.idempotency.ttl:24h}") Duration ttl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return transactionTemplate.execute(status -> repository.findByIdempotencyKey(key).map(this::toStored));
+    }
+
+    @Override
+    public StoredResponse save(String key, String fingerprint, Supplier<NoteResponse> write) {
+        return transactionTemplate.execute(status -> {
+            NoteResponse response = write.get();
+            // saveAndFlush: una clave repetida falla aquí (DataIntegrityViolationException) y no al confirmar
+            repository.saveAndFlush(new NoteIdempotencyKey(key, fingerprint, objectMapper.writeValueAsString(response),
+                                                           LocalDateTime.now()));
+            return new StoredResponse(fingerprint, response);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notes.idempotency.purge-interval:1h}", initialDelayString = "${notes.idempotency.purge-interval:1h}")
+    public int purgeExpired() {
+        // Las de todos los dueños, igual que la purga de tombstones
+        int purged = OwnerContext.callAs(OwnerContext.ALL_OWNERS,
+                                         () -> repository.deleteOlderThan(LocalDateTime.now().minus(ttl)));
+        if (purged > 0) {
+            log.info("Purged {} idempotency keys older than {}", purged, ttl);
+        }
+        return purged;
+    }
+
+    private StoredResponse toStored(NoteIdempotencyKey record) {
+        return new StoredResponse(record.getFingerprint(), objectMapper.readValue(record.getResponse(), NoteResponse.class));
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.example.notes_api.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.exception.IdempotencyKeyInProgressException;
+import com.example.notes_api.exception.IdempotencyKeyReusedException;
+import com.example.notes_api.exception.InvalidIdempotencyKeyException;
+import com.example.notes_api.idempotency.IdempotencyStore.StoredResponse;
+import com.example.notes_api.model.NoteIdempotencyKey;
+import com.example.notes_api.owner.OwnerContext;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
+/*
+    Cabecera Idempotency-Key en las escrituras de NoteController (crear, modificar y restaurar).
+
+    Un cliente que repite la petición tras un timeout no sabe si la primera llegó a ejecutarse.
+    Con la misma clave, la primera se ejecuta y su NoteResponse se guarda en el IdempotencyStore;
+    las repeticiones reciben esa respuesta (con Idempotent-Replayed: true) sin llamar al service.
+    La clave es del dueño: la misma clave enviada por otro dueño es otra clave.
+
+    Con la respuesta se guarda una huella de la petición (operación, ruta, If-Match y cuerpo):
+    reutilizar la clave para otra petición responde 422. Solo se guardan las escrituras que
+    terminan bien; si fallan (400, 404, 412...), la clave queda libre para reintentar.
+
+    Un duplicado que llega mientras la primera sigue en curso en esta instancia espera a su
+    resultado, como mucho wait-timeout (después, 409). Entre instancias lo resuelve el store:
+    con la BD, la restricción única solo deja confirmar una de las dos escrituras.
+*/
+@Component
+public class IdempotencyKeys {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9._:-]{1," + NoteIdempotencyKey.MAX_KEY_LENGTH + "}");
+
+    public record Result(NoteResponse response, boolean replayed) {
+    }
+
+    private final IdempotencyStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration waitTimeout;
+
+    // dueño:clave -> resultado de la petición que se está ejecutando en esta instancia
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+
+    private final Counter replayed;
+
+    public IdempotencyKeys(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${notes.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+    }
+
+    /*
+        operation identifica la ruta y sus parámetros (p. ej. "PUT /api/notes/5 If-Match: 3") y
+        request es el cuerpo; juntos forman la huella. Sin clave, la escritura se ejecuta sin más.
+    */
+    public Result execute(String key, String operation, Object request, Supplier<NoteResponse> write) {
+        if (key == null) {
+            return new Result(write.get(), false);
+        }
+        if (!VALID_KEY.matcher(key).matches()) {
+            throw new InvalidIdempotencyKeyException("Invalid " + HEADER + " header: " + key);
+        }
+        String fingerprint = fingerprint(operation, request);
+        String inFlightKey = OwnerContext.current() + ":" + key;
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(inFlightKey, mine);
+            if (running == null) {
+                return lead(key, fingerprint, write, inFlightKey, mine);
+            }
+            StoredResponse stored = await(key, running, deadline);
+            if (stored != null) {
+                return replay(key, fingerprint, stored);
+            }
+            // La primera falló sin guardar nada: esta pasa a ejecutarse (o espera a otra que se adelantó)
+        }
+    }
+
+    private Result lead(String key, String fingerprint, Supplier<NoteResponse> write, String inFlightKey,
+                        CompletableFuture<StoredResponse> mine) {
+        StoredResponse stored;
+        boolean fresh = false;
+        try {
+            // Se comprueba ya como única en curso: la anterior guarda antes de dejar de estarlo
+            stored = store.find(key).orElse(null);
+            if (stored == null) {
+                try {
+                    stored = store.save(key, fingerprint, write);
+                    fresh = true;
+                } catch (DataIntegrityViolationException e) {
+                    // Otra instancia guardó la clave antes: su escritura es la que vale
+                    DataIntegrityViolationException cause = e;
+                    stored = store.find(key).orElseThrow(() -> cause);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Se quita antes de avisar para que quien espera no vuelva a encontrar esta petición
+            inFlight.remove(inFlightKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(inFlightKey, mine);
+        mine.complete(stored);
+        if (!fresh) {
+            return replay(key, fingerprint, stored);
+        }
+        executed.increment();
+        return new Result(stored.response(), false);
+    }
+
+    // null si la petición en curso falló
+    private static StoredResponse await(String key, CompletableFuture<StoredResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException("A request with " + HEADER + " " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("A request with " + HEADER + " " + key + " is still in progress");
+        }
+    }
+
+    private Result replay(String key, String fingerprint, StoredResponse stored) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(HEADER + " " + key + " was already used for a different request");
+        }
+        replayed.increment();
+        return new Result(stored.response(), true);
+    }
+
+    // SHA-256 de la operación y del cuerpo en JSON (44 caracteres en base64)
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notes.idempotency.requests")
+                      .description("Write requests with an Idempotency-Key, executed or replayed from the store")
+                      .tag("result", result)
+                      .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.notes_api.idempotency;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.example.notes_api.dto.NoteResponse;
+
+/*
+    Respuestas guardadas por clave de idempotencia (notes.idempotency.store): en memoria
+    (InMemoryIdempotencyStore, por defecto) o en la tabla note_idempotency_keys
+    (DatabaseIdempotencyStore, compartida entre instancias). Las claves son del dueño actual.
+*/
+public interface IdempotencyStore {
+
+    // fingerprint: huella de la petición que produjo la respuesta
+    record StoredResponse(String fingerprint, NoteResponse response) {
+    }
+
+    Optional<StoredResponse> find(String key);
+
+    // Ejecuta la escritura y guarda su respuesta con la clave
+    StoredResponse save(String key, String fingerprint, Supplier<NoteResponse> write);
+
+}
@@ -0,0 +1,50 @@
+package com.example.notes_api.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.owner.OwnerContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/*
+    Store por defecto: una caché Caffeine de como mucho max-keys respuestas, cada una durante ttl.
+    Solo la ve esta instancia y se pierde al reiniciar; con varias instancias, usar la BD.
+*/
+@Component
+@ConditionalOnProperty(name = "notes.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, StoredResponse> responses;
+
+    public InMemoryIdempotencyStore(@Value("${notes.idempotency.max-keys:100000}") long maxKeys,
+                                    @Value("${notes.idempotency.ttl:24h}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                                 .maximumSize(maxKeys)
+                                 .expireAfterWrite(ttl)
+                                 .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return Optional.ofNullable(responses.getIfPresent(ownerKey(key)));
+    }
+
+    @Override
+    public StoredResponse save(String key, String fingerprint, Supplier<NoteResponse> write) {
+        StoredResponse stored = new StoredResponse(fingerprint, write.get());
+        responses.put(ownerKey(key), stored);
+        return stored;
+    }
+
+    private static String ownerKey(String key) {
+        return OwnerContext.current() + ":" + key;
+    }
+
+}
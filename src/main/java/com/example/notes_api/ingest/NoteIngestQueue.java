@@ -0,0 +1,250 @@
+package com.example.notes_api.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.IngestStatusResponse;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.exception.IngestQueueFullException;
+import com.example.notes_api.exception.IngestTicketNotFoundException;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.service.NoteService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/*
+    Ingesta asíncrona (write-behind) de notas, activada con notes.ingest.enabled=true.
+
+    submit() reserva un hueco en la cola, guarda la nota en el journal y devuelve un ticket;
+    si la cola está llena lanza IngestQueueFullException (429). Un único hilo escritor
+    vacía la cola en bloques de hasta batch-size notas con NoteService.createBatch
+    (una transacción y un batch JDBC por bloque). Si la BD falla, el bloque se reintenta
+    sin perder las notas; al apagar, lo que no se pudo escribir queda en el journal.
+
+    Cada nota guarda el dueño de quien la envió; el escritor agrupa el bloque por dueño y escribe
+    cada grupo con ese dueño. El estado de cada ticket se conserva status-retention en memoria
+    y solo lo puede consultar su dueño.
+*/
+@Component
+@ConditionalOnProperty(name = "notes.ingest.enabled", havingValue = "true")
+public class NoteIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteIngestQueue.class);
+
+    private final NoteService noteService;
+
+    private final IngestJournal journal;
+
+    private final BlockingQueue<IngestJournal.Entry> queue = new LinkedBlockingQueue<>();
+
+    private final Semaphore capacity;
+
+    private final Cache<String, IngestStatusResponse> statuses;
+
+    private final int batchSize;
+
+    private final Duration retryDelay;
+
+    private final Counter rejected;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    public NoteIngestQueue(NoteService noteService,
+                           MeterRegistry meterRegistry,
+                           @Value("${notes.ingest.capacity:10000}") int capacity,
+                           @Value("${notes.ingest.batch-size:500}") int batchSize,
+                           @Value("${notes.ingest.retry-delay:1s}") Duration retryDelay,
+                           @Value("${notes.ingest.journal-path:data/ingest.journal}") String journalPath,
+                           @Value("${notes.ingest.journal-sync:true}") boolean journalSync,
+                           @Value("${notes.ingest.status-retention:1h}") Duration statusRetention) throws IOException {
+        this.noteService = noteService;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.statuses = Caffeine.newBuilder()
+                                .expireAfterWrite(statusRetention)
+                                .build();
+
+        journal = new IngestJournal(Path.of(journalPath), journalSync);
+        List<IngestJournal.Entry> recovered = journal.recover();
+        for (IngestJournal.Entry entry : recovered) {
+            statuses.put(statusKey(entry.ownerId(), entry.ticket()), IngestStatusResponse.queued(entry.ticket()));
+            queue.add(entry);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} pending notes from the ingest journal {}", recovered.size(), journalPath);
+        }
+
+        // Lo recuperado ocupa hueco aunque supere la capacidad (permisos negativos)
+        this.capacity = new Semaphore(capacity - recovered.size());
+
+        Gauge.builder("notes.ingest.queued", queue, BlockingQueue::size)
+             .description("Notes accepted and waiting to be written")
+             .register(meterRegistry);
+        rejected = Counter.builder("notes.ingest.rejected")
+                          .description("Notes rejected because the ingest queue was full")
+                          .register(meterRegistry);
+
+        writer = new Thread(this::drain, "note-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public IngestStatusResponse submit(NoteRequest request) {
+        if (!capacity.tryAcquire()) {
+            rejected.increment();
+            throw new IngestQueueFullException("Ingest queue is full, please retry later");
+        }
+
+        IngestJournal.Entry entry = new IngestJournal.Entry(UUID.randomUUID().toString(), OwnerContext.current(), request);
+        try {
+            journal.append(entry);
+        } catch (IOException e) {
+            capacity.release();
+            throw new UncheckedIOException("Could not write the ingest journal", e);
+        }
+
+        IngestStatusResponse status = IngestStatusResponse.queued(entry.ticket());
+        statuses.put(statusKey(entry.ownerId(), entry.ticket()), status);
+        queue.add(entry);
+        return status;
+    }
+
+    public IngestStatusResponse getStatus(String ticket) {
+        IngestStatusResponse status = statuses.getIfPresent(statusKey(OwnerContext.current(), ticket));
+        if (status == null) {
+            throw new IngestTicketNotFoundException("Ingest ticket not found: " + ticket);
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    private void drain() {
+        List<IngestJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestJournal.Entry first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (List<IngestJournal.Entry> group : byOwner(batch)) {
+                    if (!write(group)) {
+                        return;
+                    }
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Conserva el orden de llegada dentro de cada dueño
+    private static Collection<List<IngestJournal.Entry>> byOwner(List<IngestJournal.Entry> batch) {
+        Map<String, List<IngestJournal.Entry>> groups = new LinkedHashMap<>();
+        for (IngestJournal.Entry entry : batch) {
+            groups.computeIfAbsent(entry.ownerId(), owner -> new ArrayList<>()).add(entry);
+        }
+        return groups.values();
+    }
+
+    private static String statusKey(String ownerId, String ticket) {
+        return ownerId + ":" + ticket;
+    }
+
+    /*
+        Reintenta hasta escribir el bloque (todo de un mismo dueño); devuelve false si se está apagando y la BD sigue fallando.
+        Si createBatch falla entero se reintenta todo; si solo falla alguno de sus bloques (FAILED), solo esas notas.
+    */
+    private boolean write(List<IngestJournal.Entry> batch) throws InterruptedException {
+        String ownerId = batch.get(0).ownerId();
+        List<IngestJournal.Entry> pending = batch;
+        while (true) {
+            try {
+                List<NoteRequest> requests = pending.stream().map(IngestJournal.Entry::request).toList();
+                BatchResponse response = OwnerContext.callAs(ownerId, () -> noteService.createBatch(requests));
+                List<String> tickets = new ArrayList<>(pending.size());
+                List<IngestJournal.Entry> failed = new ArrayList<>();
+                for (BatchItemResult item : response.getItems()) {
+                    IngestJournal.Entry entry = pending.get(item.getIndex());
+                    if (item.getStatus() == BatchItemResult.Status.FAILED) {
+                        failed.add(entry);
+                        continue;
+                    }
+                    statuses.put(statusKey(ownerId, entry.ticket()), item.isSuccess()
+                        ? IngestStatusResponse.persisted(entry.ticket(), item.getId())
+                        : IngestStatusResponse.failed(entry.ticket(), item.getErrors()));
+                    tickets.add(entry.ticket());
+                }
+                commit(tickets);
+                capacity.release(tickets.size());
+                if (failed.isEmpty()) {
+                    return true;
+                }
+                pending = failed;
+                if (!retry(pending.size(), null)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                if (!retry(pending.size(), e)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean retry(int count, RuntimeException cause) throws InterruptedException {
+        if (!running) {
+            log.error("Could not write {} ingested notes before shutdown; they remain in the journal", count, cause);
+            return false;
+        }
+        log.warn("Writing {} ingested notes failed, retrying in {}", count, retryDelay, cause);
+        Thread.sleep(retryDelay.toMillis());
+        return true;
+    }
+
+    private void commit(List<String> tickets) {
+        try {
+            journal.commit(tickets);
+        } catch (IOException e) {
+            // Las notas ya están en la BD; en el peor caso se repetirán al recuperar el journal
+            log.error("Could not mark {} ingested notes as written in the journal", tickets.size(), e);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.example.notes_api.json;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.PageResponse;
+
+/*
+    Converter solo de escritura para las respuestas más grandes de la API: NoteResponse,
+    colecciones de NoteResponse y PageResponse<NoteResponse>. Escribe con NoteJsonWriter directamente
+    en el stream de la respuesta; cualquier otro tipo (y toda lectura) sigue pasando por Jackson.
+
+    Se registra antes que el converter de Jackson (notes.json.fast-writer.enabled).
+*/
+public class NoteJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public NoteJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == NoteResponse.class;
+    }
+
+    // Las colecciones y las páginas solo se reconocen por su tipo genérico (List<NoteResponse>, etc.)
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && (clazz == NoteResponse.class || isNoteContainer(type, clazz));
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof NoteResponse note) {
+            NoteJsonWriter.writeNote(note, outputMessage.getBody());
+        } else if (value instanceof PageResponse<?> page) {
+            NoteJsonWriter.writePage((PageResponse<NoteResponse>) page, outputMessage.getBody());
+        } else {
+            NoteJsonWriter.writeNotes((Collection<NoteResponse>) value, outputMessage.getBody());
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NoteJsonHttpMessageConverter is write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NoteJsonHttpMessageConverter is write-only", inputMessage);
+    }
+
+    private static boolean isNoteContainer(Type type, Class<?> clazz) {
+        if (!(type instanceof ParameterizedType parameterized)
+                || parameterized.getActualTypeArguments()[0] != NoteResponse.class) {
+            return false;
+        }
+        Type raw = parameterized.getRawType();
+        return (raw == PageResponse.class && (clazz == null || clazz == PageResponse.class))
+            || (raw instanceof Class<?> rawClass && Collection.class.isAssignableFrom(rawClass)
+                && (clazz == null || Collection.class.isAssignableFrom(clazz)));
+    }
+
+}
@@ -0,0 +1,393 @@
+package com.example.notes_api.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.PageResponse;
+
+/*
+    Escritor JSON a mano para NoteResponse, sus listas y PageResponse<NoteResponse>.
+
+    Genera exactamente los mismos bytes que el ObjectMapper de la aplicación (lo comprueba
+    NoteJsonWriterTest) pero sin reflexión ni objetos intermedios:
+
+    - Escribe UTF-8 en un byte[] reutilizado y lo vuelca al OutputStream cada BUFFER_SIZE bytes.
+      Los escritores (con su buffer) salen de un pool compartido y vuelven a él al terminar, no de
+      un ThreadLocal: con hilos virtuales cada petición tiene un hilo nuevo y un ThreadLocal
+      reservaría un buffer por petición sin reutilizarlo nunca. Con más de POOL_SIZE respuestas
+      escribiéndose a la vez, las que no encuentran escritor libre usan uno nuevo que luego se descarta.
+    - Los String se codifican carácter a carácter, con los mismos escapes que Jackson
+      (\" \\ \b \t \n \f \r, \\u00XX para el resto de controles, \\uXXXX para surrogates sueltos).
+    - Las fechas se escriben como DateTimeFormatter.ISO_LOCAL_DATE_TIME (el formato de Jackson).
+      La parte hasta los segundos se guarda en caché: en un listado es habitual que muchas
+      notas compartan el mismo segundo.
+*/
+public final class NoteJsonWriter {
+
+    static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] TITLE = ascii(",\"title\":");
+    private static final byte[] CONTENT = ascii(",\"content\":");
+    private static final byte[] TAGS = ascii(",\"tags\":");
+    private static final byte[] CREATED_AT = ascii(",\"createdAt\":");
+    private static final byte[] UPDATED_AT = ascii(",\"updatedAt\":");
+    private static final byte[] VERSION = ascii(",\"version\":");
+    private static final byte[] ITEMS = ascii("{\"items\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+
+    // Escape de cada carácter ASCII: 0 = tal cual, -1 = \\u00XX, otro = \\ + ese carácter
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = -1;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+    }
+
+    static final int POOL_SIZE = 64;
+
+    // ArrayBlockingQueue usa ReentrantLock, que no fija un hilo virtual a su portador; poll y offer nunca esperan
+    private static final Queue<NoteJsonWriter> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private OutputStream out;
+
+    // "yyyy-MM-ddTHH:mm:ss" del último segundo escrito y su clave
+    private final byte[] cachedSecond = new byte[19];
+
+    private long cachedSecondKey = -1;
+
+    private NoteJsonWriter() {
+    }
+
+    public static void writeNote(NoteResponse note, OutputStream out) throws IOException {
+        NoteJsonWriter writer = acquire(out);
+        try {
+            writer.note(note);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    public static void writeNotes(Collection<NoteResponse> notes, OutputStream out) throws IOException {
+        NoteJsonWriter writer = acquire(out);
+        try {
+            writer.notes(notes);
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    public static void writePage(PageResponse<NoteResponse> page, OutputStream out) throws IOException {
+        NoteJsonWriter writer = acquire(out);
+        try {
+            writer.raw(ITEMS);
+            if (page.getItems() == null) {
+                writer.raw(NULL);
+            } else {
+                writer.notes(page.getItems());
+            }
+            writer.raw(NEXT_CURSOR);
+            writer.string(page.getNextCursor());
+            writer.ascii('}');
+            writer.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static NoteJsonWriter acquire(OutputStream out) {
+        NoteJsonWriter writer = POOL.poll();
+        if (writer == null) {
+            writer = new NoteJsonWriter();
+        }
+        writer.out = out;
+        writer.position = 0;
+        return writer;
+    }
+
+    // Si el pool ya está lleno, el escritor se descarta
+    private void release() {
+        out = null;
+        POOL.offer(this);
+    }
+
+    private void notes(Collection<NoteResponse> notes) throws IOException {
+        ascii('[');
+        boolean first = true;
+        for (NoteResponse note : notes) {
+            if (!first) {
+                ascii(',');
+            }
+            note(note);
+            first = false;
+        }
+        ascii(']');
+    }
+
+    private void note(NoteResponse note) throws IOException {
+        if (note == null) {
+            raw(NULL);
+            return;
+        }
+        raw(ID);
+        number(note.getId());
+        raw(TITLE);
+        string(note.getTitle());
+        raw(CONTENT);
+        string(note.getContent());
+        raw(TAGS);
+        strings(note.getTags());
+        raw(CREATED_AT);
+        timestamp(note.getCreatedAt());
+        raw(UPDATED_AT);
+        timestamp(note.getUpdatedAt());
+        raw(VERSION);
+        number(note.getVersion());
+        ascii('}');
+    }
+
+    private void strings(List<String> values) throws IOException {
+        if (values == null) {
+            raw(NULL);
+            return;
+        }
+        ascii('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                ascii(',');
+            }
+            string(values.get(i));
+        }
+        ascii(']');
+    }
+
+    private void number(Long value) throws IOException {
+        if (value == null) {
+            raw(NULL);
+            return;
+        }
+        long v = value;
+        if (v == Long.MIN_VALUE) {
+            raw(ascii(Long.toString(v)));
+            return;
+        }
+        ensure(20);
+        if (v < 0) {
+            buffer[position++] = '-';
+            v = -v;
+        }
+        int digits = digits(v);
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        position = end;
+    }
+
+    private void string(String value) throws IOException {
+        if (value == null) {
+            raw(NULL);
+            return;
+        }
+        ascii('"');
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            // Bucle rápido: tramos de ASCII sin escapes, que es casi todo el texto, copiados sin más comprobaciones
+            byte[] buf = buffer;
+            int pos = position;
+            int limit = Math.min(length, i + (buf.length - pos));
+            char c = 0;
+            while (i < limit && (c = value.charAt(i)) < 0x80 && ESCAPES[c] == 0) {
+                buf[pos++] = (byte) c;
+                i++;
+            }
+            position = pos;
+            if (i == length) {
+                break;
+            }
+            if (i == limit) {
+                flushBuffer();
+                continue;
+            }
+
+            ensure(12); // El peor caso: dos escapes \\uXXXX seguidos
+            i++;
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape > 0) {
+                    buffer[position++] = '\\';
+                    buffer[position++] = escape;
+                } else {
+                    unicodeEscape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(value.charAt(i))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(i++));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                unicodeEscape(c); // Surrogate suelto: Jackson lo escribe escapado
+            }
+        }
+        ascii('"');
+    }
+
+    private void unicodeEscape(char c) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[(c >> 12) & 0xF];
+        buffer[position++] = HEX[(c >> 8) & 0xF];
+        buffer[position++] = HEX[(c >> 4) & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+    }
+
+    private void timestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            raw(NULL);
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            // Fuera de yyyy el formato ISO añade signo; no merece un caso propio
+            ascii('"');
+            raw(ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value)));
+            ascii('"');
+            return;
+        }
+
+        long key = ((((year * 13L + value.getMonthValue()) * 32 + value.getDayOfMonth()) * 24 + value.getHour()) * 60
+                    + value.getMinute()) * 60 + value.getSecond();
+        if (key != cachedSecondKey) {
+            formatSecond(value);
+            cachedSecondKey = key;
+        }
+
+        ensure(31);
+        buffer[position++] = '"';
+        System.arraycopy(cachedSecond, 0, buffer, position, cachedSecond.length);
+        position += cachedSecond.length;
+
+        // Fracción como ISO_LOCAL_TIME: se omite si es 0 y no lleva ceros a la derecha
+        int nanos = value.getNano();
+        if (nanos != 0) {
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            buffer[position++] = '.';
+            for (int i = position + digits - 1; i >= position; i--) {
+                buffer[i] = (byte) ('0' + nanos % 10);
+                nanos /= 10;
+            }
+            position += digits;
+        }
+        buffer[position++] = '"';
+    }
+
+    private void formatSecond(LocalDateTime value) {
+        byte[] b = cachedSecond;
+        int year = value.getYear();
+        b[0] = (byte) ('0' + year / 1000);
+        b[1] = (byte) ('0' + year / 100 % 10);
+        b[2] = (byte) ('0' + year / 10 % 10);
+        b[3] = (byte) ('0' + year % 10);
+        b[4] = '-';
+        twoDigits(b, 5, value.getMonthValue());
+        b[7] = '-';
+        twoDigits(b, 8, value.getDayOfMonth());
+        b[10] = 'T';
+        twoDigits(b, 11, value.getHour());
+        b[13] = ':';
+        twoDigits(b, 14, value.getMinute());
+        b[16] = ':';
+        twoDigits(b, 17, value.getSecond());
+    }
+
+    private static void twoDigits(byte[] b, int offset, int value) {
+        b[offset] = (byte) ('0' + value / 10);
+        b[offset + 1] = (byte) ('0' + value % 10);
+    }
+
+    private static int digits(long v) {
+        int digits = 1;
+        while (v >= 10) {
+            v /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private void ascii(char c) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void raw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -21,8 +21,10 @@ public class NoteMapper {
         response.setId(note.getId());
         response.setTitle(note.getTitle());
         response.setContent(note.getContent());
+        response.setTags(note.getTags());
         response.setCreatedAt(note.getCreatedAt());
         response.setUpdatedAt(note.getUpdatedAt());
+        response.setVersion(note.getVersion());
         return response;
     }
 
@@ -30,6 +32,7 @@ public class NoteMapper {
         Note note = new Note();
         note.setTitle(request.getTitle());
         note.setContent(request.getContent());
+        note.setTags(request.getTags());
         return note;
     }
 
@@ -0,0 +1,75 @@
+package com.example.notes_api.metrics;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+    Guarda de número de consultas por petición.
+
+    Registra cuántas sentencias SQL ejecutó cada endpoint en la métrica notes.http.statements
+    (etiquetas method y uri) y escribe un WARN cuando una petición supera maxStatements:
+    suele ser la señal de un N+1 o de un bucle que consulta fila a fila.
+
+    El límite es para todas las rutas, así que tiene que cubrir la escritura normal más cara.
+    Un PUT con historial de revisiones son 5 sentencias (SELECT ... FOR UPDATE, UPDATE y la
+    revisión: su número, la secuencia y el INSERT) y restaurar una revisión, 7. Por eso el límite
+    por defecto es 10: un N+1 lo supera en cuanto pasa de unas pocas filas.
+*/
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxStatements;
+
+    public QueryCountFilter(MeterRegistry meterRegistry, int maxStatements) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+    }
+
+    int maxStatements() {
+        return maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.stop();
+            String uri = uriOf(request);
+
+            DistributionSummary.builder("notes.http.statements")
+                               .description("SQL statements executed per HTTP request")
+                               .tag("method", request.getMethod())
+                               .tag("uri", uri)
+                               .register(meterRegistry)
+                               .record(statements);
+
+            if (statements > maxStatements) {
+                log.warn("{} {} executed {} SQL statements (limit {})", request.getMethod(), uri, statements, maxStatements);
+            }
+        }
+    }
+
+    // Se usa el patrón de la ruta (/api/notes/{id}) para no crear una serie por cada id
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+}
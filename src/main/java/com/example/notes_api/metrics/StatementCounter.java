@@ -0,0 +1,33 @@
+package com.example.notes_api.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/*
+    Cuenta las sentencias SQL que Hibernate prepara en el hilo actual.
+    Solo cuenta entre start() y stop(); fuera de una petición HTTP no hace nada.
+    Un batch JDBC se prepara una vez, así que cuenta como una sentencia.
+*/
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.notes_api.migration;
+
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import com.example.notes_api.model.CompressedTextConverter;
+import com.example.notes_api.model.Note;
+
+/*
+    Rellena content_preview y content_length en las notas que ya existían antes de esas columnas
+    (una base creada con ddl-auto=update y marcada como V1 por baseline-on-migrate). Sin esto,
+    summary=true devuelve preview y contentLength a null para esas notas.
+
+    Es una migración Java y no SQL porque el content puede estar comprimido ("gz:", ver
+    CompressedTextConverter) y porque el preview y la longitud deben salir exactamente como los
+    calcula Note.setContent (en caracteres UTF-16 y sin partir un par sustituto), no como
+    LEFT/CHAR_LENGTH de MySQL. No toca version ni updated_at: para los clientes la nota no cambia.
+
+    Spring Boot pasa a Flyway los beans JavaMigration; el nombre de la clase da la versión.
+*/
+@Component
+public class V3__BackfillContentPreview extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    private record Row(long id, String content) {
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        // Por lotes de ids: no se cargan todas las notas a la vez
+        long afterId = Long.MIN_VALUE;
+        List<Row> rows;
+        do {
+            rows = jdbcTemplate.query("select id, content from notes where content_length is null and id > ? order by id limit ?",
+                                      (rs, i) -> new Row(rs.getLong("id"), rs.getString("content")), afterId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate("update notes set content_preview = ?, content_length = ? where id = ?", rows, rows.size(),
+                                     (statement, row) -> {
+                                         String content = converter.convertToEntityAttribute(row.content());
+                                         statement.setString(1, Note.previewOf(content));
+                                         statement.setInt(2, content.length());
+                                         statement.setLong(3, row.id());
+                                     });
+            afterId = rows.get(rows.size() - 1).id();
+        } while (rows.size() == BATCH_SIZE);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.notes_api.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/*
+    Compresión opcional del content en la base de datos.
+
+    Con notes.content.compression.enabled=true, los textos de al menos min-length caracteres
+    se guardan como "gz:" + base64(gzip(texto)), solo si así ocupan menos.
+    La lectura reconoce el prefijo, así que filas comprimidas y sin comprimir conviven
+    y la opción puede activarse o desactivarse sin migrar datos.
+
+    Un texto que ya empieza por "gz:" se comprime siempre, para no confundirlo al leerlo.
+
+    Hibernate obtiene el converter a través de Spring, por eso puede recibir la configuración.
+*/
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    static final String PREFIX = "gz:";
+
+    private final boolean enabled;
+
+    private final int minLength;
+
+    // Solo para Spring AOT (mvn -Paot): al generar el código en el build, Hibernate crea el converter sin Spring
+    public CompressedTextConverter() {
+        this(false, 8192);
+    }
+
+    @Autowired
+    public CompressedTextConverter(@Value("${notes.content.compression.enabled:false}") boolean enabled,
+                                   @Value("${notes.content.compression.min-length:8192}") int minLength) {
+        this.enabled = enabled;
+        this.minLength = minLength;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        boolean ambiguous = text.startsWith(PREFIX);
+        if (!ambiguous && (!enabled || text.length() < minLength)) {
+            return text;
+        }
+
+        String compressed = PREFIX + Base64.getEncoder().encodeToString(gzip(text.getBytes(StandardCharsets.UTF_8)));
+        return ambiguous || compressed.length() < text.length() ? compressed : text;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(PREFIX)) {
+            return column;
+        }
+        byte[] compressed = Base64.getDecoder().decode(column.substring(PREFIX.length()));
+        return new String(gunzip(compressed), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted compressed note content", e);
+        }
+    }
+
+}
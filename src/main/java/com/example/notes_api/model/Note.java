@@ -1,16 +1,25 @@
 package com.example.notes_api.model;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.hibernate.annotations.TenantId;
+
+
+import com.example.notes_api.owner.OwnerContext;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AccessLevel;
@@ -20,26 +29,71 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "notes")
+/*
+    Todas las consultas llevan owner_id (ver ownerId), así que los índices empiezan por él:
+    (owner_id, id) para el listado por cursor y (owner_id, updated_at, id) para la sincronización
+    incremental. El coste de listar depende de las notas del dueño, no del total de la tabla.
+*/
+@Table(name = "notes", indexes = {
+    @Index(name = "idx_notes_owner_id", columnList = "owner_id, id"),
+    @Index(name = "idx_notes_owner_updated_at_id", columnList = "owner_id, updated_at, id"),
+    // Sin dueño: lo que han modificado todos (refresco de NoteTagIndex, puesta al día de NoteSearchIndex)
+    @Index(name = "idx_notes_updated_at", columnList = "updated_at")
+})
 @NoArgsConstructor @AllArgsConstructor (access = AccessLevel.PRIVATE)
 @Getter @Setter
 public class Note {
 
-    
+    public static final int PREVIEW_LENGTH = 200;
+
+    /*
+        Id por secuencia con optimizador pooled: Hibernate reserva 50 ids por viaje a la BD
+        y puede agrupar los INSERT en batches JDBC (con IDENTITY no puede).
+        En MySQL la secuencia se emula con la tabla notes_seq.
+    */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     private Long id;
 
+    /*
+        Dueño de la nota. Hibernate lo rellena al insertar con el dueño de la petición
+        (OwnerContext) y añade "owner_id = ?" a cada consulta, UPDATE y DELETE sobre Note.
+    */
+    @TenantId
+    @Column(name = "owner_id", nullable = false, updatable = false, length = OwnerContext.MAX_LENGTH)
+    @Setter(AccessLevel.NONE)
+    private String ownerId;
+
     @NotBlank(message = "Title must not be blank")
     @Size(max = 100, message = "Title must not exceed 100 characters")
     @Column(nullable = false, length = 100)
     private String title;
 
+    // Los contenidos grandes pueden guardarse comprimidos (ver CompressedTextConverter)
     @NotBlank(message = "Content must not be blank")
+    @Convert(converter = CompressedTextConverter.class)
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Normalizadas (NoteTags.normalize) y guardadas en la misma fila, ver NoteTagsConverter
+    @Convert(converter = NoteTagsConverter.class)
+    @Column(length = NoteTags.MAX_TAGS * (NoteTags.MAX_LENGTH + 1))
+    private List<String> tags = List.of();
+
+    /*
+        Primeros PREVIEW_LENGTH caracteres del content y su longitud total.
+        Se mantienen junto al content (setContent) para que los listados resumidos
+        no tengan que leer ni descomprimir la columna TEXT.
+    */
+    @Column(length = PREVIEW_LENGTH)
+    @Setter(AccessLevel.NONE)
+    private String contentPreview;
+
+    @Setter(AccessLevel.NONE)
+    private Integer contentLength;
+
     @Column(nullable = false)
     @Setter(AccessLevel.NONE)
     private LocalDateTime createdAt;
@@ -48,6 +102,15 @@ public class Note {
     @Setter(AccessLevel.NONE)
     private LocalDateTime updatedAt;
 
+    /*
+        Control de concurrencia optimista: cada escritura incrementa la versión.
+        Se expone al cliente como ETag y se compara con If-Match en PUT y DELETE.
+    */
+    @Version
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     /**
         * Se ejecuta antes de persistir la entidad.
         * Inicializa las fechas de creación y actualización.
@@ -66,6 +129,25 @@ public class Note {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public void setContent(String content) {
+        this.content = content;
+        this.contentPreview = previewOf(content);
+        this.contentLength = content == null ? null : content.length();
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = NoteTags.normalize(tags);
+    }
+
+    // Recorta sin partir un par sustituto (emoji, etc.)
+    public static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        int end = Character.isHighSurrogate(content.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return content.substring(0, end);
+    }
+
 
 
 }
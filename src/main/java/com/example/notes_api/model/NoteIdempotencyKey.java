@@ -0,0 +1,69 @@
+package com.example.notes_api.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.TenantId;
+
+import com.example.notes_api.owner.OwnerContext;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+    Respuesta guardada para una clave de idempotencia (DatabaseIdempotencyStore). La clave es
+    única por dueño: si dos instancias ejecutan la misma petición a la vez, solo puede confirmar
+    una. Se purga pasado notes.idempotency.ttl.
+*/
+@Entity
+@Table(name = "note_idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_note_idempotency_keys_owner_key", columnNames = { "owner_id", "idempotency_key" }),
+       indexes = @Index(name = "idx_note_idempotency_keys_created_at", columnList = "created_at"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class NoteIdempotencyKey {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_idempotency_keys_seq")
+    @SequenceGenerator(name = "note_idempotency_keys_seq", sequenceName = "note_idempotency_keys_seq", allocationSize = 50)
+    private Long id;
+
+    @TenantId
+    @Column(name = "owner_id", nullable = false, updatable = false, length = OwnerContext.MAX_LENGTH)
+    private String ownerId;
+
+    @Column(name = "idempotency_key", nullable = false, updatable = false, length = MAX_KEY_LENGTH)
+    private String idempotencyKey;
+
+    // SHA-256 en base64 de la petición original
+    @Column(nullable = false, updatable = false, length = 44)
+    private String fingerprint;
+
+    // NoteResponse en JSON; incluye el content, así que se comprime igual que el de las notas
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public NoteIdempotencyKey(String idempotencyKey, String fingerprint, String response, LocalDateTime createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.response = response;
+        this.createdAt = createdAt;
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.example.notes_api.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.TenantId;
+
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.transfer.NoteTransferFormat;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+    Progreso de una importación masiva (POST /api/notes/import), que es también su checkpoint:
+    processed es el número de registros del fichero ya tratados (importados o inválidos) y se
+    actualiza en la misma transacción que guarda cada bloque de notas. Al repetir la importación
+    con el mismo importKey se saltan esos registros.
+
+    importKey lo elige el cliente (o se genera) y es único por dueño.
+*/
+@Entity
+@Table(name = "note_imports",
+       uniqueConstraints = @UniqueConstraint(name = "uk_note_imports_owner_key", columnNames = { "owner_id", "import_key" }))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class NoteImport {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_imports_seq")
+    @SequenceGenerator(name = "note_imports_seq", sequenceName = "note_imports_seq", allocationSize = 1)
+    private Long id;
+
+    @TenantId
+    @Column(name = "owner_id", nullable = false, updatable = false, length = OwnerContext.MAX_LENGTH)
+    private String ownerId;
+
+    @Column(name = "import_key", nullable = false, updatable = false, length = 64)
+    private String importKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NoteTransferFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long imported;
+
+    @Column(nullable = false)
+    private long invalid;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public NoteImport(String importKey, NoteTransferFormat format) {
+        this.importKey = importKey;
+        this.format = format;
+        this.status = Status.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+
+    // Reanudar tras un fallo: los contadores se conservan, son el punto de partida
+    public void resume(NoteTransferFormat format) {
+        this.format = format;
+        this.status = Status.RUNNING;
+        this.error = null;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void complete() {
+        this.status = Status.COMPLETED;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        this.status = Status.FAILED;
+        this.error = error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+}
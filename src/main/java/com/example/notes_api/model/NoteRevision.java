@@ -0,0 +1,82 @@
+package com.example.notes_api.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.TenantId;
+
+import com.example.notes_api.owner.OwnerContext;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+    Una versión anterior de una nota. Las revisiones se numeran desde 1 por nota; la más reciente
+    es la propia nota y no se guarda aquí, así que una nota que nunca se modificó no ocupa nada.
+
+    Si snapshot es true, data es el content completo; si no, es un TextDelta que convierte el
+    content de la revisión siguiente en el de esta (delta inverso). Para reconstruir una revisión
+    se parte del primer snapshot por encima o de la nota y se aplican los deltas hacia atrás
+    (ver INoteRevisionService). El title se guarda siempre entero: como mucho son 100 caracteres.
+    createdAt es cuándo se escribió esa versión (el updatedAt que tenía la nota).
+*/
+@Entity
+@Table(name = "note_revisions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_note_revisions_note_revision", columnNames = { "note_id", "revision" }))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class NoteRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_revisions_seq")
+    @SequenceGenerator(name = "note_revisions_seq", sequenceName = "note_revisions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "note_id", nullable = false, updatable = false)
+    private Long noteId;
+
+    // Igual que en Note: lo rellena Hibernate con el dueño de la transacción que escribe la nota
+    @TenantId
+    @Column(name = "owner_id", nullable = false, updatable = false, length = OwnerContext.MAX_LENGTH)
+    private String ownerId;
+
+    @Column(nullable = false, updatable = false)
+    private int revision;
+
+    @Column(nullable = false, updatable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false, updatable = false, length = 100)
+    private String title;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String data;
+
+    @Column(nullable = false, updatable = false)
+    private int contentLength;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public NoteRevision(Long noteId, int revision, boolean snapshot, String title, String data, int contentLength,
+                        LocalDateTime createdAt) {
+        this.noteId = noteId;
+        this.revision = revision;
+        this.snapshot = snapshot;
+        this.title = title;
+        this.data = data;
+        this.contentLength = contentLength;
+        this.createdAt = createdAt;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.notes_api.model;
+
+import java.util.List;
+import java.util.Locale;
+
+/*
+    Reglas de las etiquetas de una nota: como mucho MAX_TAGS, de hasta MAX_LENGTH caracteres
+    (letras, dígitos, '_', '-', '.'). Se guardan en minúsculas, sin repetir y ordenadas,
+    así "Work" y "work" son la misma etiqueta y dos listas iguales se comparan con equals.
+*/
+public final class NoteTags {
+
+    public static final int MAX_TAGS = 20;
+
+    public static final int MAX_LENGTH = 32;
+
+    public static final String PATTERN = "[\\p{L}\\p{N}_.-]{1," + MAX_LENGTH + "}";
+
+    private NoteTags() {
+    }
+
+    public static List<String> normalize(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                   .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                   .filter(tag -> !tag.isEmpty())
+                   .distinct()
+                   .sorted()
+                   .toList();
+    }
+
+}
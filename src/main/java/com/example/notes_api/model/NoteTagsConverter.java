@@ -0,0 +1,29 @@
+package com.example.notes_api.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/*
+    Las etiquetas se guardan en la propia fila de la nota, separadas por comas ("trabajo,urgente"),
+    en lugar de en una tabla aparte: leer una nota no necesita un JOIN y el filtrado por
+    etiquetas lo resuelve NoteTagIndex en memoria. Sin etiquetas la columna queda a null.
+*/
+@Converter
+public class NoteTagsConverter implements AttributeConverter<List<String>, String> {
+
+    private static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(List<String> tags) {
+        return tags == null || tags.isEmpty() ? null : String.join(SEPARATOR, tags);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return column == null || column.isEmpty() ? List.of() : Arrays.asList(column.split(SEPARATOR));
+    }
+
+}
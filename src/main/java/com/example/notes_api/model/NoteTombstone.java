@@ -0,0 +1,61 @@
+package com.example.notes_api.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.TenantId;
+import org.springframework.data.domain.Persistable;
+
+import com.example.notes_api.owner.OwnerContext;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/*
+    Registro de una nota borrada, para que la sincronización incremental pueda informar
+    de los borrados. Se purga pasado el periodo de retención (notes.sync.tombstone-retention).
+*/
+@Entity
+@Table(name = "note_tombstones",
+       indexes = {
+           @Index(name = "idx_note_tombstones_owner_deleted_at", columnList = "owner_id, deleted_at, note_id"),
+           // Sin dueño: purga y borrados de todos desde un momento (índices en memoria)
+           @Index(name = "idx_note_tombstones_deleted_at", columnList = "deleted_at")
+       })
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class NoteTombstone implements Persistable<Long> {
+
+    @Id
+    private Long noteId;
+
+    // Igual que en Note: lo rellena Hibernate con el dueño de la transacción que borra la nota
+    @TenantId
+    @Column(name = "owner_id", nullable = false, updatable = false, length = OwnerContext.MAX_LENGTH)
+    private String ownerId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public NoteTombstone(Long noteId, LocalDateTime deletedAt) {
+        this.noteId = noteId;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return noteId;
+    }
+
+    // Los ids de las notas no se reutilizan: save() siempre hace INSERT, sin SELECT previo
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.notes_api.owner;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/*
+    Dueño (tenant) de las notas con las que trabaja el hilo actual.
+
+    OwnerFilter lo fija en cada petición a partir de la cabecera X-Owner-Id; Hibernate lo lee
+    (OwnerIdentifierResolver) para rellenar owner_id al insertar y filtrar todas las consultas.
+    Sin dueño fijado se usa DEFAULT_OWNER.
+
+    ALL_OWNERS es un dueño especial para tareas internas que recorren todas las notas
+    (reconstruir el índice, purgar tombstones): con él Hibernate no filtra por owner_id.
+    Nunca se acepta desde una petición.
+*/
+public final class OwnerContext {
+
+    public static final String HEADER = "X-Owner-Id";
+
+    public static final String DEFAULT_OWNER = "default";
+
+    public static final String ALL_OWNERS = "*";
+
+    public static final int MAX_LENGTH = 64;
+
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._-]{1," + MAX_LENGTH + "}");
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private OwnerContext() {
+    }
+
+    public static String current() {
+        String owner = CURRENT.get();
+        return owner != null ? owner : DEFAULT_OWNER;
+    }
+
+    public static boolean isValid(String owner) {
+        return owner != null && VALID.matcher(owner).matches();
+    }
+
+    public static <T> T callAs(String owner, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(owner);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runAs(String owner, Runnable action) {
+        callAs(owner, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Para tareas que se ejecutan en otro hilo (respuestas en streaming, etc.): conservan el dueño de quien las creó
+    public static Runnable wrap(Runnable task) {
+        String owner = current();
+        return () -> runAs(owner, task);
+    }
+
+    // Clave de caché: los ids son únicos, pero una nota en caché solo debe verla su dueño
+    public static String key(Long id) {
+        return current() + ":" + id;
+    }
+
+    // Solo para OwnerFilter, que lo limpia siempre al terminar la petición
+    static void set(String owner) {
+        CURRENT.set(owner);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.notes_api.owner;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.notes_api.dto.ApiErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.ObjectMapper;
+
+/*
+    Fija el dueño de la petición (cabecera X-Owner-Id) antes de que se abra la sesión de Hibernate.
+    Sin cabecera se usa OwnerContext.DEFAULT_OWNER, salvo con notes.owner.required=true (400).
+    Es un filtro y no un interceptor: las excepciones no pasan por GlobalExceptionHandler,
+    así que el 400 se escribe aquí con el mismo formato (ApiErrorResponse).
+*/
+public class OwnerFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean required;
+
+    public OwnerFilter(ObjectMapper objectMapper, boolean required) {
+        this.objectMapper = objectMapper;
+        this.required = required;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String owner = request.getHeader(OwnerContext.HEADER);
+        if (owner == null && !required) {
+            owner = OwnerContext.DEFAULT_OWNER;
+        }
+        if (!OwnerContext.isValid(owner)) {
+            reject(response, owner == null ? OwnerContext.HEADER + " header is required"
+                                           : "Invalid " + OwnerContext.HEADER + ": " + owner);
+            return;
+        }
+
+        OwnerContext.set(owner);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            OwnerContext.clear();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiErrorResponse(message));
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.notes_api.owner;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/*
+    Conecta OwnerContext con el @TenantId de Note: cada sesión de Hibernate se abre con el dueño
+    del hilo actual, que se guarda en owner_id al insertar y se añade como condición a cada consulta,
+    UPDATE y DELETE sobre la entidad. ALL_OWNERS es la "raíz": sin filtro.
+*/
+public class OwnerIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return OwnerContext.current();
+    }
+
+    // Una misma sesión (open-in-view) puede servir a un hilo que luego cambia de dueño con callAs: no se valida
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return OwnerContext.ALL_OWNERS.equals(tenantId);
+    }
+
+}
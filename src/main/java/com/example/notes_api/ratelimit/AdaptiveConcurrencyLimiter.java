@@ -0,0 +1,106 @@
+package com.example.notes_api.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Límite de peticiones simultáneas que se ajusta solo según la latencia (AIMD).
+
+    Las muestras se agrupan en ventanas de max(10, limit) peticiones, más o menos lo que tarda en
+    renovarse todo el límite. Al cerrar cada ventana:
+    - latencia media por encima del objetivo -> el límite baja un 10 % (hasta minLimit)
+    - si no, y la ventana llegó a usar casi todo el límite -> sube sqrt(limit) (hasta maxLimit)
+    - si no, se queda igual: con poco tráfico no hay evidencia de que aguante más
+
+    Así, si la base de datos o el pool empiezan a encolar, el servicio admite menos peticiones en
+    lugar de acumular colas y esperas cada vez más largas, y vuelve a crecer cuando la latencia baja.
+
+    tryAcquire es un compareAndSet sobre el contador de peticiones en curso; solo el ajuste del
+    límite al terminar cada petición toma el monitor, y son unas pocas operaciones aritméticas.
+*/
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final int MIN_WINDOW = 10;
+
+    private static final double BACKOFF = 0.9;
+
+    private static final double SATURATION = 0.8;
+
+    private final long latencyTargetNanos;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+
+    // Protegidos por this
+    private double estimatedLimit;
+
+    private long windowRttSum;
+
+    private int windowSamples;
+
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(Duration latencyTarget, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Libera el permiso y ajusta el límite con el tiempo que tardó la petición
+    public void release(long rttNanos) {
+        int concurrent = inFlight.getAndDecrement();
+        update(rttNanos, concurrent);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int concurrent) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, concurrent);
+        if (windowSamples < Math.max(MIN_WINDOW, limit)) {
+            return;
+        }
+
+        long averageRtt = windowRttSum / windowSamples;
+        if (averageRtt > latencyTargetNanos) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF);
+        } else if (windowMaxInFlight >= limit * SATURATION) {
+            estimatedLimit = Math.min(maxLimit, estimatedLimit + Math.sqrt(estimatedLimit));
+        }
+        limit = (int) estimatedLimit;
+
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+}
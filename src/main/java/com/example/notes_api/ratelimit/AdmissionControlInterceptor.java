@@ -0,0 +1,84 @@
+package com.example.notes_api.ratelimit;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.notes_api.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+    Control de admisión: cada petición necesita un permiso del AdaptiveConcurrencyLimiter.
+    Sin permiso lanza ServiceOverloadedException (503 con Retry-After) antes de tocar la base de datos.
+
+    El permiso se libera al terminar la petición o, en las asíncronas (SSE, streaming), al liberar
+    el hilo: el stream en sí no ocupa capacidad del servicio y su duración no es latencia.
+*/
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT = AdmissionControlInterceptor.class.getName() + ".startedAt";
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    private final Counter admitted;
+
+    private final Counter rejected;
+
+    public AdmissionControlInterceptor(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+        this.admitted = counter(meterRegistry, "admitted");
+        this.rejected = counter(meterRegistry, "rejected");
+        Gauge.builder("notes.admission.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+             .description("Current adaptive concurrency limit")
+             .register(meterRegistry);
+        Gauge.builder("notes.admission.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+             .description("Requests currently holding an admission permit")
+             .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true; // El permiso ya se liberó al empezar la respuesta asíncrona
+        }
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Server is overloaded, please retry later", RETRY_AFTER_SECONDS);
+        }
+        admitted.increment();
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release(System.nanoTime() - (Long) startedAt);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notes.admission.requests")
+                      .description("Requests checked by the adaptive concurrency limiter")
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+
+}
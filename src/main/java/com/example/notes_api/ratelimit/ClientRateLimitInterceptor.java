@@ -0,0 +1,146 @@
+package com.example.notes_api.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.notes_api.exception.RateLimitExceededException;
+import com.example.notes_api.owner.OwnerContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*
+    Limita las peticiones de cada cliente con dos TokenBucket, uno para lecturas (GET, HEAD, OPTIONS)
+    y otro para escrituras, así un cliente con mucho tráfico no acapara los hilos ni las conexiones
+    del resto y un lector intensivo no agota el cupo de escrituras. Al superar el límite lanza
+    RateLimitExceededException (429 con Retry-After).
+
+    El cliente es la cabecera X-Api-Key; sin ella, el dueño de la petición (X-Owner-Id).
+    Ninguna de las dos se valida, así que cada dirección remota tiene además sus propios
+    buckets (más amplios: detrás de un NAT hay varios clientes), que se comprueban antes.
+    Quien rota claves para empezar siempre con el cubo lleno sigue limitado por su dirección,
+    y como un cliente nuevo solo se crea si la dirección lo admite, tampoco puede llenar la caché
+    de clientes a más ritmo que ese para expulsar a otros. Detrás de un proxy, la dirección
+    es la del cliente solo con server.forward-headers-strategy configurado.
+
+    Los buckets viven en cachés acotadas (una para clientes y otra para direcciones): los de
+    inactivos se descartan (volver a crearlos equivale a un cubo lleno, que es el estado al que
+    habría vuelto).
+*/
+public class ClientRateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+
+    // Más largo no aporta nada para distinguir clientes y acotaría mal la memoria de la caché
+    private static final int MAX_KEY_LENGTH = 128;
+
+    public record Limit(double permitsPerSecond, int burst) {
+
+        // Inactivo más del tiempo de rellenar el cubo entero -> ya está lleno, se puede olvidar
+        Duration refillTime() {
+            return Duration.ofNanos((long) (burst * 1_000_000_000L / permitsPerSecond));
+        }
+
+    }
+
+    private record ClientBuckets(TokenBucket read, TokenBucket write) {
+    }
+
+    private final Cache<String, ClientBuckets> buckets;
+
+    private final Cache<String, ClientBuckets> addressBuckets;
+
+    private final Limit readLimit;
+
+    private final Limit writeLimit;
+
+    private final Limit addressReadLimit;
+
+    private final Limit addressWriteLimit;
+
+    private final Counter readAdmitted;
+
+    private final Counter readRejected;
+
+    private final Counter writeAdmitted;
+
+    private final Counter writeRejected;
+
+    public ClientRateLimitInterceptor(MeterRegistry meterRegistry, Limit readLimit, Limit writeLimit,
+                                      Limit addressReadLimit, Limit addressWriteLimit) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.addressReadLimit = addressReadLimit;
+        this.addressWriteLimit = addressWriteLimit;
+        this.buckets = cache(readLimit, writeLimit);
+        this.addressBuckets = cache(addressReadLimit, addressWriteLimit);
+        this.readAdmitted = counter(meterRegistry, "read", "admitted");
+        this.readRejected = counter(meterRegistry, "read", "rejected");
+        this.writeAdmitted = counter(meterRegistry, "write", "admitted");
+        this.writeRejected = counter(meterRegistry, "write", "rejected");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true; // Fin de una respuesta asíncrona (SSE, streaming): ya se contó al empezar
+        }
+        boolean read = isRead(request);
+        // Primero la dirección: un cliente nuevo solo llega a crearse si su dirección tiene cupo
+        acquire(addressBuckets.get(request.getRemoteAddr(), key -> buckets(addressReadLimit, addressWriteLimit)), read, " from this address");
+        acquire(buckets.get(clientKey(request), key -> buckets(readLimit, writeLimit)), read, "");
+        (read ? readAdmitted : writeAdmitted).increment();
+        return true;
+    }
+
+    private void acquire(ClientBuckets clientBuckets, boolean read, String scope) {
+        long waitNanos = (read ? clientBuckets.read() : clientBuckets.write()).tryAcquire();
+        if (waitNanos > 0) {
+            (read ? readRejected : writeRejected).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)); // Redondeo hacia arriba
+            throw new RateLimitExceededException("Rate limit exceeded for " + (read ? "reads" : "writes") + scope, retryAfter);
+        }
+    }
+
+    private static ClientBuckets buckets(Limit read, Limit write) {
+        return new ClientBuckets(new TokenBucket(read.permitsPerSecond(), read.burst()), new TokenBucket(write.permitsPerSecond(), write.burst()));
+    }
+
+    private static Cache<String, ClientBuckets> cache(Limit read, Limit write) {
+        Duration refill = read.refillTime().compareTo(write.refillTime()) > 0 ? read.refillTime() : write.refillTime();
+        return Caffeine.newBuilder()
+                       .expireAfterAccess(refill.plusMinutes(1))
+                       .maximumSize(100_000)
+                       .build();
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        if (apiKey == null || apiKey.isBlank()) {
+            return "owner:" + OwnerContext.current();
+        }
+        return "key:" + (apiKey.length() > MAX_KEY_LENGTH ? apiKey.substring(0, MAX_KEY_LENGTH) : apiKey);
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Counter.builder("notes.rate-limit.requests")
+                      .description("Requests checked against the per-client rate limit")
+                      .tag("operation", operation)
+                      .tag("outcome", outcome)
+                      .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.notes_api.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    Token bucket sin locks (algoritmo GCRA): en lugar de contar tokens guarda un único instante,
+    "theoretical arrival time", en un AtomicLong. Cada petición lo adelanta un intervalo
+    (1 / rate) con compareAndSet; se rechaza si quedaría más de burst intervalos por delante del reloj.
+
+    Equivale a un cubo de burst tokens que se rellena a rate tokens por segundo.
+*/
+public final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.theoreticalArrival = new AtomicLong(clock.getAsLong()); // Empieza lleno
+    }
+
+    /*
+        Devuelve 0 si se concede el permiso; si no, los nanosegundos que faltan
+        para que haya uno disponible (para la cabecera Retry-After).
+    */
+    public long tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+}
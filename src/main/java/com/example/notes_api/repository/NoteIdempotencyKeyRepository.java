@@ -0,0 +1,22 @@
+package com.example.notes_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.notes_api.model.NoteIdempotencyKey;
+
+public interface NoteIdempotencyKeyRepository extends JpaRepository<NoteIdempotencyKey, Long> {
+
+    Optional<NoteIdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Transactional
+    @Query("delete from NoteIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+
+}
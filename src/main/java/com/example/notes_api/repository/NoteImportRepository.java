@@ -0,0 +1,26 @@
+package com.example.notes_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.notes_api.model.NoteImport;
+
+public interface NoteImportRepository extends JpaRepository<NoteImport, Long> {
+
+    Optional<NoteImport> findByImportKey(String importKey);
+
+    // Checkpoint tras cada bloque, en la transacción que guarda sus notas: una sola sentencia, sin SELECT previo
+    @Modifying
+    @Query("""
+           update NoteImport i
+              set i.processed = i.processed + :processed, i.imported = i.imported + :imported,
+                  i.invalid = i.invalid + :invalid, i.updatedAt = :updatedAt
+            where i.id = :id
+           """)
+    int addProgress(Long id, long processed, long imported, long invalid, LocalDateTime updatedAt);
+
+}
@@ -1,11 +1,148 @@
 package com.example.notes_api.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSummaryResponse;
 import com.example.notes_api.model.Note;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/*
+    Las lecturas usan proyecciones por constructor ("select new ..."):
+    Hibernate construye el DTO directamente desde el ResultSet, sin entidades gestionadas
+    ni snapshots para dirty-checking.
+
+    Ninguna consulta menciona owner_id: Hibernate lo añade a todas (@TenantId en Note).
+*/
 public interface NoteRepository extends JpaRepository<Note, Long> {
 
+    @Query("select new com.example.notes_api.dto.NoteResponse(n.id, n.title, n.content, n.tags, n.createdAt, n.updatedAt, n.version) from Note n where n.id = :id")
+    Optional<NoteResponse> findResponseById(Long id);
+
+    /*
+        Paginación keyset: "where id > :afterId order by id limit n".
+        Usa el índice de la PK, así que cuesta lo mismo en la primera página que en la millonésima.
+    */
+    @Query("select new com.example.notes_api.dto.NoteResponse(n.id, n.title, n.content, n.tags, n.createdAt, n.updatedAt, n.version) from Note n where n.id > :afterId order by n.id")
+    List<NoteResponse> findResponsesAfter(Long afterId, Limit limit);
+
+    // La misma página con entidades gestionadas (NoteReadPathBenchmark las compara con la proyección)
+    @Query("select n from Note n where n.id > :afterId order by n.id")
+    List<Note> findAfter(Long afterId, Limit limit);
+
+    /*
+        Sincronización incremental: notas modificadas después de la posición (updatedAt, afterId)
+        y antes de until (la marca de la sincronización), en orden (updatedAt, id). Usa el índice idx_notes_owner_updated_at_id; la condición está escrita
+        como rango sobre updatedAt para que MySQL pueda aprovecharlo.
+    */
+    @Query("""
+           select new com.example.notes_api.dto.NoteResponse(n.id, n.title, n.content, n.tags, n.createdAt, n.updatedAt, n.version) from Note n
+            where n.updatedAt >= :updatedAt and (n.updatedAt > :updatedAt or n.id > :afterId) and n.updatedAt < :until
+            order by n.updatedAt, n.id
+           """)
+    List<NoteResponse> findResponsesModifiedAfter(LocalDateTime updatedAt, Long afterId, LocalDateTime until, Limit limit);
+
+    // Igual que findResponsesAfter pero sin leer la columna content: solo su vista previa y su longitud
+    @Query("select new com.example.notes_api.dto.NoteSummaryResponse(n.id, n.title, n.contentPreview, n.contentLength, n.createdAt, n.updatedAt) from Note n where n.id > :afterId order by n.id")
+    List<NoteSummaryResponse> findSummariesAfter(Long afterId, Limit limit);
+
+    // La revisión actual en el listado de revisiones, sin leer el content
+    @Query("select n.title as title, n.contentLength as contentLength, n.updatedAt as updatedAt from Note n where n.id = :id")
+    Optional<NoteRevisionHead> findRevisionHeadById(Long id);
+
+    /*
+        SELECT ... FOR UPDATE: el estado que una modificación va a sobrescribir, bloqueado hasta el commit.
+        Proyecciones y no la entidad: sin snapshot para dirty-checking y, en la primera, sin leer el content.
+    */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select n.title as title, n.tags as tags, n.createdAt as createdAt, n.updatedAt as updatedAt, n.version as version from Note n where n.id = :id")
+    Optional<NoteUpdateState> findUpdateStateById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+           select n.title as title, n.content as content, n.tags as tags, n.createdAt as createdAt, n.updatedAt as updatedAt,
+                  n.version as version
+             from Note n where n.id = :id
+           """)
+    Optional<NoteUpdateStateWithContent> findUpdateStateWithContentById(Long id);
+
+    // Las entidades de un bloque de updateBatch, bloqueadas en orden de id: dos batches simultáneos no se interbloquean
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select n from Note n where n.id in :ids order by n.id")
+    List<Note> findAllForUpdateById(Collection<Long> ids);
+
+    /*
+        Escrituras en una sola sentencia, sin SELECT previo.
+        Devuelven el número de filas afectadas: 0 significa que la nota no existe
+        o que su versión no coincide con expectedVersion (null = cualquier versión).
+        Como no pasan por la entidad, updatedAt, version y la vista previa del content se actualizan
+        explícitamente (igual que Note.onUpdate, @Version y Note.setContent).
+    */
+    @Modifying
+    @Query("""
+           update Note n
+              set n.title = :title, n.content = :content, n.contentPreview = :contentPreview, n.contentLength = :contentLength,
+                  n.tags = :tags, n.updatedAt = :updatedAt, n.version = n.version + 1
+            where n.id = :id and (:expectedVersion is null or n.version = :expectedVersion)
+           """)
+    int updateById(Long id, String title, String content, String contentPreview, Integer contentLength, List<String> tags,
+                   LocalDateTime updatedAt, Long expectedVersion);
+
+    @Modifying
+    @Query("delete from Note n where n.id = :id and (:expectedVersion is null or n.version = :expectedVersion)")
+    int deleteNoteById(Long id, Long expectedVersion);
+
+    // Las notas de una página del índice de etiquetas, en orden de id
+    @Query("select new com.example.notes_api.dto.NoteResponse(n.id, n.title, n.content, n.tags, n.createdAt, n.updatedAt, n.version) from Note n where n.id in :ids order by n.id")
+    List<NoteResponse> findResponsesByIds(Collection<Long> ids);
+
+    @Query("select n.id from Note n where n.id in :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Para el índice de búsqueda, que guarda el dueño de cada nota
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select n.ownerId as ownerId, n.id as id, n.title as title, n.content as content from Note n order by n.id")
+    Stream<NoteSearchView> streamSearchViews();
+
+    // Al abrir un índice guardado en disco: las notas modificadas mientras la aplicación no estaba
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select n.ownerId as ownerId, n.id as id, n.title as title, n.content as content from Note n where n.updatedAt >= :since order by n.id")
+    Stream<NoteSearchView> streamSearchViewsModifiedSince(LocalDateTime since);
+
+    // Una página de resultados de búsqueda: el índice solo devuelve los ids
+    @Query("select n.ownerId as ownerId, n.id as id, n.title as title, n.content as content from Note n where n.id in :ids")
+    List<NoteSearchView> findSearchViewsByIdIn(Collection<Long> ids);
+
+    // Para el índice de etiquetas: solo las notas que tienen alguna
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select n.ownerId as ownerId, n.id as id, n.tags as tags from Note n where n.tags is not null")
+    Stream<NoteTagView> streamTagViews();
+
+    // Refresco periódico del índice de etiquetas: también las que se quedaron sin etiquetas (idx_notes_updated_at)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select n.ownerId as ownerId, n.id as id, n.tags as tags from Note n where n.updatedAt >= :since")
+    Stream<NoteTagView> streamTagViewsModifiedSince(LocalDateTime since);
 
+    /*
+        Recorre toda la tabla con un cursor JDBC (useCursorFetch=true en la URL de MySQL).
+        Debe consumirse dentro de una transacción y cerrarse al terminar.
+    */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.notes_api.dto.NoteResponse(n.id, n.title, n.content, n.tags, n.createdAt, n.updatedAt, n.version) from Note n order by n.id")
+    Stream<NoteResponse> streamAllResponses();
 
 }
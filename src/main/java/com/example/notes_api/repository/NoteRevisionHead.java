@@ -0,0 +1,17 @@
+package com.example.notes_api.repository;
+
+import java.time.LocalDateTime;
+
+/*
+    Proyección con lo que el listado de revisiones muestra de la revisión actual (la nota):
+    content_length en lugar del content, que no se lee ni se descomprime.
+*/
+public interface NoteRevisionHead {
+
+    String getTitle();
+
+    Integer getContentLength();
+
+    LocalDateTime getUpdatedAt();
+
+}
@@ -0,0 +1,49 @@
+package com.example.notes_api.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.notes_api.dto.NoteRevisionSummary;
+import com.example.notes_api.model.NoteRevision;
+
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+
+    // Número de la última revisión guardada (null si la nota nunca se modificó)
+    @Query("select max(r.revision) from NoteRevision r where r.noteId = :noteId")
+    Integer findLatestRevision(Long noteId);
+
+    /*
+        Lo necesario para reconstruir la revisión dada, de la más reciente a la más antigua:
+        desde el primer snapshot por encima de ella (o, si no hay, desde la última guardada)
+        hasta la propia revisión. Como mucho notes.revisions.snapshot-interval filas,
+        por la clave única (note_id, revision).
+    */
+    @Query("""
+           select r from NoteRevision r
+            where r.noteId = :noteId and r.revision >= :revision
+              and r.revision <= coalesce((select min(s.revision) from NoteRevision s
+                                           where s.noteId = :noteId and s.snapshot = true and s.revision >= :revision),
+                                         2147483647)
+            order by r.revision desc
+           """)
+    List<NoteRevision> findChain(Long noteId, int revision);
+
+    // Keyset descendente: las revisiones anteriores a "before", de la más reciente a la más antigua
+    @Query("""
+           select new com.example.notes_api.dto.NoteRevisionSummary(r.revision, r.title, r.contentLength, r.createdAt)
+             from NoteRevision r
+            where r.noteId = :noteId and r.revision < :before
+            order by r.revision desc
+           """)
+    List<NoteRevisionSummary> findSummariesBefore(Long noteId, int before, Limit limit);
+
+    @Modifying
+    @Query("delete from NoteRevision r where r.noteId in :noteIds")
+    int deleteByNoteIds(Collection<Long> noteIds);
+
+}
@@ -0,0 +1,14 @@
+package com.example.notes_api.repository;
+
+// Proyección con lo que indexa NoteSearchIndex
+public interface NoteSearchView {
+
+    String getOwnerId();
+
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+}
@@ -0,0 +1,14 @@
+package com.example.notes_api.repository;
+
+import java.util.List;
+
+// Proyección con lo que indexa NoteTagIndex
+public interface NoteTagView {
+
+    String getOwnerId();
+
+    Long getId();
+
+    List<String> getTags();
+
+}
@@ -0,0 +1,34 @@
+package com.example.notes_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.notes_api.model.NoteTombstone;
+
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+
+    // Keyset sobre (deletedAt, noteId): borrados posteriores a la posición dada y anteriores a until, usando idx_note_tombstones_owner_deleted_at
+    @Query("""
+           select t from NoteTombstone t
+            where t.deletedAt >= :deletedAt and (t.deletedAt > :deletedAt or t.noteId > :afterId) and t.deletedAt < :until
+            order by t.deletedAt, t.noteId
+           """)
+    List<NoteTombstone> findDeletedAfter(LocalDateTime deletedAt, Long afterId, LocalDateTime until, Limit limit);
+
+    // Para poner al día los índices en memoria con los borrados de otras instancias (o de cuando no estaba en marcha)
+    @Query("select t from NoteTombstone t where t.deletedAt >= :since")
+    Stream<NoteTombstone> streamDeletedSince(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("delete from NoteTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+
+}
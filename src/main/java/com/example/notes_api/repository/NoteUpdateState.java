@@ -0,0 +1,23 @@
+package com.example.notes_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+    Proyección con lo que una modificación necesita de la fila que bloquea (SELECT ... FOR UPDATE):
+    las etiquetas que se conservan, createdAt y version para la respuesta y, para el historial de
+    revisiones, el title y el updatedAt que se sobrescriben. Sin el content.
+*/
+public interface NoteUpdateState {
+
+    String getTitle();
+
+    List<String> getTags();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+
+}
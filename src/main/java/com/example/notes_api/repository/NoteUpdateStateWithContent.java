@@ -0,0 +1,8 @@
+package com.example.notes_api.repository;
+
+// Con el content anterior: solo cuando el historial de revisiones lo guarda (notes.revisions.enabled)
+public interface NoteUpdateStateWithContent extends NoteUpdateState {
+
+    String getContent();
+
+}
@@ -0,0 +1,467 @@
+package com.example.notes_api.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.exception.InvalidCursorException;
+import com.example.notes_api.model.NoteTombstone;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteSearchView;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+    Índice invertido (Lucene embebido) sobre title y content.
+
+    - Se mantiene al día con los NoteChangedEvent que publica el service después de cada commit.
+    - Por defecto vive en memoria y se reconstruye desde la BD al arrancar. notes.search.index-path
+      lo guarda en disco: si al arrancar ya hay un índice, no se reconstruye; solo se ponen al día
+      las notas modificadas y borradas (tombstones) desde su último commit, que guarda hasta
+      cuándo está al día. Si ese momento es anterior a la retención de los tombstones, o el
+      índice no lo guarda, se reconstruye entero.
+    - Esos eventos son de esta instancia. Con varias tras el balanceador, cada refresh-interval
+      (notes.search.refresh-interval) se releen las notas con updated_at posterior al refresco
+      anterior (menos un margen) y los tombstones de ese tiempo, igual que en NoteTagIndex: lo
+      escrito por otra instancia tarda como mucho un intervalo en aparecer en la búsqueda.
+    - Mientras se reconstruye o se pone al día, los eventos se guardan y se aplican al terminar:
+      si no, un borrado aplicado a mitad de la reconstrucción volvería a indexarse con los datos
+      que la reconstrucción ya había leído.
+    - Solo se indexan title y content, no se guardan: el índice devuelve ids y la página de
+      resultados se lee de la BD (también los textos que se resaltan). Las notas que ya no
+      existen en la BD se omiten.
+    - Ranking BM25 (title pesa el doble que content) y paginación keyset con searchAfter
+      sobre (score, id).
+    - Cada documento guarda el dueño de la nota; las búsquedas solo ven las del dueño actual.
+*/
+@Component
+public class NoteSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchIndex.class);
+
+    static final String ID = "id";
+    static final String OWNER = "owner";
+    static final String ID_SORT = "id_sort";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, CONTENT, 1f);
+
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private static final int FRAGMENT_SIZE = 150;
+
+    // Clave del commit con el momento hasta el que el índice en disco está al día
+    static final String INDEXED_UNTIL = "indexed_until";
+
+    // Margen al ponerse al día: cubre transacciones cuyo updatedAt es anterior a su commit
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    // El mismo que NoteTagIndex: entre refrescos solo pasa refresh-interval, no una parada entera
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(1);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final Directory directory;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private final NoteRepository noteRepository;
+
+    private final NoteTombstoneRepository tombstoneRepository;
+
+    private final Duration tombstoneRetention;
+
+    private final boolean persistent;
+
+    /*
+        Los eventos toman el lock de lectura; empezar y terminar una carga, el de escritura.
+        Con pending distinto de null hay una carga en curso y los eventos se encolan.
+    */
+    private final ReentrantReadWriteLock loadLock = new ReentrantReadWriteLock();
+
+    private List<NoteChangedEvent> pending;
+
+    /*
+        Hasta cuándo está al día con la BD (última carga o refresco que terminó); es lo que se guarda
+        al cerrarse. null antes de cargarse y durante una reconstrucción.
+    */
+    private volatile LocalDateTime refreshedUntil;
+
+    // Sin readOnly a propósito: con réplicas de lectura, la reconstrucción lee del primario y no indexa datos atrasados
+    private final TransactionTemplate rebuildTransaction;
+
+    public NoteSearchIndex(NoteRepository noteRepository, NoteTombstoneRepository tombstoneRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${notes.search.index-path:}") String indexPath,
+                           @Value("${notes.sync.tombstone-retention:30d}") Duration tombstoneRetention) throws IOException {
+        this.noteRepository = noteRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+
+        this.persistent = !indexPath.isBlank();
+        this.directory = persistent ? FSDirectory.open(Path.of(indexPath)) : new ByteBuffersDirectory();
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null); // Near-real-time: ve lo escrito sin hacer commit
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws IOException {
+        LocalDateTime indexedUntil = indexedUntil();
+        if (indexedUntil != null && indexedUntil.isAfter(LocalDateTime.now().minus(tombstoneRetention))) {
+            long start = System.currentTimeMillis();
+            LocalDateTime since = indexedUntil.minus(CATCH_UP_MARGIN);
+            long[] counts = catchUp(since);
+            log.info("Search index loaded from disk: {} notes reindexed and {} removed since {} in {} ms",
+                     counts[0], counts[1], since, System.currentTimeMillis() - start);
+        } else {
+            rebuild();
+        }
+    }
+
+    public void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        refreshedUntil = null; // A medias no está al día con nada
+        LocalDateTime now = beginLoad();
+        boolean completed = false;
+        try {
+            writer.deleteAll();
+
+            // Las notas de todos los dueños
+            OwnerContext.runAs(OwnerContext.ALL_OWNERS, () -> rebuildTransaction.executeWithoutResult(status -> {
+                try (Stream<NoteSearchView> notes = noteRepository.streamSearchViews()) {
+                    notes.forEach(note -> index(note.getOwnerId(), note.getId(), note.getTitle(), note.getContent()));
+                }
+            }));
+            completed = true;
+        } finally {
+            endLoad(completed ? now : null);
+        }
+        log.info("Search index rebuilt with {} notes in {} ms", writer.getDocStats().numDocs, System.currentTimeMillis() - start);
+    }
+
+    /*
+        Lo que otras instancias han escrito desde el refresco anterior. Volver a indexar una nota
+        que ya estaba al día no cambia los resultados. Si falla, refreshedUntil no avanza y el
+        siguiente refresco vuelve a leer desde el mismo punto.
+    */
+    @Scheduled(fixedDelayString = "${notes.search.refresh-interval:30s}", initialDelayString = "${notes.search.refresh-interval:30s}")
+    public void refresh() throws IOException {
+        LocalDateTime previous = refreshedUntil;
+        if (previous == null) {
+            return; // Todavía no se ha cargado o se está reconstruyendo
+        }
+        long[] counts = catchUp(previous.minus(REFRESH_MARGIN));
+        log.debug("Search index refreshed: {} notes reindexed and {} removed", counts[0], counts[1]);
+    }
+
+    // Solo lo que cambió desde since (notas modificadas y tombstones). Devuelve cuántas se reindexaron y se quitaron
+    private long[] catchUp(LocalDateTime since) throws IOException {
+        LocalDateTime now = beginLoad();
+        long[] counts = new long[2];
+        boolean completed = false;
+        try {
+            OwnerContext.runAs(OwnerContext.ALL_OWNERS, () -> rebuildTransaction.executeWithoutResult(status -> {
+                try (Stream<NoteSearchView> notes = noteRepository.streamSearchViewsModifiedSince(since)) {
+                    notes.forEach(note -> {
+                        index(note.getOwnerId(), note.getId(), note.getTitle(), note.getContent());
+                        counts[0]++;
+                    });
+                }
+                try (Stream<NoteTombstone> deleted = tombstoneRepository.streamDeletedSince(since)) {
+                    deleted.forEach(tombstone -> {
+                        delete(tombstone.getNoteId());
+                        counts[1]++;
+                    });
+                }
+            }));
+            completed = true;
+        } finally {
+            endLoad(completed ? now : null);
+        }
+        return counts;
+    }
+
+    // fallbackExecution: también se indexan las escrituras hechas fuera de una transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        loadLock.readLock().lock();
+        try {
+            if (pending != null) {
+                synchronized (pending) {
+                    pending.add(event);
+                }
+                return;
+            }
+            apply(event);
+        } finally {
+            loadLock.readLock().unlock();
+        }
+    }
+
+    public PageResponse<NoteSearchHit> search(String text, String cursor, int limit) {
+        Query query = parse(text);
+        Query ownerQuery = new BooleanQuery.Builder()
+            .add(query, BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(OWNER, OwnerContext.current())), BooleanClause.Occur.FILTER) // No puntúa
+            .build();
+        FieldDoc cursorDoc = decodeCursor(cursor);
+
+        IndexSearcher searcher = null;
+        try {
+            searcherManager.maybeRefresh(); // Barato si no hubo escrituras desde el último refresh
+            searcher = searcherManager.acquire();
+            int maxDoc = searcher.getIndexReader().maxDoc();
+            if (maxDoc == 0) {
+                return new PageResponse<>(List.of(), null);
+            }
+            // El doc del cursor puede ya no existir si el índice se compactó
+            FieldDoc after = cursorDoc == null ? null
+                : new FieldDoc(Math.min(cursorDoc.doc, maxDoc - 1), cursorDoc.score, cursorDoc.fields);
+
+            // Pido uno de más para saber si hay otra página
+            ScoreDoc[] docs = searcher.searchAfter(after, ownerQuery, limit + 1, RANKING, true).scoreDocs;
+            int size = Math.min(docs.length, limit);
+
+            // Del índice solo salen los ids; el texto de la página se lee de la BD en una consulta
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(storedFields.document(docs[i].doc).getField(ID_SORT).numericValue().longValue());
+            }
+            Map<Long, NoteSearchView> notes = noteRepository.findSearchViewsByIdIn(ids)
+                                                            .stream()
+                                                            .collect(Collectors.toMap(NoteSearchView::getId, note -> note));
+
+            List<NoteSearchHit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                NoteSearchView note = notes.get(ids.get(i));
+                if (note == null) {
+                    continue; // Borrada después de consultar el índice
+                }
+                hits.add(new NoteSearchHit(
+                    note.getId(),
+                    note.getTitle(),
+                    docs[i].score,
+                    highlight(query, TITLE, note.getTitle()),
+                    highlight(query, CONTENT, note.getContent())
+                ));
+            }
+
+            String nextCursor = docs.length > limit ? encodeCursor((FieldDoc) docs[size - 1]) : null;
+            return new PageResponse<>(hits, nextCursor);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        LocalDateTime indexedUntil = refreshedUntil;
+        if (persistent && indexedUntil != null) {
+            // No ahora: lo escrito por otras instancias desde el último refresco no está en el índice
+            commitIndexedUntil(indexedUntil);
+        }
+        writer.close(); // Hace commit de lo pendiente si el índice está en disco
+        directory.close();
+    }
+
+    // Empieza una carga: desde aquí los eventos se encolan. Devuelve el momento hasta el que quedará al día
+    private LocalDateTime beginLoad() {
+        loadLock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+            return LocalDateTime.now();
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+    }
+
+    /*
+        Aplica, en orden, los eventos que llegaron durante la carga y deja de encolarlos.
+        indexedUntil es null si la carga falló: el índice no se da por al día hasta ese momento.
+    */
+    private void endLoad(LocalDateTime indexedUntil) throws IOException {
+        loadLock.writeLock().lock();
+        try {
+            pending.forEach(this::apply);
+            pending = null;
+            if (indexedUntil != null) {
+                commitIndexedUntil(indexedUntil);
+                refreshedUntil = indexedUntil;
+            }
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    private void commitIndexedUntil(LocalDateTime indexedUntil) throws IOException {
+        writer.setLiveCommitData(Map.of(INDEXED_UNTIL, indexedUntil.toString()).entrySet());
+        writer.commit();
+    }
+
+    // null si el índice está en memoria, está vacío o no guarda hasta cuándo está al día
+    private LocalDateTime indexedUntil() {
+        if (!persistent || writer.getLiveCommitData() == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+            if (entry.getKey().equals(INDEXED_UNTIL)) {
+                return LocalDateTime.parse(entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    private void apply(NoteChangedEvent event) {
+        if (event.type() == NoteChangedEvent.Type.DELETED) {
+            delete(event.id());
+        } else {
+            index(event.ownerId(), event.id(), event.note().getTitle(), event.note().getContent());
+        }
+    }
+
+    private void index(String ownerId, Long id, String title, String content) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(id), Field.Store.NO));
+        doc.add(new StringField(OWNER, ownerId, Field.Store.NO));
+        doc.add(new NumericDocValuesField(ID_SORT, id));
+        doc.add(new StoredField(ID_SORT, id));
+        // Solo se indexan: el texto de los resultados se lee de la BD
+        doc.add(new TextField(TITLE, title, Field.Store.NO));
+        doc.add(new TextField(CONTENT, content, Field.Store.NO));
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(id)), doc); // Reemplaza la versión anterior
+        } catch (IOException ex) {
+            log.error("Could not index note {}", id, ex);
+        }
+    }
+
+    private void delete(Long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+        } catch (IOException ex) {
+            log.error("Could not remove note {} from the search index", id, ex);
+        }
+    }
+
+    private Query parse(String text) {
+        // SimpleQueryParser no lanza errores de sintaxis: acepta "frase exacta", -excluir, prefijo*
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(text);
+    }
+
+    private String highlight(Query query, String field, String text) {
+        Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(),
+                                                  new QueryScorer(query, field));
+        highlighter.setTextFragmenter(new SimpleFragmenter(FRAGMENT_SIZE));
+        try {
+            return highlighter.getBestFragment(analyzer, field, text);
+        } catch (IOException | InvalidTokenOffsetsException ex) {
+            return null;
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String encodeCursor(FieldDoc last) {
+        String raw = "s:" + Float.floatToIntBits((Float) last.fields[0]) + ":" + last.fields[1] + ":" + last.doc;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FieldDoc decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null; // Primera página
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4 || !parts[0].equals("s")) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            float score = Float.intBitsToFloat(Integer.parseInt(parts[1]));
+            long id = Long.parseLong(parts[2]);
+            // doc desempata cuando (score, id) coinciden, es decir, para la misma nota
+            int doc = Math.max(0, Integer.parseInt(parts[3]));
+            return new FieldDoc(doc, score, new Object[] { score, id });
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+}
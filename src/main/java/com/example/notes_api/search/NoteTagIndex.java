@@ -0,0 +1,286 @@
+package com.example.notes_api.search;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.longlong.PeekableLongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.model.NoteTombstone;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteTagView;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+
+/*
+    Índice de etiquetas en memoria: para cada dueño, etiqueta -> ids de sus notas en un bitmap
+    comprimido (Roaring). Filtrar por varias etiquetas es una intersección (AND) o unión (OR) de
+    bitmaps; los ids salen ordenados, así que la paginación por cursor es saltar hasta el id del
+    cursor y parar al llenar la página.
+
+    Igual que NoteSearchIndex, se reconstruye desde la BD al arrancar y se mantiene al día con
+    los NoteChangedEvent que publica el service después de cada commit.
+
+    Esos eventos son de esta instancia. Con varias tras el balanceador, cada refresh-interval
+    (notes.tags.refresh-interval) se releen las notas con updated_at posterior al refresco anterior
+    (menos un margen para transacciones largas) y los tombstones de ese tiempo, así que lo escrito
+    por otra instancia tarda como mucho un intervalo en aparecer en el filtro por etiquetas.
+
+    Cada dueño tiene su propio lock de lectura/escritura: las consultas de un dueño no esperan
+    a las escrituras de otro. No se guarda id -> etiquetas (ocuparía más que los bitmaps), así
+    que modificar o borrar una nota revisa todas las etiquetas de su dueño.
+*/
+@Component
+public class NoteTagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteTagIndex.class);
+
+    // Intentos del leapfrog por id pedido antes de pasar a la intersección completa
+    private static final int PROBES_PER_ID = 8;
+
+    // Cubre transacciones cuyo updatedAt es anterior a su commit (se confirmaron después del refresco anterior)
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(1);
+
+    private static final class OwnerTags {
+
+        private final Map<String, Roaring64Bitmap> bitmaps = new HashMap<>();
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    }
+
+    private final Map<String, OwnerTags> owners = new ConcurrentHashMap<>();
+
+    private final NoteRepository noteRepository;
+
+    private final NoteTombstoneRepository tombstoneRepository;
+
+    // Sin readOnly a propósito: con réplicas de lectura, la reconstrucción lee del primario
+    private final TransactionTemplate rebuildTransaction;
+
+    // Hasta cuándo está al día con la BD (reconstrucción o último refresco); null antes de reconstruirse
+    private volatile LocalDateTime refreshedUntil;
+
+    public NoteTagIndex(NoteRepository noteRepository, NoteTombstoneRepository tombstoneRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        owners.clear();
+
+        // Las notas de todos los dueños
+        OwnerContext.runAs(OwnerContext.ALL_OWNERS, () -> rebuildTransaction.executeWithoutResult(status -> {
+            try (Stream<NoteTagView> notes = noteRepository.streamTagViews()) {
+                notes.forEach(note -> update(note.getOwnerId(), note.getId(), note.getTags(), false));
+            }
+        }));
+
+        // Los bitmaps construidos id a id se compactan (rangos de ids consecutivos -> runs)
+        owners.values().forEach(ownerTags -> writeLocked(ownerTags, () -> ownerTags.bitmaps.values().forEach(Roaring64Bitmap::runOptimize)));
+        refreshedUntil = now;
+        log.info("Tag index rebuilt for {} owners in {} ms", owners.size(), System.currentTimeMillis() - start);
+    }
+
+    /*
+        Lo que otras instancias han escrito desde el refresco anterior. Volver a aplicar una nota
+        que ya estaba al día no cambia nada; una escritura local que llega justo después de leer
+        su fila anterior se corrige en el siguiente refresco, que vuelve a leerla por el margen.
+    */
+    @Scheduled(fixedDelayString = "${notes.tags.refresh-interval:30s}", initialDelayString = "${notes.tags.refresh-interval:30s}")
+    public void refresh() {
+        LocalDateTime previous = refreshedUntil;
+        if (previous == null) {
+            return; // Todavía no se ha reconstruido
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = previous.minus(REFRESH_MARGIN);
+        OwnerContext.runAs(OwnerContext.ALL_OWNERS, () -> rebuildTransaction.executeWithoutResult(status -> {
+            try (Stream<NoteTagView> notes = noteRepository.streamTagViewsModifiedSince(since)) {
+                notes.forEach(note -> update(note.getOwnerId(), note.getId(), note.getTags() == null ? List.of() : note.getTags(), true));
+            }
+            try (Stream<NoteTombstone> deleted = tombstoneRepository.streamDeletedSince(since)) {
+                deleted.forEach(tombstone -> update(tombstone.getOwnerId(), tombstone.getNoteId(), List.of(), true));
+            }
+        }));
+        refreshedUntil = now;
+    }
+
+    // fallbackExecution: también se indexan las escrituras hechas fuera de una transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> update(event.ownerId(), event.id(), event.note().getTags(), false);
+            case UPDATED -> update(event.ownerId(), event.id(), event.note().getTags(), true);
+            case DELETED -> update(event.ownerId(), event.id(), List.of(), true);
+        }
+    }
+
+    /*
+        Hasta limit ids de notas del dueño actual, mayores que afterId y en orden, que tienen todas
+        (AND) o alguna (OR) de las etiquetas. tags ya normalizadas (NoteTags.normalize).
+
+        No se calcula la intersección o la unión entera: se recorren los bitmaps a la vez desde el
+        cursor y se para al completar la página, así que el coste depende del tamaño de la página,
+        no del número de notas con esas etiquetas.
+    */
+    public List<Long> findIds(List<String> tags, TagMatch match, long afterId, int limit) {
+        OwnerTags ownerTags = owners.get(OwnerContext.current());
+        if (ownerTags == null || tags.isEmpty()) {
+            return List.of();
+        }
+        ownerTags.lock.readLock().lock();
+        try {
+            List<Roaring64Bitmap> bitmaps = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                Roaring64Bitmap bitmap = ownerTags.bitmaps.get(tag);
+                if (bitmap != null) {
+                    bitmaps.add(bitmap);
+                } else if (match == TagMatch.AND) {
+                    return List.of(); // Ninguna nota tiene esa etiqueta
+                }
+            }
+            if (bitmaps.isEmpty()) {
+                return List.of();
+            }
+            // En AND, el bitmap más pequeño propone candidatos y los demás solo confirman
+            bitmaps.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+            PeekableLongIterator[] iterators = new PeekableLongIterator[bitmaps.size()];
+            for (int i = 0; i < iterators.length; i++) {
+                iterators[i] = bitmaps.get(i).getLongIterator();
+                iterators[i].advanceIfNeeded(afterId + 1);
+            }
+            return match == TagMatch.AND ? intersection(bitmaps, iterators, limit) : union(iterators, limit);
+        } finally {
+            ownerTags.lock.readLock().unlock();
+        }
+    }
+
+    /*
+        Leapfrog: cada iterador salta (advanceIfNeeded, sin recorrer id a id) hasta el candidato del
+        resto. Va muy bien cuando muchas notas cumplen el AND; si casi ninguna lo cumple acabaría
+        recorriendo el bitmap más pequeño entero, así que pasados PROBES_PER_ID * limit intentos
+        se calcula la intersección completa con and() (por palabras de 64 bits) desde donde iba.
+    */
+    private static List<Long> intersection(List<Roaring64Bitmap> bitmaps, PeekableLongIterator[] iterators, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        PeekableLongIterator lead = iterators[0];
+        long probes = (long) PROBES_PER_ID * limit;
+        while (ids.size() < limit && lead.hasNext()) {
+            if (--probes < 0) {
+                return intersectionFrom(bitmaps, lead.peekNext(), ids, limit);
+            }
+            long candidate = lead.peekNext();
+            boolean inAll = true;
+            for (int i = 1; i < iterators.length; i++) {
+                iterators[i].advanceIfNeeded(candidate);
+                if (!iterators[i].hasNext()) {
+                    return ids;
+                }
+                long next = iterators[i].peekNext();
+                if (next != candidate) {
+                    lead.advanceIfNeeded(next);
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                ids.add(candidate);
+                lead.next();
+            }
+        }
+        return ids;
+    }
+
+    private static List<Long> intersectionFrom(List<Roaring64Bitmap> bitmaps, long fromId, List<Long> ids, int limit) {
+        Roaring64Bitmap result = Roaring64Bitmap.and(bitmaps.get(0), bitmaps.get(1));
+        for (int i = 2; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+        PeekableLongIterator iterator = result.getLongIterator();
+        iterator.advanceIfNeeded(fromId);
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next());
+        }
+        return ids;
+    }
+
+    // Mezcla ordenada: el menor siguiente id de todos los iteradores, sin repetir
+    private static List<Long> union(PeekableLongIterator[] iterators, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        while (ids.size() < limit) {
+            long min = Long.MAX_VALUE;
+            boolean any = false;
+            for (PeekableLongIterator iterator : iterators) {
+                if (iterator.hasNext()) {
+                    min = Math.min(min, iterator.peekNext());
+                    any = true;
+                }
+            }
+            if (!any) {
+                break;
+            }
+            ids.add(min);
+            for (PeekableLongIterator iterator : iterators) {
+                if (iterator.hasNext() && iterator.peekNext() == min) {
+                    iterator.next();
+                }
+            }
+        }
+        return ids;
+    }
+
+    // existing: la nota puede estar ya en el índice con otras etiquetas y hay que quitarla de ellas
+    private void update(String ownerId, Long id, List<String> tags, boolean existing) {
+        if (tags.isEmpty() && (!existing || !owners.containsKey(ownerId))) {
+            return; // Nada que añadir ni que quitar
+        }
+        OwnerTags ownerTags = owners.computeIfAbsent(ownerId, key -> new OwnerTags());
+        writeLocked(ownerTags, () -> {
+            if (existing) {
+                ownerTags.bitmaps.entrySet().removeIf(entry -> {
+                    if (!tags.contains(entry.getKey())) {
+                        entry.getValue().removeLong(id);
+                    }
+                    return entry.getValue().isEmpty();
+                });
+            }
+            for (String tag : tags) {
+                ownerTags.bitmaps.computeIfAbsent(tag, key -> new Roaring64Bitmap()).addLong(id);
+            }
+        });
+    }
+
+    private static void writeLocked(OwnerTags ownerTags, Runnable action) {
+        ownerTags.lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            ownerTags.lock.writeLock().unlock();
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.example.notes_api.search;
+
+import java.util.List;
+
+// Filtro por etiquetas: AND = la nota tiene todas, OR = tiene alguna
+public enum TagMatch {
+
+    AND,
+    OR;
+
+    // noteTags y wanted ya normalizadas (NoteTags.normalize)
+    public boolean matches(List<String> noteTags, List<String> wanted) {
+        return this == AND ? noteTags.containsAll(wanted) : wanted.stream().anyMatch(noteTags::contains);
+    }
+
+}
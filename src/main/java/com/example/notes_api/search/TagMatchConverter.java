@@ -0,0 +1,17 @@
+package com.example.notes_api.search;
+
+import java.util.Locale;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+// ?mode=and|or sin distinguir mayúsculas; otro valor responde 400 (el parámetro no se puede convertir)
+@Component
+public class TagMatchConverter implements Converter<String, TagMatch> {
+
+    @Override
+    public TagMatch convert(String source) {
+        return TagMatch.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+
+}
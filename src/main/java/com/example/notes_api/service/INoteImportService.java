@@ -0,0 +1,179 @@
+package com.example.notes_api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.NoteImportResponse;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.exception.InvalidTransferRequestException;
+import com.example.notes_api.exception.NoteImportInProgressException;
+import com.example.notes_api.exception.NoteImportNotFoundException;
+import com.example.notes_api.model.NoteImport;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteImportRepository;
+import com.example.notes_api.transfer.NoteTransferCodec;
+import com.example.notes_api.transfer.NoteTransferFormat;
+
+import jakarta.persistence.EntityManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+
+/*
+    Importación masiva en streaming: el fichero se lee registro a registro mientras llega y se
+    escribe en bloques de INoteService.BATCH_CHUNK_SIZE notas. Cada bloque va en su propia
+    transacción (createBatch valida cada nota y publica los eventos) junto con el checkpoint en
+    NoteImport, así que en memoria solo hay un bloque y el checkpoint nunca cuenta notas que no
+    se llegaron a guardar.
+
+    Si la subida se corta o un registro no se puede leer, la importación queda FAILED con lo ya
+    guardado. Repetirla con el mismo importId salta los registros contados en processed y sigue.
+    Las notas inválidas no detienen la importación: solo se cuentan.
+
+    Una importación en curso no admite otra con el mismo importId (409). El control es por
+    instancia: si el proceso cae, la importación queda RUNNING y se puede reanudar igual.
+*/
+@Service
+public class INoteImportService implements NoteImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(INoteImportService.class);
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final NoteImportRepository importRepository;
+
+    private final NoteService noteService;
+
+    private final NoteTransferCodec codec;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    // owner:importId de las importaciones que se están ejecutando en esta instancia
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public INoteImportService(NoteImportRepository importRepository, NoteService noteService, NoteTransferCodec codec,
+                              PlatformTransactionManager transactionManager, EntityManager entityManager) {
+        this.importRepository = importRepository;
+        this.noteService = noteService;
+        this.codec = codec;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public NoteImportResponse importNotes(String importId, NoteTransferFormat format, InputStream body) {
+        String key = importId == null || importId.isBlank() ? UUID.randomUUID().toString() : importId;
+        if (!VALID_ID.matcher(key).matches()) {
+            throw new InvalidTransferRequestException("Invalid import id: " + importId);
+        }
+        String runningKey = OwnerContext.current() + ":" + key;
+        if (!running.add(runningKey)) {
+            throw new NoteImportInProgressException("Import " + key + " is already running");
+        }
+        try {
+            NoteImport job = transactionTemplate.execute(status -> start(key, format));
+            if (job.getStatus() == NoteImport.Status.COMPLETED) {
+                return toResponse(job); // Ya terminó: repetirla no vuelve a insertar nada
+            }
+            return run(job.getId(), job.getProcessed(), format, body);
+        } finally {
+            running.remove(runningKey);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteImportResponse getImport(String importId) {
+        return importRepository.findByImportKey(importId)
+                               .map(INoteImportService::toResponse)
+                               .orElseThrow(() -> new NoteImportNotFoundException("Import not found with id: " + importId));
+    }
+
+    private NoteImport start(String key, NoteTransferFormat format) {
+        NoteImport job = importRepository.findByImportKey(key).orElse(null);
+        if (job == null) {
+            return importRepository.save(new NoteImport(key, format));
+        }
+        if (job.getStatus() != NoteImport.Status.COMPLETED) {
+            job.resume(format);
+        }
+        return job;
+    }
+
+    private NoteImportResponse run(Long jobId, long alreadyProcessed, NoteTransferFormat format, InputStream body) {
+        long position = 0; // Registros leídos del fichero
+        List<NoteRequest> batch = new ArrayList<>(INoteService.BATCH_CHUNK_SIZE);
+        try (MappingIterator<NoteRequest> records = codec.reader(format, body)) {
+            while (records.hasNextValue()) {
+                NoteRequest record = records.nextValue();
+                position++;
+                if (position <= alreadyProcessed) {
+                    continue; // Ya importado en un intento anterior
+                }
+                batch.add(record);
+                if (batch.size() == INoteService.BATCH_CHUNK_SIZE) {
+                    saveBatch(jobId, batch);
+                    batch.clear();
+                }
+            }
+            saveBatch(jobId, batch);
+        } catch (JacksonException | IOException e) {
+            // Registro ilegible o subida cortada: se conserva lo guardado hasta el último bloque
+            String error = "Record " + (position + 1) + " could not be read: " + e.getMessage();
+            log.warn("Import {} failed: {}", jobId, error);
+            return finish(jobId, job -> job.fail(error));
+        } catch (RuntimeException e) {
+            try {
+                finish(jobId, job -> job.fail(e.getMessage()));
+            } catch (RuntimeException suppressed) {
+                e.addSuppressed(suppressed); // La base de datos puede seguir sin responder
+            }
+            throw e;
+        }
+        return finish(jobId, NoteImport::complete);
+    }
+
+    private void saveBatch(Long jobId, List<NoteRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            BatchResponse result = noteService.createBatch(batch); // Se une a esta transacción
+            importRepository.addProgress(jobId, batch.size(), result.getSucceeded(), result.getFailed(), LocalDateTime.now());
+            // Con open-in-view el contexto de persistencia dura toda la petición: sin esto acumularía todas las notas
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private NoteImportResponse finish(Long jobId, Consumer<NoteImport> change) {
+        return transactionTemplate.execute(status -> {
+            NoteImport job = importRepository.findById(jobId).orElseThrow();
+            change.accept(job);
+            return toResponse(job);
+        });
+    }
+
+    private static NoteImportResponse toResponse(NoteImport job) {
+        return new NoteImportResponse(job.getImportKey(), job.getFormat(), job.getStatus(), job.getProcessed(), job.getImported(),
+                                      job.getInvalid(), job.getError(), job.getStartedAt(), job.getUpdatedAt());
+    }
+
+}
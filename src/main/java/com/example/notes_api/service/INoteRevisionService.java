@@ -0,0 +1,151 @@
+package com.example.notes_api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteRevisionResponse;
+import com.example.notes_api.dto.NoteRevisionSummary;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.event.NoteUpdatingEvent;
+import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteRevisionNotFoundException;
+import com.example.notes_api.model.NoteRevision;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteRevisionHead;
+import com.example.notes_api.repository.NoteRevisionRepository;
+
+/*
+    Historial de revisiones de cada nota, con deltas inversos (como RCS).
+
+    La revisión actual es la propia nota. Cada modificación que cambia el title o el content guarda
+    la versión sobrescrita en la misma transacción (NoteUpdatingEvent, listener síncrono): como
+    snapshot completo si su número es múltiplo de snapshotInterval y, si no, solo el TextDelta que
+    convierte el content nuevo en el anterior. Lo que se escribe crece con el tamaño del cambio,
+    no con el de la nota, y las notas que nunca se modifican no ocupan nada en el historial.
+    También se guarda un snapshot cuando el delta no ocupa menos que el content.
+
+    Reconstruir una revisión parte del primer snapshot por encima de ella, o de la nota si no hay,
+    y aplica hacia atrás como mucho snapshotInterval - 1 deltas.
+
+    Las revisiones se borran junto con la nota.
+*/
+@Service
+public class INoteRevisionService implements NoteRevisionService {
+
+    private final NoteRevisionRepository revisionRepository;
+
+    private final NoteRepository noteRepository;
+
+    private final NoteService noteService;
+
+    private final int snapshotInterval;
+
+    public INoteRevisionService(NoteRevisionRepository revisionRepository, NoteRepository noteRepository, NoteService noteService,
+                                @Value("${notes.revisions.snapshot-interval:16}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("notes.revisions.snapshot-interval must be >= 1");
+        }
+        this.revisionRepository = revisionRepository;
+        this.noteRepository = noteRepository;
+        this.noteService = noteService;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoteRevisionSummary> getRevisions(Long noteId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, INoteService.MAX_PAGE_SIZE));
+        List<NoteRevisionSummary> rows = new ArrayList<>(size + 1);
+        int before;
+        if (cursor == null || cursor.isBlank()) {
+            // Primera página: empieza por la revisión actual, que es la nota (sin leer su content)
+            NoteRevisionHead head = noteRepository.findRevisionHeadById(noteId)
+                .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + noteId));
+            before = currentRevision(noteId);
+            // Sin content_length solo una fila anterior a esa columna que no pasó por la migración V3
+            int contentLength = head.getContentLength() != null ? head.getContentLength() : findNote(noteId).getContent().length();
+            rows.add(new NoteRevisionSummary(before, head.getTitle(), contentLength, head.getUpdatedAt()));
+        } else {
+            before = (int) NoteCursor.decode(cursor);
+        }
+        rows.addAll(revisionRepository.findSummariesBefore(noteId, before, Limit.of(size + 1 - rows.size())));
+        if (rows.size() <= size) {
+            return new PageResponse<>(rows, null);
+        }
+        List<NoteRevisionSummary> items = rows.subList(0, size);
+        return new PageResponse<>(items, NoteCursor.encode((long) items.get(size - 1).getRevision()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteRevisionResponse getRevision(Long noteId, int revision) {
+        NoteResponse note = findNote(noteId);
+        int current = currentRevision(noteId);
+        if (revision == current) {
+            return new NoteRevisionResponse(noteId, current, note.getTitle(), note.getContent(), note.getUpdatedAt());
+        }
+        if (revision < 1 || revision > current) {
+            throw new NoteRevisionNotFoundException("Revision " + revision + " not found for note " + noteId);
+        }
+
+        // chain va de la revisión más reciente a la pedida; la primera es un snapshot o un delta sobre la nota
+        List<NoteRevision> chain = revisionRepository.findChain(noteId, revision);
+        NoteRevision first = chain.get(0);
+        String content = first.isSnapshot() ? first.getData() : TextDelta.apply(note.getContent(), first.getData());
+        for (int i = 1; i < chain.size(); i++) {
+            content = TextDelta.apply(content, chain.get(i).getData());
+        }
+        NoteRevision target = chain.get(chain.size() - 1);
+        return new NoteRevisionResponse(noteId, revision, target.getTitle(), content, target.getCreatedAt());
+    }
+
+    @Override
+    public NoteResponse restore(Long noteId, int revision, Long expectedVersion) {
+        NoteRevisionResponse target = getRevision(noteId, revision);
+        // Por NoteService: refresca la caché y publica los eventos, así la versión actual pasa al historial
+        return noteService.update(noteId, new NoteRequest(target.getTitle(), target.getContent()), expectedVersion);
+    }
+
+    // Síncrono: se ejecuta dentro de la transacción de la modificación (update o cada bloque de updateBatch)
+    @EventListener
+    public void onNoteUpdating(NoteUpdatingEvent event) {
+        if (!event.changesNote()) {
+            return; // Nada cambia: no hace falta otra revisión
+        }
+        String previous = event.previousContent();
+        int revision = currentRevision(event.id());
+        String delta = revision % snapshotInterval == 0 ? null : TextDelta.diff(event.content(), previous);
+        boolean snapshot = delta == null || delta.length() >= previous.length();
+        revisionRepository.save(new NoteRevision(event.id(), revision, snapshot, event.previousTitle(),
+                                                 snapshot ? previous : delta, previous.length(), event.previousUpdatedAt()));
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (event.type() == NoteChangedEvent.Type.DELETED) {
+            revisionRepository.deleteByNoteIds(Set.of(event.id()));
+        }
+    }
+
+    private NoteResponse findNote(Long noteId) {
+        return noteRepository.findResponseById(noteId)
+            .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + noteId));
+    }
+
+    // La revisión actual (la nota) es la siguiente a la última guardada
+    private int currentRevision(Long noteId) {
+        Integer latest = revisionRepository.findLatestRevision(noteId);
+        return latest == null ? 1 : latest + 1;
+    }
+
+}
@@ -1,82 +1,449 @@
 package com.example.notes_api.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.notes_api.config.CacheConfig;
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.BatchItemResult.Status;
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.NoteBatchUpdateRequest;
 import com.example.notes_api.dto.NoteRequest;
 import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.event.NoteUpdatingEvent;
 import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteVersionMismatchException;
 import com.example.notes_api.mapper.NoteMapper;
 import com.example.notes_api.model.Note;
+import com.example.notes_api.model.NoteTags;
+import com.example.notes_api.owner.OwnerContext;
 import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteUpdateState;
+import com.example.notes_api.repository.NoteUpdateStateWithContent;
+import com.example.notes_api.search.NoteSearchIndex;
+import com.example.notes_api.search.NoteTagIndex;
+import com.example.notes_api.search.TagMatch;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 /*
         Como el repositorio y la base de datos trabajan con Entities,
         el service traduce entre Entities y DTOs para que el API nunca dependa de la BD.
 
+        getById pasa por la caché "notes"; update la refresca y deleteById la invalida.
+        La clave incluye el dueño (OwnerContext.key): una nota en caché no es visible para otros dueños.
+        updateBatch y deleteBatch refrescan o invalidan solo las notas que escriben, dentro de la
+        transacción de cada bloque (CacheConfig las aplica al confirmarlo), no la caché entera.
+
+        Todas las operaciones trabajan solo con las notas del dueño actual: Hibernate filtra
+        por owner_id en cada consulta (@TenantId en Note).
+
+        Las operaciones batch validan cada elemento por separado y escriben en bloques de
+        BATCH_CHUNK_SIZE, cada bloque en su propia transacción (el contexto de persistencia
+        se descarta al terminar cada bloque, así la memoria no crece con el tamaño del batch).
+        No son todo o nada: si un bloque falla se deshace entero y sus elementos quedan FAILED,
+        mientras que los bloques ya confirmados conservan su resultado. updateBatch bloquea las
+        notas del bloque (SELECT ... FOR UPDATE) y admite una version por elemento.
+
+        Cada escritura publica un NoteChangedEvent; el índice de búsqueda y el de etiquetas lo procesan tras el commit.
+        update bloquea la fila con SELECT ... FOR UPDATE de una proyección (etiquetas, createdAt,
+        version...) y la sobrescribe con un UPDATE directo. Con el historial de revisiones activo
+        (notes.revisions.enabled) la proyección incluye el content anterior y antes del UPDATE se
+        publica un NoteUpdatingEvent con ese estado.
+
+        Cada método público se mide en el timer notes.service (etiquetas class, method, exception).
+
 */
 
 @Service
+@Timed(value = "notes.service", description = "NoteService operations")
 public class INoteService implements NoteService  {
+
+    private static final Logger log = LoggerFactory.getLogger(INoteService.class);
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    static final int BATCH_CHUNK_SIZE = 500;
     
     private final NoteRepository noteRepository;
 
-    public INoteService(NoteRepository noteRepository) {
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final NoteSearchIndex searchIndex;
+
+    private final NoteTagIndex tagIndex;
+
+    private final boolean revisionsEnabled;
+
+    // Para los batch, que tocan una clave por nota; los métodos de una nota usan las anotaciones
+    private final Cache notesCache;
+
+    public INoteService(NoteRepository noteRepository, Validator validator, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher eventPublisher, NoteSearchIndex searchIndex, NoteTagIndex tagIndex,
+                        CacheManager cacheManager, @Value("${notes.revisions.enabled:true}") boolean revisionsEnabled) {
         this.noteRepository = noteRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.tagIndex = tagIndex;
+        this.revisionsEnabled = revisionsEnabled;
+        this.notesCache = cacheManager.getCache(CacheConfig.NOTES_CACHE);
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.NOTES_CACHE, key = "T(com.example.notes_api.owner.OwnerContext).key(#result.id)",
+              condition = "@environment.getProperty('notes.cache.warm-on-create', T(Boolean), false)")
+    @Transactional
     public NoteResponse create(NoteRequest noteRequest) {
         Note note = NoteMapper.toEntity(noteRequest); // Convierto en entidad DTO -> Entity
         Note savedNoted = noteRepository.save(note); // Guardo en BD como Entidad
-        return NoteMapper.toResponse(savedNoted); // Convierto en DTO Entity -> DTO, y retorno el DTO 
+        NoteResponse response = NoteMapper.toResponse(savedNoted); // Convierto en DTO Entity -> DTO
+        eventPublisher.publishEvent(NoteChangedEvent.created(response));
+        return response; // Retorno el DTO
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoteResponse> getPage(String cursor, int limit) {
+        int size = pageSize(limit);
+        List<NoteResponse> rows = noteRepository.findResponsesAfter(NoteCursor.decode(cursor), Limit.of(size + 1));
+        return toPage(rows, size, NoteResponse::getId);
+    }
+
+    /*
+        Los ids salen del índice de etiquetas en memoria (ya filtrados, en orden y a partir del cursor);
+        la BD solo lee esas filas por PK. Las filas se vuelven a comprobar por si una modificación
+        reciente aún no llegó al índice: en ese caso la página puede traer alguna nota menos.
+    */
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoteResponse> getPageByTags(List<String> tags, TagMatch match, String cursor, int limit) {
+        int size = pageSize(limit);
+        List<String> wanted = NoteTags.normalize(tags);
+        List<Long> ids = tagIndex.findIds(wanted, match, NoteCursor.decode(cursor), size + 1);
+        if (ids.isEmpty()) {
+            return new PageResponse<>(List.of(), null);
+        }
+        List<NoteResponse> items = noteRepository.findResponsesByIds(ids.subList(0, Math.min(size, ids.size())))
+                                                 .stream()
+                                                 .filter(note -> match.matches(note.getTags(), wanted))
+                                                 .toList();
+        String nextCursor = ids.size() > size ? NoteCursor.encode(ids.get(size - 1)) : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoteSummaryResponse> getSummaryPage(String cursor, int limit) {
+        int size = pageSize(limit);
+        List<NoteSummaryResponse> rows = noteRepository.findSummariesAfter(NoteCursor.decode(cursor), Limit.of(size + 1));
+        return toPage(rows, size, NoteSummaryResponse::getId);
     }
 
     @Override
-    public List<NoteResponse> getAll() {
-        return noteRepository.findAll() // Obtengo todas las entidades de la BD.
-                             .stream() // Convierto la lista en un stream para poder mapear cada entidad a DTO
-                             .map(NoteMapper::toResponse) // Mapeo cada entidad a su correspondiente DTO
-                             .toList(); // Convierto el stream de DTOs de vuelta a una lista y la retorno
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<NoteResponse> consumer) {
+        // El stream mantiene abierto el cursor JDBC; se cierra siempre al salir
+        try (Stream<NoteResponse> notes = noteRepository.streamAllResponses()) {
+            notes.forEach(consumer);
+        }
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.NOTES_CACHE, key = "T(com.example.notes_api.owner.OwnerContext).key(#id)", sync = true) // sync -> una sola carga por id y métrica de latencia de carga
+    @Transactional(readOnly = true)
     public NoteResponse getById(Long id) {
-        Note note = noteRepository.findById(id)
+        return noteRepository.findResponseById(id) // El DTO sale directo de la consulta, sin entidad
             .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.NOTES_CACHE, key = "T(com.example.notes_api.owner.OwnerContext).key(#id)")
+    @Transactional
+    public NoteResponse update(Long id, NoteRequest note, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now(); // Mismo valor que pondría Note.onUpdate
 
-        return NoteMapper.toResponse(note);
+        // Lo que se va a sobrescribir, bloqueado hasta el commit; el content solo si el historial lo guarda
+        NoteUpdateState previous;
+        if (revisionsEnabled) {
+            NoteUpdateStateWithContent current = noteRepository.findUpdateStateWithContentById(id).orElse(null);
+            if (current != null && versionMatches(current, expectedVersion)) {
+                eventPublisher.publishEvent(new NoteUpdatingEvent(id, current.getTitle(), current.getContent(), current.getUpdatedAt(),
+                                                                  note.getTitle(), note.getContent()));
+            }
+            previous = current;
+        } else {
+            previous = noteRepository.findUpdateStateById(id).orElse(null);
+        }
+        if (previous == null) {
+            throw new NoteNotFoundException("Note not found with id: " + id);
+        }
+        if (!versionMatches(previous, expectedVersion)) {
+            throw new NoteVersionMismatchException("Note " + id + " does not match version " + expectedVersion);
+        }
+
+        // Sin tags en la petición se conservan las que tenga la nota
+        List<String> tags = note.getTags() != null ? NoteTags.normalize(note.getTags()) : previous.getTags();
+
+        // UPDATE directo; la fila está bloqueada, así que afecta a una fila y la versión pasa a ser la siguiente
+        noteRepository.updateById(id, note.getTitle(), note.getContent(), Note.previewOf(note.getContent()),
+                                  note.getContent().length(), tags, now, expectedVersion);
+
+        // La respuesta se arma con la petición y la fila bloqueada, sin volver a leerla
+        NoteResponse response = new NoteResponse(id, note.getTitle(), note.getContent(), tags, previous.getCreatedAt(), now,
+                                                 previous.getVersion() + 1);
+        eventPublisher.publishEvent(NoteChangedEvent.updated(response));
+        return response;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.NOTES_CACHE, key = "T(com.example.notes_api.owner.OwnerContext).key(#id)")
+    @Transactional
+    public void deleteById(Long id, Long expectedVersion) {
+        if (noteRepository.deleteNoteById(id, expectedVersion) == 0) { // DELETE directo, sin SELECT previo
+            throw notUpdated(id, expectedVersion);
+        }
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<NoteSearchHit> search(String query, String cursor, int limit) {
+        return searchIndex.search(query, cursor, pageSize(limit));
+    }
+
+    @Override
+    public BatchResponse createBatch(List<NoteRequest> notes) {
+        BatchItemResult[] results = new BatchItemResult[notes.size()];
+        List<Integer> valid = validateAll(notes, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            List<Note> entities = chunk.stream()
+                                       .map(i -> NoteMapper.toEntity(notes.get(i)))
+                                       .toList();
+
+            writeChunk(chunk, i -> null, results, status -> {
+                List<Note> saved = noteRepository.saveAll(entities);
+                saved.forEach(note -> eventPublisher.publishEvent(NoteChangedEvent.created(NoteMapper.toResponse(note))));
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = BatchItemResult.success(chunk.get(j), saved.get(j).getId(), Status.CREATED);
+                }
+            });
+        }
+
+        return new BatchResponse(Arrays.asList(results));
     }
 
     @Override
-    public NoteResponse update(Long id, NoteRequest note) {
-        Note existingNote = noteRepository.findById(id)
-            .orElseThrow(() ->
-                new NoteNotFoundException("Note not found with id: " + id)
-            );
+    public BatchResponse updateBatch(List<NoteBatchUpdateRequest> notes) {
+        BatchItemResult[] results = new BatchItemResult[notes.size()];
+        List<Integer> valid = validateAll(notes, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            writeChunk(chunk, i -> notes.get(i).getId(), results, status -> {
+                Set<Long> ids = chunk.stream().map(i -> notes.get(i).getId()).collect(Collectors.toSet());
+                // Bloqueadas hasta el commit: la versión comprobada aquí es la que se sobrescribe
+                Map<Long, Note> existing = noteRepository.findAllForUpdateById(ids)
+                                                         .stream()
+                                                         .collect(Collectors.toMap(Note::getId, note -> note));
 
-        existingNote.setTitle(note.getTitle());
-        existingNote.setContent(note.getContent());
+                List<Note> updated = new ArrayList<>(chunk.size());
+                for (Integer i : chunk) {
+                    NoteBatchUpdateRequest request = notes.get(i);
+                    Note note = existing.get(request.getId());
+                    if (note == null) {
+                        results[i] = BatchItemResult.notFound(i, request.getId());
+                        continue;
+                    }
+                    if (request.getVersion() != null && !request.getVersion().equals(note.getVersion())) {
+                        results[i] = BatchItemResult.versionMismatch(i, note.getId(), request.getVersion());
+                        continue;
+                    }
+                    if (revisionsEnabled) {
+                        eventPublisher.publishEvent(new NoteUpdatingEvent(note.getId(), note.getTitle(), note.getContent(),
+                                                                          note.getUpdatedAt(), request.getTitle(), request.getContent()));
+                    }
+                    note.setTitle(request.getTitle());
+                    note.setContent(request.getContent());
+                    if (request.getTags() != null) {
+                        note.setTags(request.getTags());
+                    }
+                    results[i] = BatchItemResult.success(i, note.getId(), Status.UPDATED);
+                    updated.add(note);
+                }
+                // Dirty checking: los UPDATE se envían agrupados aquí. Los eventos van después: hasta el
+                // flush las entidades conservan la version y el updatedAt anteriores (@Version, @PreUpdate)
+                noteRepository.flush();
+                updated.forEach(note -> {
+                    NoteResponse response = NoteMapper.toResponse(note);
+                    notesCache.put(OwnerContext.key(note.getId()), response);
+                    eventPublisher.publishEvent(NoteChangedEvent.updated(response));
+                });
+            });
+        }
 
-        Note updatedNote = noteRepository.save(existingNote);
-        return NoteMapper.toResponse(updatedNote);
+        return new BatchResponse(Arrays.asList(results));
     }
 
     @Override
-    public void deleteById(Long id) {
-        Note existingNote = noteRepository.findById(id)
-            .orElseThrow(() ->
-                new NoteNotFoundException("Note not found with id: " + id)
-            );
+    public BatchResponse deleteBatch(List<Long> ids) {
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = BatchItemResult.invalid(i, List.of("Id must not be null"));
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            writeChunk(chunk, ids::get, results, status -> {
+                List<Long> chunkIds = chunk.stream().map(ids::get).toList();
+                Set<Long> existing = new HashSet<>(noteRepository.findExistingIds(chunkIds));
+
+                if (!existing.isEmpty()) {
+                    noteRepository.deleteAllByIdInBatch(existing); // Un solo DELETE ... WHERE id IN (...)
+                }
+
+                for (Integer i : chunk) {
+                    Long id = ids.get(i);
+                    results[i] = existing.contains(id)
+                        ? BatchItemResult.success(i, id, Status.DELETED)
+                        : BatchItemResult.notFound(i, id);
+                }
+                existing.forEach(id -> {
+                    notesCache.evict(OwnerContext.key(id));
+                    eventPublisher.publishEvent(NoteChangedEvent.deleted(id));
+                });
+            });
+        }
+
+        return new BatchResponse(Arrays.asList(results));
+    }
 
-        noteRepository.delete(existingNote);
+    /*
+        Solo se llega aquí cuando la escritura no afectó filas; distinguir 404 de 412
+        cuesta una consulta extra únicamente en ese caso.
+    */
+    private RuntimeException notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion != null && noteRepository.existsById(id)) {
+            return new NoteVersionMismatchException("Note " + id + " does not match version " + expectedVersion);
+        }
+        return new NoteNotFoundException("Note not found with id: " + id);
     }
 
+    private static boolean versionMatches(NoteUpdateState note, Long expectedVersion) {
+        return expectedVersion == null || expectedVersion.equals(note.getVersion());
+    }
 
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE)); // Nunca más de MAX_PAGE_SIZE por página
+    }
 
+    /*
+        Las consultas piden una fila de más (size + 1) para saber si existe otra página
+        sin tener que hacer un count().
+    */
+    private static <T> PageResponse<T> toPage(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new PageResponse<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new PageResponse<>(items, NoteCursor.encode(idOf.apply(items.get(size - 1))));
+    }
 
+    /*
+        Valida cada elemento con Bean Validation. Los inválidos quedan marcados en results
+        y se devuelven las posiciones de los válidos.
+    */
+    /*
+        Escribe un bloque en su propia transacción. Si falla, los bloques anteriores ya están
+        confirmados: este se deshace y todos sus elementos quedan FAILED en vez de perder los
+        resultados de todo el batch con un 500. Unida a la transacción de quien llama (la
+        importación), el error se propaga: esa transacción ya no se puede confirmar.
+    */
+    private void writeChunk(List<Integer> chunk, Function<Integer, Long> idOf, BatchItemResult[] results,
+                            Consumer<TransactionStatus> write) {
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        try {
+            transactionTemplate.executeWithoutResult(write);
+        } catch (RuntimeException e) {
+            if (joined) {
+                throw e;
+            }
+            log.error("Batch chunk of {} items failed and was rolled back", chunk.size(), e);
+            for (Integer i : chunk) {
+                results[i] = BatchItemResult.failed(i, idOf.apply(i));
+            }
+        }
+    }
 
+    private <T extends NoteRequest> List<Integer> validateAll(List<T> notes, BatchItemResult[] results) {
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < notes.size(); i++) {
+            T note = notes.get(i);
+            if (note == null) {
+                results[i] = BatchItemResult.invalid(i, List.of("Note must not be null"));
+                continue;
+            }
+            List<String> errors = validator.validate(note)
+                                           .stream()
+                                           .map(ConstraintViolation::getMessage)
+                                           .toList();
+            if (errors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = BatchItemResult.invalid(i, errors);
+            }
+        }
+        return valid;
+    }
 
+    private static List<List<Integer>> chunks(List<Integer> indexes) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int start = 0; start < indexes.size(); start += BATCH_CHUNK_SIZE) {
+            chunks.add(indexes.subList(start, Math.min(start + BATCH_CHUNK_SIZE, indexes.size())));
+        }
+        return chunks;
+    }
 
 }
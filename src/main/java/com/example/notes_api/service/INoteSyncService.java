@@ -0,0 +1,133 @@
+package com.example.notes_api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.notes_api.dto.DeletedNoteResponse;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSyncResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.exception.SyncExpiredException;
+import com.example.notes_api.model.NoteTombstone;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+import com.example.notes_api.service.NoteCursor.SyncPosition;
+
+/*
+    Sincronización incremental para clientes que guardan una copia local de las notas.
+
+    Cada borrado deja un tombstone (nota borrada + fecha) en la misma transacción que el DELETE:
+    el listener es síncrono, así que si la transacción se revierte el tombstone también.
+    Los tombstones se purgan pasado notes.sync.tombstone-retention; un cliente cuya última
+    sincronización sea anterior recibe 410 y debe recargar todo.
+
+    Las notas modificadas y los borrados se paginan por separado con keyset sobre
+    (updatedAt, id) y (deletedAt, noteId); el cursor guarda la posición de ambas listas.
+
+    updatedAt y deletedAt se fijan en la aplicación antes del commit: una transacción que confirma
+    tarde deja filas con una fecha anterior a otras ya visibles. Si el cliente siguiera desde la
+    fecha más alta recibida, esas filas no le llegarían nunca. Por eso cada sincronización solo
+    entrega hasta una marca fija, ahora - notes.sync.safety-lag, con safety-lag mayor que la
+    transacción de escritura más larga: todo lo fechado antes de la marca ya está confirmado.
+    La marca va en el cursor y, en la última página, como syncToken, que es el modifiedSince de
+    la siguiente sincronización. Los cambios de los últimos safety-lag llegan en la siguiente.
+    Se eligió frente a una secuencia por orden de commit porque no necesita otra columna ni
+    serializar las escrituras; el precio es ese retraso.
+*/
+@Service
+public class INoteSyncService implements NoteSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(INoteSyncService.class);
+
+    private final NoteRepository noteRepository;
+
+    private final NoteTombstoneRepository tombstoneRepository;
+
+    private final Duration tombstoneRetention;
+
+    private final Duration safetyLag;
+
+    public INoteSyncService(NoteRepository noteRepository, NoteTombstoneRepository tombstoneRepository,
+                            @Value("${notes.sync.tombstone-retention:30d}") Duration tombstoneRetention,
+                            @Value("${notes.sync.safety-lag:30s}") Duration safetyLag) {
+        this.noteRepository = noteRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetention = tombstoneRetention;
+        this.safetyLag = safetyLag;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NoteSyncResponse getChangesSince(LocalDateTime modifiedSince, String cursor, int limit) {
+        SyncPosition position;
+        if (cursor == null || cursor.isBlank()) {
+            if (modifiedSince.isBefore(LocalDateTime.now().minus(tombstoneRetention))) {
+                throw new SyncExpiredException("modifiedSince is older than the tombstone retention (" + tombstoneRetention
+                                               + "), a full reload is required");
+            }
+            // Nunca por debajo de modifiedSince: repetir un syncToken reciente no hace retroceder la marca
+            LocalDateTime until = LocalDateTime.now().minus(safetyLag);
+            position = new SyncPosition(modifiedSince, 0L, modifiedSince, 0L, until.isAfter(modifiedSince) ? until : modifiedSince);
+        } else {
+            position = NoteCursor.decodeSync(cursor);
+        }
+        int size = Math.max(1, Math.min(limit, INoteService.MAX_PAGE_SIZE));
+
+        // Se pide una fila de más en cada lista para saber si quedan cambios sin hacer otra consulta
+        List<NoteResponse> notes = noteRepository.findResponsesModifiedAfter(position.updatedAt(), position.noteId(), position.until(),
+                                                                             Limit.of(size + 1));
+        List<NoteTombstone> tombstones = tombstoneRepository.findDeletedAfter(position.deletedAt(), position.deletedId(), position.until(),
+                                                                              Limit.of(size + 1));
+        boolean hasMore = notes.size() > size || tombstones.size() > size;
+        notes = notes.subList(0, Math.min(size, notes.size()));
+        tombstones = tombstones.subList(0, Math.min(size, tombstones.size()));
+
+        String nextCursor = null;
+        if (hasMore) {
+            NoteResponse lastNote = notes.isEmpty() ? null : notes.get(notes.size() - 1);
+            NoteTombstone lastTombstone = tombstones.isEmpty() ? null : tombstones.get(tombstones.size() - 1);
+            nextCursor = NoteCursor.encodeSync(new SyncPosition(
+                    lastNote == null ? position.updatedAt() : lastNote.getUpdatedAt(),
+                    lastNote == null ? position.noteId() : lastNote.getId(),
+                    lastTombstone == null ? position.deletedAt() : lastTombstone.getDeletedAt(),
+                    lastTombstone == null ? position.deletedId() : lastTombstone.getNoteId(),
+                    position.until()));
+        }
+        List<DeletedNoteResponse> deleted = tombstones.stream()
+                                                      .map(t -> new DeletedNoteResponse(t.getNoteId(), t.getDeletedAt()))
+                                                      .toList();
+        return new NoteSyncResponse(notes, deleted, nextCursor, nextCursor == null ? position.until() : null);
+    }
+
+    // Síncrono: se ejecuta dentro de la transacción del borrado (deleteById o cada bloque de deleteBatch)
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        if (event.type() == NoteChangedEvent.Type.DELETED) {
+            tombstoneRepository.save(new NoteTombstone(event.id(), LocalDateTime.now()));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notes.sync.purge-interval:1h}", initialDelayString = "${notes.sync.purge-interval:1h}")
+    public int purgeTombstones() {
+        // Los de todos los dueños: la transacción (y la sesión de Hibernate) se abre ya dentro de callAs
+        int purged = OwnerContext.callAs(OwnerContext.ALL_OWNERS,
+                                         () -> tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention)));
+        if (purged > 0) {
+            log.info("Purged {} note tombstones older than {}", purged, tombstoneRetention);
+        }
+        return purged;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.notes_api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.example.notes_api.exception.InvalidCursorException;
+
+/*
+    Codifica y decodifica el cursor de paginación.
+    El cursor guarda el último id entregado; el cliente no debe interpretarlo.
+    El de la sincronización incremental guarda la última posición (fecha, id) de cada lista
+    y la marca hasta la que llega esa sincronización.
+*/
+final class NoteCursor {
+
+    private static final String PREFIX = "id:";
+
+    private static final String SYNC_PREFIX = "sync:";
+
+    // Posición keyset de la sincronización: última nota modificada y último borrado entregados, y su marca final
+    record SyncPosition(LocalDateTime updatedAt, long noteId, LocalDateTime deletedAt, long deletedId, LocalDateTime until) {
+    }
+
+    private NoteCursor() {
+    }
+
+    static String encode(Long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L; // Sin cursor -> primera página
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) { // Base64 inválido o número inválido
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static String encodeSync(SyncPosition position) {
+        String raw = SYNC_PREFIX + position.updatedAt() + "|" + position.noteId()
+                   + "|" + position.deletedAt() + "|" + position.deletedId() + "|" + position.until();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SyncPosition decodeSync(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.startsWith(SYNC_PREFIX) ? raw.substring(SYNC_PREFIX.length()).split("\\|") : new String[0];
+            if (parts.length != 5) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return new SyncPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]), LocalDateTime.parse(parts[4]));
+        } catch (IllegalArgumentException | DateTimeException ex) { // Base64, número o fecha inválidos
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+}
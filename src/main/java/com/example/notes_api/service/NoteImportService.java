@@ -0,0 +1,16 @@
+package com.example.notes_api.service;
+
+import java.io.InputStream;
+
+import com.example.notes_api.dto.NoteImportResponse;
+import com.example.notes_api.transfer.NoteTransferFormat;
+
+
+public interface NoteImportService {
+
+    // importId: el del cliente para poder reanudar (null = se genera uno)
+    NoteImportResponse importNotes(String importId, NoteTransferFormat format, InputStream body);
+
+    NoteImportResponse getImport(String importId);
+
+}
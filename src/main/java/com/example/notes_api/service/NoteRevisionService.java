@@ -0,0 +1,19 @@
+package com.example.notes_api.service;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteRevisionResponse;
+import com.example.notes_api.dto.NoteRevisionSummary;
+import com.example.notes_api.dto.PageResponse;
+
+
+public interface NoteRevisionService {
+
+    // Revisiones de la nota, de la más reciente a la más antigua
+    PageResponse<NoteRevisionSummary> getRevisions(Long noteId, String cursor, int limit);
+
+    NoteRevisionResponse getRevision(Long noteId, int revision);
+
+    // Vuelve a escribir en la nota el title y el content de la revisión (queda como una revisión nueva)
+    NoteResponse restore(Long noteId, int revision, Long expectedVersion);
+
+}
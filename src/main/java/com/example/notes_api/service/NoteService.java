@@ -1,21 +1,44 @@
 package com.example.notes_api.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.NoteBatchUpdateRequest;
 import com.example.notes_api.dto.NoteRequest;
 import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.search.TagMatch;
 
 
 public interface NoteService {
 
     NoteResponse create (NoteRequest note);
 
-    List<NoteResponse> getAll();
+    PageResponse<NoteResponse> getPage(String cursor, int limit);
+
+    PageResponse<NoteSummaryResponse> getSummaryPage(String cursor, int limit);
+
+    // Notas con todas (AND) o alguna (OR) de las etiquetas, en orden de id
+    PageResponse<NoteResponse> getPageByTags(List<String> tags, TagMatch match, String cursor, int limit);
+
+    void streamAll(Consumer<NoteResponse> consumer);
 
     NoteResponse getById(Long id);
 
-    NoteResponse update(Long id, NoteRequest note);
+    // expectedVersion: versión que el cliente envió en If-Match (null = sin condición)
+    NoteResponse update(Long id, NoteRequest note, Long expectedVersion);
+
+    void deleteById(Long id, Long expectedVersion);
+
+    PageResponse<NoteSearchHit> search(String query, String cursor, int limit);
+
+    BatchResponse createBatch(List<NoteRequest> notes);
+
+    BatchResponse updateBatch(List<NoteBatchUpdateRequest> notes);
 
-    void deleteById(Long id);
+    BatchResponse deleteBatch(List<Long> ids);
 
 }
@@ -0,0 +1,16 @@
+package com.example.notes_api.service;
+
+import java.time.LocalDateTime;
+
+import com.example.notes_api.dto.NoteSyncResponse;
+
+
+public interface NoteSyncService {
+
+    // Cambios (altas, modificaciones y borrados) desde modifiedSince; con cursor continúa la página anterior
+    NoteSyncResponse getChangesSince(LocalDateTime modifiedSince, String cursor, int limit);
+
+    // Borra los tombstones más antiguos que el periodo de retención
+    int purgeTombstones();
+
+}
@@ -0,0 +1,156 @@
+package com.example.notes_api.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Delta entre dos versiones de un texto, como lista de operaciones sobre el texto anterior:
+
+        =offset,length;     copia length caracteres del texto anterior desde offset
+        +length:texto       inserta texto (length caracteres)
+
+    diff recorta el prefijo y el sufijo comunes y, en la parte central, busca bloques de BLOCK
+    caracteres del texto anterior con un hash rodante (estilo rsync/xdelta): un cambio pequeño en
+    cualquier punto de una nota grande produce un delta del tamaño del cambio más unas pocas
+    operaciones de copia. Trozos movidos de sitio también se copian.
+*/
+final class TextDelta {
+
+    static final int BLOCK = 16;
+
+    private static final int BASE = 31;
+
+    private TextDelta() {
+    }
+
+    static String diff(String previous, String current) {
+        int prefix = commonPrefix(previous, current);
+        int suffix = commonSuffix(previous, current, prefix);
+        int previousEnd = previous.length() - suffix;
+        int currentEnd = current.length() - suffix;
+
+        StringBuilder delta = new StringBuilder();
+        copy(delta, 0, prefix);
+        if (previousEnd - prefix >= BLOCK && currentEnd - prefix >= BLOCK) {
+            diffMiddle(delta, previous, prefix, previousEnd, current, prefix, currentEnd);
+        } else {
+            insert(delta, current, prefix, currentEnd);
+        }
+        copy(delta, previousEnd, suffix);
+        return delta.toString();
+    }
+
+    static String apply(String previous, String delta) {
+        StringBuilder result = new StringBuilder(previous.length() + delta.length());
+        int i = 0;
+        while (i < delta.length()) {
+            char op = delta.charAt(i);
+            if (op == '=') {
+                int comma = delta.indexOf(',', i);
+                int end = delta.indexOf(';', comma);
+                int offset = Integer.parseInt(delta, i + 1, comma, 10);
+                int length = Integer.parseInt(delta, comma + 1, end, 10);
+                result.append(previous, offset, offset + length);
+                i = end + 1;
+            } else if (op == '+') {
+                int colon = delta.indexOf(':', i);
+                int length = Integer.parseInt(delta, i + 1, colon, 10);
+                result.append(delta, colon + 1, colon + 1 + length);
+                i = colon + 1 + length;
+            } else {
+                throw new IllegalArgumentException("Invalid delta operation '" + op + "' at " + i);
+            }
+        }
+        return result.toString();
+    }
+
+    /*
+        Indexa los bloques alineados del tramo anterior y recorre el actual con un hash rodante.
+        Cada coincidencia se extiende hacia delante y hacia atrás (sobre lo pendiente de insertar)
+        y se emite como copia; lo que no coincide se acumula como inserción.
+    */
+    private static void diffMiddle(StringBuilder delta, String previous, int previousStart, int previousEnd,
+                                   String current, int currentStart, int currentEnd) {
+        Map<Integer, Integer> blocks = new HashMap<>();
+        for (int offset = previousStart; offset + BLOCK <= previousEnd; offset += BLOCK) {
+            blocks.putIfAbsent(hash(previous, offset), offset);
+        }
+
+        int power = 1;
+        for (int k = 1; k < BLOCK; k++) {
+            power *= BASE;
+        }
+
+        int pending = currentStart;
+        int i = currentStart;
+        int hash = i + BLOCK <= currentEnd ? hash(current, i) : 0;
+        while (i + BLOCK <= currentEnd) {
+            Integer match = blocks.get(hash);
+            if (match != null && current.regionMatches(i, previous, match, BLOCK)) {
+                int from = match;
+                int start = i;
+                while (start > pending && from > previousStart && current.charAt(start - 1) == previous.charAt(from - 1)) {
+                    start--;
+                    from--;
+                }
+                int length = (i - start) + BLOCK;
+                while (start + length < currentEnd && from + length < previousEnd
+                       && current.charAt(start + length) == previous.charAt(from + length)) {
+                    length++;
+                }
+                insert(delta, current, pending, start);
+                copy(delta, from, length);
+                i = start + length;
+                pending = i;
+                if (i + BLOCK <= currentEnd) {
+                    hash = hash(current, i);
+                }
+                continue;
+            }
+            if (i + BLOCK < currentEnd) {
+                hash = (hash - current.charAt(i) * power) * BASE + current.charAt(i + BLOCK);
+            }
+            i++;
+        }
+        insert(delta, current, pending, currentEnd);
+    }
+
+    private static int hash(String text, int offset) {
+        int hash = 0;
+        for (int k = offset; k < offset + BLOCK; k++) {
+            hash = hash * BASE + text.charAt(k);
+        }
+        return hash;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int commonSuffix(String a, String b, int prefix) {
+        int max = Math.min(a.length(), b.length()) - prefix;
+        int i = 0;
+        while (i < max && a.charAt(a.length() - 1 - i) == b.charAt(b.length() - 1 - i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void copy(StringBuilder delta, int offset, int length) {
+        if (length > 0) {
+            delta.append('=').append(offset).append(',').append(length).append(';');
+        }
+    }
+
+    private static void insert(StringBuilder delta, String text, int start, int end) {
+        if (end > start) {
+            delta.append('+').append(end - start).append(':').append(text, start, end);
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.example.notes_api.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.example.notes_api.owner.OwnerContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/*
+    Calentamiento antes de aceptar tráfico (notes.warmup.*).
+
+    Spring Boot pasa la readiness a ACCEPTING_TRAFFIC justo después de los listeners de
+    ApplicationReadyEvent: mientras este se ejecuta, /actuator/health/readiness responde 503 y el
+    balanceador no envía peticiones a la instancia. Se aprovecha para lanzar por HTTP, contra el
+    propio servidor, las rutas más usadas de NoteController (listado, detalle, etiquetas, búsqueda
+    y la validación de POST/PUT). Así se cargan las clases, se abren las conexiones del pool y el
+    JIT compila esas rutas antes de la primera petición real.
+
+    No modifica datos: solo lecturas y escrituras inválidas, que responden 400 sin llegar a la BD.
+    Las peticiones llevan un token aleatorio de este arranque que las deja fuera del límite por
+    cliente y del control de admisión (la latencia en frío bajaría el límite adaptativo); el token
+    deja de valer al terminar el calentamiento.
+*/
+@Component
+public class StartupWarmup {
+
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String INVALID_NOTE = "{\"title\":\"\",\"content\":\"\"}";
+
+    private final Environment environment;
+
+    private final ObjectMapper objectMapper;
+
+    private final String token = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+
+    public StartupWarmup(Environment environment, ObjectMapper objectMapper) {
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+    }
+
+    // El último listener de ApplicationReadyEvent: los índices en memoria ya se han reconstruido
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!environment.getProperty("notes.warmup.enabled", Boolean.class, false)) {
+            return;
+        }
+        String port = environment.getProperty("local.server.port");
+        if (port == null || environment.getProperty("server.ssl.enabled", Boolean.class, false)) {
+            log.info("Warmup skipped: no plain HTTP server to call");
+            return;
+        }
+        String baseUrl = "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+        int iterations = environment.getProperty("notes.warmup.iterations", Integer.class, 300);
+        int threads = environment.getProperty("notes.warmup.threads", Integer.class, 4);
+        Duration timeout = environment.getProperty("notes.warmup.timeout", Duration.class, Duration.ofSeconds(60));
+        String owner = environment.getProperty("notes.warmup.owner", OwnerContext.DEFAULT_OWNER);
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        AtomicLong requests = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        HttpClient client = HttpClient.newBuilder()
+                                      .version(HttpClient.Version.HTTP_1_1)
+                                      .connectTimeout(Duration.ofSeconds(2))
+                                      .build();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        running = true;
+        try {
+            for (int t = 0; t < threads; t++) {
+                int rounds = iterations / threads + (t < iterations % threads ? 1 : 0);
+                pool.submit(() -> {
+                    Round round = new Round(client, baseUrl, owner, requests, failures);
+                    for (int i = 0; i < rounds && System.nanoTime() < deadline && !Thread.currentThread().isInterrupted(); i++) {
+                        round.run();
+                    }
+                });
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Warmup did not finish within {}; accepting traffic anyway", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            running = false;
+        }
+        log.info("Warmup sent {} requests ({} failed) in {} ms", requests.get(), failures.get(),
+                 TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public boolean isWarmupRequest(HttpServletRequest request) {
+        return running && token.equals(request.getHeader(TOKEN_HEADER));
+    }
+
+    // Interceptor que deja pasar sin más las peticiones del calentamiento
+    public HandlerInterceptor exempt(HandlerInterceptor delegate) {
+        return new AsyncHandlerInterceptor() {
+
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+                return isWarmupRequest(request) || delegate.preHandle(request, response, handler);
+            }
+
+            @Override
+            public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView)
+                    throws Exception {
+                if (!isWarmupRequest(request)) {
+                    delegate.postHandle(request, response, handler, modelAndView);
+                }
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler)
+                    throws Exception {
+                if (!isWarmupRequest(request) && delegate instanceof AsyncHandlerInterceptor async) {
+                    async.afterConcurrentHandlingStarted(request, response, handler);
+                }
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex)
+                    throws Exception {
+                if (!isWarmupRequest(request)) {
+                    delegate.afterCompletion(request, response, handler, ex);
+                }
+            }
+
+        };
+    }
+
+    // Una ronda: las rutas de lectura con el primer id del listado, y POST/PUT inválidos
+    private final class Round {
+
+        private final HttpClient client;
+
+        private final String baseUrl;
+
+        private final String owner;
+
+        private final AtomicLong requests;
+
+        private final AtomicLong failures;
+
+        Round(HttpClient client, String baseUrl, String owner, AtomicLong requests, AtomicLong failures) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.owner = owner;
+            this.requests = requests;
+            this.failures = failures;
+        }
+
+        void run() {
+            String page = send("GET", "/api/notes?limit=50", null);
+            long id = firstId(page);
+            send("GET", "/api/notes/" + id, null);
+            send("GET", "/api/notes?tags=warmup&mode=or", null);
+            send("GET", "/api/notes/search?q=warmup", null);
+            send("POST", "/api/notes", INVALID_NOTE);
+            send("PUT", "/api/notes/" + id, INVALID_NOTE);
+        }
+
+        private long firstId(String page) {
+            if (page == null) {
+                return 0; // 404: también es una ruta que calentar
+            }
+            JsonNode first = objectMapper.readTree(page).path("items").path(0);
+            return first.path("id").asLong(0);
+        }
+
+        // Devuelve el cuerpo de un 2xx; un 4xx es una respuesta esperada, un 5xx o un error de red cuenta como fallo
+        private String send(String method, String path, String json) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                                     .timeout(Duration.ofSeconds(10))
+                                                     .header(TOKEN_HEADER, token)
+                                                     .header(OwnerContext.HEADER, owner)
+                                                     .header("Accept", "application/json");
+            if (json != null) {
+                request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            requests.incrementAndGet();
+            try {
+                HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() >= 500) {
+                    failures.incrementAndGet();
+                }
+                return response.statusCode() / 100 == 2 ? response.body() : null;
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.notes_api.transfer;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+/*
+    Lectura y escritura de notas en NDJSON y CSV, registro a registro:
+    ni la exportación ni la importación tienen en memoria más de una nota a la vez.
+
+    La exportación escribe los campos de NoteResponse (CSV con cabecera, en el orden de @JsonPropertyOrder).
+    La importación solo usa title, content y tags; el resto de columnas o campos se ignora, así que un
+    fichero exportado se puede importar tal cual (en CSV las columnas se buscan por la cabecera y
+    las etiquetas van en una sola columna separadas por ';').
+*/
+@Component
+public class NoteTransferCodec {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final ObjectMapper objectMapper;
+
+    private final CsvMapper csvMapper = CsvMapper.builder().build();
+
+    private final CsvSchema exportSchema = csvMapper.schemaFor(NoteResponse.class).withHeader();
+
+    public NoteTransferCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Cerrar el SequenceWriter cierra también out
+    public SequenceWriter writer(NoteTransferFormat format, OutputStream out) {
+        return switch (format) {
+            case NDJSON -> objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+            case CSV -> csvMapper.writer(exportSchema).writeValues(out);
+        };
+    }
+
+    // El fichero puede venir comprimido con gzip (p. ej. una exportación con gzip=true): se detecta por su cabecera
+    public MappingIterator<NoteRequest> reader(NoteTransferFormat format, InputStream in) throws IOException {
+        InputStream input = decompressIfGzip(in);
+        return switch (format) {
+            case NDJSON -> objectMapper.readerFor(NoteRequest.class)
+                                       .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                                       .readValues(input);
+            case CSV -> csvMapper.readerFor(NoteRequest.class)
+                                 .with(CsvSchema.emptySchema().withHeader())
+                                 .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                                 .readValues(input);
+        };
+    }
+
+    private static InputStream decompressIfGzip(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int magic = buffered.read() | (buffered.read() << 8);
+        buffered.reset();
+        return magic == GZIP_MAGIC ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+
+}
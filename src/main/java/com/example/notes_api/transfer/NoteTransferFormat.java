@@ -0,0 +1,53 @@
+package com.example.notes_api.transfer;
+
+import org.springframework.http.MediaType;
+
+import com.example.notes_api.exception.InvalidTransferRequestException;
+
+// Formatos de exportación e importación masiva de notas
+public enum NoteTransferFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    NoteTransferFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // ?format=ndjson|csv en la exportación
+    public static NoteTransferFormat fromExtension(String extension) {
+        for (NoteTransferFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(extension)) {
+                return format;
+            }
+        }
+        throw new InvalidTransferRequestException("Unsupported format: " + extension);
+    }
+
+    // Content-Type de la importación (admite parámetros como charset)
+    public static NoteTransferFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (NoteTransferFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidTransferRequestException("Unsupported Content-Type: " + contentType);
+    }
+
+}
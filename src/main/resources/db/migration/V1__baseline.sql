@@ -0,0 +1,82 @@
+-- Esquema inicial (MySQL 8): el mismo que genera Hibernate a partir de las entidades.
+-- Solo se aplica con el perfil prod (spring.flyway.enabled=true). En una base creada antes
+-- con ddl-auto=update, baseline-on-migrate la marca como versión 1 sin ejecutar este script.
+--
+-- Cada cambio en las entidades necesita su propia migración V2__..., V3__... en esta carpeta:
+-- con ddl-auto=none Hibernate ya no toca el esquema.
+
+create table notes (
+    id bigint not null,
+    owner_id varchar(64) not null,
+    title varchar(100) not null,
+    content TEXT not null,
+    content_length integer,
+    content_preview varchar(200),
+    tags varchar(660),
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Secuencia de ids emulada con una tabla (allocationSize = 50 en Note)
+create table notes_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into notes_seq (next_val) values (1);
+
+create index idx_notes_owner_id on notes (owner_id, id);
+
+create index idx_notes_owner_updated_at_id on notes (owner_id, updated_at, id);
+
+create table note_tombstones (
+    note_id bigint not null,
+    owner_id varchar(64) not null,
+    deleted_at datetime(6) not null,
+    primary key (note_id)
+) engine=InnoDB;
+
+create index idx_note_tombstones_owner_deleted_at on note_tombstones (owner_id, deleted_at, note_id);
+
+create table note_revisions (
+    id bigint not null,
+    owner_id varchar(64) not null,
+    note_id bigint not null,
+    revision integer not null,
+    snapshot bit not null,
+    title varchar(100) not null,
+    data TEXT not null,
+    content_length integer not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_note_revisions_note_revision unique (note_id, revision)
+) engine=InnoDB;
+
+create table note_revisions_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into note_revisions_seq (next_val) values (1);
+
+create table note_imports (
+    id bigint not null,
+    owner_id varchar(64) not null,
+    import_key varchar(64) not null,
+    format enum ('CSV','NDJSON') not null,
+    status enum ('COMPLETED','FAILED','RUNNING') not null,
+    processed bigint not null,
+    imported bigint not null,
+    invalid bigint not null,
+    error varchar(500),
+    started_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id),
+    constraint uk_note_imports_owner_key unique (owner_id, import_key)
+) engine=InnoDB;
+
+create table note_imports_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into note_imports_seq (next_val) values (1);
@@ -0,0 +1,20 @@
+-- Respuestas guardadas por Idempotency-Key (notes.idempotency.store=database)
+
+create table note_idempotency_keys (
+    id bigint not null,
+    owner_id varchar(64) not null,
+    idempotency_key varchar(64) not null,
+    fingerprint varchar(44) not null,
+    response TEXT not null,
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_note_idempotency_keys_owner_key unique (owner_id, idempotency_key)
+) engine=InnoDB;
+
+create table note_idempotency_keys_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into note_idempotency_keys_seq (next_val) values (1);
+
+create index idx_note_idempotency_keys_created_at on note_idempotency_keys (created_at);
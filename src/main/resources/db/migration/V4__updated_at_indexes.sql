@@ -0,0 +1,6 @@
+-- Consultas de todos los dueños por fecha: el refresco periódico de NoteTagIndex, la puesta al día
+-- de un NoteSearchIndex guardado en disco y la purga de tombstones
+
+create index idx_notes_updated_at on notes (updated_at);
+
+create index idx_note_tombstones_deleted_at on note_tombstones (deleted_at);
@@ -0,0 +1,17 @@
+-- Particionado opcional de las tablas de notas por hash del dueño (MySQL 8).
+-- No lo aplica Hibernate: se ejecuta a mano, una vez, sobre una base existente.
+--
+-- Todas las consultas de la aplicación llevan "owner_id = ?", así que MySQL solo abre
+-- la partición del dueño (partition pruning) y los índices de cada partición son más pequeños.
+--
+-- MySQL exige que la columna de partición forme parte de todas las claves únicas:
+-- la clave primaria pasa de (id) a (id, owner_id). id sigue siendo único (sale de notes_seq).
+
+ALTER TABLE notes DROP PRIMARY KEY, ADD PRIMARY KEY (id, owner_id);
+ALTER TABLE notes PARTITION BY KEY (owner_id) PARTITIONS 16;
+
+ALTER TABLE note_tombstones DROP PRIMARY KEY, ADD PRIMARY KEY (note_id, owner_id);
+ALTER TABLE note_tombstones PARTITION BY KEY (owner_id) PARTITIONS 16;
+
+-- Para comprobar que una consulta usa una sola partición:
+-- EXPLAIN SELECT id, title FROM notes WHERE owner_id = 'alice' AND id > 0 ORDER BY id LIMIT 51;
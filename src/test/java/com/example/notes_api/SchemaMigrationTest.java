@@ -0,0 +1,52 @@
+package com.example.notes_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.service.NoteService;
+
+// Las migraciones de Flyway crean el esquema que esperan las entidades (Hibernate solo lo valida, como en prod)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:notes_migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    /*
+        El script es de MySQL (secuencias emuladas con tablas): se valida con el dialecto de MySQL sobre
+        H2 en modo MySQL. Sin fijar hibernate.dialect (HHH90000025): Hibernate lo elige por la base que se
+        le declara, sin leer los metadatos JDBC, que dirían H2
+    */
+    "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+    "spring.jpa.properties.jakarta.persistence.database-product-name=MySQL",
+    "spring.jpa.properties.jakarta.persistence.database-major-version=8"
+})
+class SchemaMigrationTest {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void shouldCreateSchemaMatchingEntities() {
+
+        NoteResponse created = noteService.create(new NoteRequest("Migrated", "Content", List.of("prod")));
+
+        NoteResponse found = noteService.getById(created.getId());
+        assertEquals("Migrated", found.getTitle());
+        assertEquals(List.of("prod"), found.getTags());
+
+        // Las migraciones Java (beans) también se aplican
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.example.notes_api.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/*
+    Como ReadReplicaRoutingTest, pero con la caché activa: la réplica conserva las filas
+    que el primario ya borró o modificó (retraso de replicación que no se recupera).
+    Sin cookie de read-your-writes, lo que se cachea tras un fallo debe venir del primario.
+*/
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cache_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.cache.type=caffeine",
+    "notes.read-replicas.enabled=true",
+    "notes.read-replicas.urls=jdbc:h2:mem:cache_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "notes.read-replicas.sticky-window=5s"
+})
+@AutoConfigureMockMvc
+public class ReadReplicaCacheTest {
+
+    private static final String INSERT = "insert into notes (id, owner_id, title, content, tags, created_at, updated_at, version) values (?, 'default', ?, 'x', '', now(), now(), 0)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:cache_replica;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+
+        replica.execute("DROP ALL OBJECTS");
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        schema.forEach(replica::execute);
+    }
+
+    @Test
+    void shouldNotCacheANoteTheReplicaStillHasAfterDelete() throws Exception {
+        // Nota ya replicada
+        primary.update(INSERT, 3000, "Replicated");
+        replica.update(INSERT, 3000, "Replicated");
+
+        mockMvc.perform(delete("/api/notes/3000"))
+            .andExpect(status().isOk());
+
+        // Otro cliente, sin cookie: el fallo de caché se carga del primario y la réplica no llega a leerse
+        mockMvc.perform(get("/api/notes/3000"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/notes/3000"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldCacheTheCommittedVersionAfterABatchEvict() throws Exception {
+        primary.update(INSERT, 3001, "Old title");
+        replica.update(INSERT, 3001, "Old title");
+        primary.update(INSERT, 3002, "Other");
+        replica.update(INSERT, 3002, "Other");
+
+        mockMvc.perform(get("/api/notes/3001"))
+            .andExpect(jsonPath("$.title").value("Old title"));
+
+        // El batch vacía la caché entera; la réplica sigue con el título anterior
+        mockMvc.perform(put("/api/notes/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":3001,\"title\":\"New title\",\"content\":\"x\"}]"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes/3001"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("New title"));
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.example.notes_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import jakarta.servlet.http.Cookie;
+
+/*
+    Dos H2 en memoria: "primary" (esquema creado por Hibernate) y "replica".
+    No hay replicación real, así que cada base tiene sus propias filas y se puede
+    comprobar desde cuál se leyó cada respuesta.
+*/
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "spring.cache.type=none",
+    "notes.read-replicas.enabled=true",
+    "notes.read-replicas.urls=jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+    "notes.read-replicas.sticky-window=5s"
+})
+@AutoConfigureMockMvc
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1"));
+
+        replica.execute("DROP ALL OBJECTS");
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        schema.forEach(replica::execute);
+    }
+
+    @Test
+    void shouldReadFromReplicaAndWriteToPrimary() throws Exception {
+        replica.update("insert into notes (id, owner_id, title, content, created_at, updated_at, version) values (1000, 'default', 'From replica', 'x', now(), now(), 0)");
+
+        mockMvc.perform(get("/api/notes/1000"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("From replica"));
+
+        mockMvc.perform(post("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Written\",\"content\":\"Content\"}"))
+            .andExpect(status().isOk());
+
+        assertEquals(1, primary.queryForObject("select count(*) from notes where title = 'Written'", Integer.class));
+        assertEquals(0, replica.queryForObject("select count(*) from notes where title = 'Written'", Integer.class));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWithinStickyWindowAfterWrite() throws Exception {
+        MvcResult write = mockMvc.perform(post("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Fresh\",\"content\":\"Content\"}"))
+            .andExpect(status().isOk())
+            .andReturn();
+        Cookie sticky = write.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        Long id = primary.queryForObject("select max(id) from notes where title = 'Fresh'", Long.class);
+
+        mockMvc.perform(get("/api/notes/" + id))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/notes/" + id).cookie(sticky))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Fresh"));
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.example.notes_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.notes_api.config.ReplicaDataSource.Strategy;
+
+public class ReplicaDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+
+    private final DataSource first = mock(DataSource.class);
+
+    private final DataSource second = mock(DataSource.class);
+
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private final Connection firstConnection = mock(Connection.class);
+
+    private final Connection secondConnection = mock(Connection.class);
+
+    @Test
+    void shouldAlternateReplicasWithRoundRobin() throws SQLException {
+        stubConnections();
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, List.of(first, second), Strategy.ROUND_ROBIN, Duration.ofSeconds(30));
+
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void shouldSkipFailedReplicaAndFallBackToPrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenThrow(new SQLException("Replica down"));
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, List.of(first), Strategy.ROUND_ROBIN, Duration.ofSeconds(30));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        // Durante el cooldown la réplica caída no se vuelve a intentar
+        verify(first, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldUsePrimaryWhenStickyToPrimary() throws SQLException {
+        stubConnections();
+        ReplicaDataSource dataSource = new ReplicaDataSource(primary, List.of(first, second), Strategy.ROUND_ROBIN, Duration.ofSeconds(30));
+
+        ReplicaDataSource.stickToPrimary();
+        try {
+            assertSame(primaryConnection, dataSource.getConnection());
+        } finally {
+            ReplicaDataSource.clearStickiness();
+        }
+        assertSame(firstConnection, dataSource.getConnection());
+    }
+
+    private void stubConnections() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+    }
+
+}
@@ -1,39 +1,83 @@
 package com.example.notes_api.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.BatchResponse;
 import com.example.notes_api.dto.NoteRequest;
 import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteRevisionResponse;
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.exception.InvalidCursorException;
 import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteRevisionNotFoundException;
+import com.example.notes_api.exception.NoteVersionMismatchException;
+import com.example.notes_api.exception.SyncExpiredException;
+import com.example.notes_api.idempotency.IdempotencyKeys;
+import com.example.notes_api.idempotency.InMemoryIdempotencyStore;
+import com.example.notes_api.service.NoteRevisionService;
 import com.example.notes_api.service.NoteService;
+import com.example.notes_api.service.NoteSyncService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 @WebMvcTest(NoteController.class) //Spring Boot Test for NoteController -> Spring levanta la capa web
+@Import({ IdempotencyKeys.class, InMemoryIdempotencyStore.class, SimpleMeterRegistry.class }) //Claves de idempotencia reales, en memoria
 public class NoteControllerTest {
 
+    private static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
     @Autowired
     private MockMvc mockMvc; //Objeto que simula las peticiones HTTP a la capa web
 
     @MockitoBean
     private NoteService noteService; //Simula la capa de servicio
 
+    @MockitoBean
+    private NoteSyncService noteSyncService;
+
+    @MockitoBean
+    private NoteRevisionService noteRevisionService;
+
     @Test
     void shouldReturnNoteWhenIdExists() throws Exception {
 
@@ -43,7 +87,8 @@ public class NoteControllerTest {
             "Test title",
             "Test content",
             null,
-            null
+            null,
+            1L
         );
 
         //Mockear el comportamiento del servicio    
@@ -90,7 +135,8 @@ public class NoteControllerTest {
             "My first note",
             "This is a valid note",
             null,
-            null
+            null,
+            1L
         );
 
         //Mockear el comportamiento del servicio    
@@ -108,6 +154,43 @@ public class NoteControllerTest {
 
     }
 
+    @Test
+    void shouldReplayCreateWithTheSameIdempotencyKey() throws Exception {
+
+        String requestBody = """
+        {
+          "title": "Retried note",
+          "content": "Sent again after a timeout"
+        }
+        """;
+
+        when(noteService.create(any(NoteRequest.class)))
+                        .thenReturn(new NoteResponse(7L, "Retried note", "Sent again after a timeout", null, null, 0L));
+
+        mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "retry-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(IdempotencyKeys.REPLAYED_HEADER));
+
+        //El reintento recibe la misma nota sin volver a llamar al servicio
+        mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "retry-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+            .andExpect(status().isOk())
+            .andExpect(header().string(IdempotencyKeys.REPLAYED_HEADER, "true"))
+            .andExpect(jsonPath("$.id").value(7L));
+
+        verify(noteService, times(1)).create(any(NoteRequest.class));
+
+        //Misma clave, otra petición
+        mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "retry-1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Other\",\"content\":\"x\"}"))
+            .andExpect(status().isUnprocessableContent());
+
+    }
+
     @Test
     void shouldReturn400WhenRequestIsInvalid() throws Exception {
         //Arrange -> Preparar el escenario de la prueba
@@ -149,11 +232,12 @@ public class NoteControllerTest {
             "Updated title",
             "Updated content",
             null,
-            null
+            null,
+            1L
         );
 
         //Mockear el comportamiento del servicio    
-        when(noteService.update(eq(1L), any(NoteRequest.class))) //Cuando el servicio reciba cualquier NoteRequest, eq 1L -> id específico, si usamos any no funciona
+        when(noteService.update(eq(1L), any(NoteRequest.class), isNull())) //Cuando el servicio reciba cualquier NoteRequest, eq 1L -> id específico, si usamos any no funciona
                         .thenReturn(response); //Simula que el servicio devuelve la nota actualizada
 
         //act & assert -> Ejecutar la acción y verificar el resultado
@@ -204,7 +288,7 @@ public class NoteControllerTest {
         """;
 
         //Mockear el comportamiento del servicio    
-        when(noteService.update(eq(99L), any(NoteRequest.class))) //Cuando el servicio reciba cualquier NoteRequest, eq 99L -> id específico, si usamos any no funciona
+        when(noteService.update(eq(99L), any(NoteRequest.class), isNull())) //Cuando el servicio reciba cualquier NoteRequest, eq 99L -> id específico, si usamos any no funciona
                         .thenThrow(new NoteNotFoundException("Note not found")); //Simula que el servicio lanza una excepción cuando la nota no existe
 
         //act & assert -> Ejecutar la acción y verificar el resultado
@@ -225,13 +309,13 @@ public class NoteControllerTest {
     @Test
     void shouldDeleteNoteWhenIdExists() throws Exception {
         //Arrange -> Preparar el escenario de la prueba
-        doNothing().when(noteService).deleteById(1L); //doNothing -> Simula que el servicio no hace nada al eliminar la nota (void)
+        doNothing().when(noteService).deleteById(1L, null); //doNothing -> Simula que el servicio no hace nada al eliminar la nota (void)
 
         //act & assert -> Ejecutar la acción y verificar el resultado
         mockMvc.perform(delete("/api/notes/{id}", 1L))
             .andExpect(status().isOk()); //Verifica que el estatus de la respuesta sea 204 No Content
 
-        verify(noteService).deleteById(1L);
+        verify(noteService).deleteById(1L, null);
     }
 
     @Test
@@ -239,7 +323,7 @@ public class NoteControllerTest {
 
         // Arrange
         doThrow(new NoteNotFoundException("Note not found"))
-            .when(noteService).deleteById(99L);
+            .when(noteService).deleteById(99L, null);
 
         // Act + Assert
         mockMvc.perform(delete("/api/notes/{id}", 99L))
@@ -248,15 +332,265 @@ public class NoteControllerTest {
             
     }
 
+    @Test
+    void shouldReturnPageOfNotesWithNextCursor() throws Exception {
 
+        // Arrange
+        NoteResponse response = new NoteResponse(1L, "Test title", "Test content", null, null, 1L);
 
+        when(noteService.getPage(null, 1))
+                        .thenReturn(new PageResponse<>(List.of(response), "next-token"));
 
+        // Act + Assert
+        mockMvc.perform(get("/api/notes").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].id").value(1L))
+            .andExpect(jsonPath("$.nextCursor").value("next-token"));
 
+    }
 
+    @Test
+    void shouldReturnSummaryPageWithoutContent() throws Exception {
+
+        NoteSummaryResponse summary = new NoteSummaryResponse(1L, "Test title", "Test content", 12, null, null);
+
+        when(noteService.getSummaryPage(null, 50))
+                        .thenReturn(new PageResponse<>(List.of(summary), null));
+
+        mockMvc.perform(get("/api/notes").param("summary", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].title").value("Test title"))
+            .andExpect(jsonPath("$.items[0].preview").value("Test content"))
+            .andExpect(jsonPath("$.items[0].contentLength").value(12))
+            .andExpect(jsonPath("$.items[0].content").doesNotExist());
+
+    }
+
+    @Test
+    void shouldReturn400WhenCursorIsInvalid() throws Exception {
 
+        when(noteService.getPage("bad", 50))
+                        .thenThrow(new InvalidCursorException("Invalid cursor: bad"));
 
+        mockMvc.perform(get("/api/notes").param("cursor", "bad"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Invalid cursor: bad"));
 
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamNotesAsNdjson() throws Exception {
+
+        // Arrange -> el servicio entrega dos notas al consumidor
+        doAnswer(invocation -> {
+            Consumer<NoteResponse> consumer = invocation.getArgument(0);
+            consumer.accept(new NoteResponse(1L, "One", "First", null, null, 1L));
+            consumer.accept(new NoteResponse(2L, "Two", "Second", null, null, 1L));
+            return null;
+        }).when(noteService).streamAll(any(Consumer.class));
+
+        // Act -> la respuesta se escribe de forma asíncrona
+        MvcResult result = mockMvc.perform(get("/api/notes").accept(NoteController.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Assert -> una nota por línea
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(NoteController.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"One\""));
+        assertTrue(lines[1].contains("\"title\":\"Two\""));
+
+    }
+
+    @Test
+    void shouldReturnPerItemResultsForBatchCreate() throws Exception {
 
+        // Arrange
+        String requestBody = """
+        [
+          { "title": "Valid", "content": "Valid content" },
+          { "title": "", "content": "Content" }
+        ]
+        """;
+
+        BatchResponse response = new BatchResponse(List.of(
+            BatchItemResult.success(0, 1L, BatchItemResult.Status.CREATED),
+            BatchItemResult.invalid(1, List.of("Title must not be blank"))
+        ));
+
+        when(noteService.createBatch(anyList())).thenReturn(response);
+
+        // Act + Assert
+        mockMvc.perform(post("/api/notes/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+            .andExpect(jsonPath("$.items[1].errors[0]").value("Title must not be blank"));
+
+    }
+
+    @Test
+    void shouldReturnETagAndRespond304WhenVersionIsUnchanged() throws Exception {
+
+        // Arrange -> la nota está en la versión 3
+        NoteResponse response = new NoteResponse(1L, "Test title", "Test content", null, null, 3L);
+
+        when(noteService.getById(1L)).thenReturn(response);
 
+        // Act + Assert -> primera lectura trae el ETag
+        mockMvc.perform(get("/api/notes/{id}", 1L))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"3\""));
+
+        // Con If-None-Match igual al ETag no se reenvía el cuerpo
+        mockMvc.perform(get("/api/notes/{id}", 1L).header("If-None-Match", "\"3\""))
+            .andExpect(status().isNotModified());
+
+    }
+
+    @Test
+    void shouldReturn412WhenIfMatchDoesNotMatchOnUpdate() throws Exception {
+
+        String requestBody = """
+        {
+          "title": "Updated title",
+          "content": "Updated content"
+        }
+        """;
+
+        when(noteService.update(eq(1L), any(NoteRequest.class), eq(2L)))
+                        .thenThrow(new NoteVersionMismatchException("Note 1 does not match version 2"));
+
+        mockMvc.perform(put("/api/notes/{id}", 1L)
+            .header("If-Match", "\"2\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(requestBody))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("Note 1 does not match version 2"));
+
+    }
+
+    @Test
+    void shouldPassIfMatchVersionOnDelete() throws Exception {
+
+        doNothing().when(noteService).deleteById(1L, 5L);
+
+        mockMvc.perform(delete("/api/notes/{id}", 1L).header("If-Match", "W/\"5\""))
+            .andExpect(status().isOk());
+
+        verify(noteService).deleteById(1L, 5L);
+
+    }
+
+    @Test
+    void shouldReturnRankedSearchHits() throws Exception {
+
+        NoteSearchHit hit = new NoteSearchHit(2L, "Milk recipes", 1.5f, "<em>Milk</em> recipes", null);
+
+        when(noteService.search("milk", null, 20))
+                        .thenReturn(new PageResponse<>(List.of(hit), null));
+
+        mockMvc.perform(get("/api/notes/search").param("q", "milk"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(2L))
+            .andExpect(jsonPath("$.items[0].titleHighlight").value("<em>Milk</em> recipes"))
+            .andExpect(jsonPath("$.items[0].contentHighlight").doesNotExist());
+
+    }
+
+    @Test
+    void shouldReturn410WhenSyncIsOlderThanTombstoneRetention() throws Exception {
+
+        when(noteSyncService.getChangesSince(any(), isNull(), anyInt()))
+        .thenThrow(new SyncExpiredException("full reload is required"));
+
+        mockMvc.perform(get("/api/notes").param("modifiedSince", "2020-01-01T00:00:00"))
+            .andExpect(status().isGone())
+            .andExpect(jsonPath("$.message").value("full reload is required"));
+
+    }
+
+    @Test
+    void shouldAcceptAndReturnCbor() throws Exception {
+
+        CBORMapper cbor = CBORMapper.builder().build();
+        NoteResponse response = new NoteResponse(1L, "Binary", "CBOR body",
+                        LocalDateTime.of(2024, 1, 2, 3, 4, 5), null, 1L);
+
+        when(noteService.create(any(NoteRequest.class))).thenReturn(response);
+
+        MvcResult result = mockMvc.perform(post("/api/notes")
+            .contentType(MediaType.APPLICATION_CBOR)
+            .accept(MediaType.APPLICATION_CBOR)
+            .content(cbor.writeValueAsBytes(new NoteRequest("Binary", "CBOR body"))))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+
+        NoteResponse body = cbor.readValue(result.getResponse().getContentAsByteArray(), NoteResponse.class);
+        assertEquals("CBOR body", body.getContent());
+        assertEquals(response.getCreatedAt(), body.getCreatedAt());
+
+    }
+
+    @Test
+    void shouldReturnSmilePageAndSmileErrors() throws Exception {
+
+        SmileMapper smile = SmileMapper.builder().build();
+        when(noteService.getPage(isNull(), eq(50)))
+                        .thenReturn(new PageResponse<>(List.of(new NoteResponse(1L, "t", "c", null, null, 0L)), null));
+        when(noteService.getById(9L)).thenThrow(new NoteNotFoundException("Note not found"));
+
+        MvcResult result = mockMvc.perform(get("/api/notes").accept(APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andReturn();
+        assertEquals(1L, smile.readTree(result.getResponse().getContentAsByteArray()).at("/items/0/id").asLong());
+
+        result = mockMvc.perform(get("/api/notes/{id}", 9L).accept(APPLICATION_SMILE))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(APPLICATION_SMILE))
+            .andReturn();
+        assertEquals("Note not found", smile.readTree(result.getResponse().getContentAsByteArray()).get("message").asString());
+
+    }
+
+    @Test
+    void shouldReturnRevisionAndRestoreWithIfMatch() throws Exception {
+
+        when(noteRevisionService.getRevision(1L, 2))
+                        .thenReturn(new NoteRevisionResponse(1L, 2, "Old title", "Old content", null));
+        when(noteRevisionService.getRevision(1L, 9))
+                        .thenThrow(new NoteRevisionNotFoundException("Revision 9 not found for note 1"));
+        when(noteRevisionService.restore(1L, 2, 4L))
+                        .thenReturn(new NoteResponse(1L, "Old title", "Old content", null, null, 5L));
+
+        mockMvc.perform(get("/api/notes/{id}/revisions/{revision}", 1L, 2))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content").value("Old content"));
+
+        mockMvc.perform(get("/api/notes/{id}/revisions/{revision}", 1L, 9))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").value("Revision 9 not found for note 1"));
+
+        mockMvc.perform(post("/api/notes/{id}/revisions/{revision}/restore", 1L, 2).header("If-Match", "\"4\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"5\""))
+            .andExpect(jsonPath("$.version").value(5L));
+
+    }
 
 }
@@ -0,0 +1,142 @@
+package com.example.notes_api.event;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.notes_api.dto.NoteChangeResponse;
+import com.example.notes_api.dto.NoteResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NoteChangeBrokerTest {
+
+    private final NoteChangeBroker broker = new NoteChangeBroker(new SimpleMeterRegistry(), 3, 2, 2,
+                                                                 Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        broker.close();
+    }
+
+    @Test
+    void shouldDeliverLiveChangesInOrder() {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        broker.subscribe(null, emitter);
+
+        broker.onNoteChanged(NoteChangedEvent.created(note(1L)));
+        broker.onNoteChanged(NoteChangedEvent.deleted(1L));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.changes.size() == 3);
+        assertEquals(List.of("ready:0", "created:1", "deleted:2"), emitter.describe());
+    }
+
+    @Test
+    void shouldResumeFromSequenceOrAskForResetWhenTooOld() {
+        for (long id = 1; id <= 5; id++) {
+            broker.onNoteChanged(NoteChangedEvent.created(note(id)));
+        }
+
+        // El buffer guarda los 3 últimos cambios (3, 4 y 5)
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        broker.subscribe(broker.epoch + "-3", resumed);
+        RecordingEmitter tooOld = new RecordingEmitter(null);
+        broker.subscribe(broker.epoch + "-1", tooOld);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> resumed.changes.size() == 3 && tooOld.changes.size() == 1);
+        assertEquals(List.of("created:4", "created:5", "ready:5"), resumed.describe());
+        assertEquals(List.of("reset:5"), tooOld.describe());
+    }
+
+    @Test
+    void shouldAskForResetWhenResumingFromAnotherBoot() {
+        // Antes del reinicio el cliente vio el 2; después, con la secuencia desde 0, ya van 3
+        NoteChangeBroker previousBoot = new NoteChangeBroker(new SimpleMeterRegistry(), 3, 2, 2,
+                                                             Duration.ofMinutes(1), Duration.ofMinutes(1));
+        previousBoot.close();
+        for (long id = 1; id <= 3; id++) {
+            broker.onNoteChanged(NoteChangedEvent.created(note(id)));
+        }
+
+        RecordingEmitter otherEpoch = new RecordingEmitter(null);
+        broker.subscribe(previousBoot.epoch + "-2", otherEpoch);
+        RecordingEmitter bareSequence = new RecordingEmitter(null);
+        broker.subscribe("2", bareSequence);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> otherEpoch.changes.size() == 1 && bareSequence.changes.size() == 1);
+        assertEquals(List.of("reset:3"), otherEpoch.describe());
+        assertEquals(List.of("reset:3"), bareSequence.describe());
+        assertEquals(broker.epoch + "-3", otherEpoch.changes.get(0).getEventId());
+    }
+
+    @Test
+    void shouldEvictSubscriberThatDoesNotKeepUp() {
+        CountDownLatch blocked = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(blocked);
+        broker.subscribe(null, slow);
+
+        for (long id = 1; id <= 5; id++) {
+            broker.onNoteChanged(NoteChangedEvent.created(note(id)));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> slow.completed);
+        blocked.countDown();
+        assertTrue(slow.changes.size() < 5);
+    }
+
+    private static NoteResponse note(Long id) {
+        return new NoteResponse(id, "Title " + id, "Content", null, null, 0L);
+    }
+
+    // Registra lo enviado en lugar de escribirlo en una respuesta HTTP
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<NoteChangeResponse> changes = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch blockUntil;
+
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            builder.build().stream()
+                   .map(DataWithMediaType::getData)
+                   .filter(NoteChangeResponse.class::isInstance)
+                   .map(NoteChangeResponse.class::cast)
+                   .forEach(changes::add);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> describe() {
+            return changes.stream().map(change -> change.getType() + ":" + change.getSequence()).toList();
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.notes_api.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.notes_api.config.CacheConfig;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.service.NoteService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// De punta a punta sobre H2 con las claves en la BD (notes.idempotency.store=database)
+@SpringBootTest(properties = {"notes.idempotency.store=database", "notes.cache.warm-on-create=true"})
+@AutoConfigureMockMvc
+public class DatabaseIdempotencyStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldCreateTheNoteOnceAndReplayRetries() throws Exception {
+
+        long before = noteRepository.count();
+        String body = "{\"title\":\"Retried\",\"content\":\"Sent twice after a timeout\"}";
+
+        String created = mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "create-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(IdempotencyKeys.REPLAYED_HEADER))
+            .andReturn().getResponse().getContentAsString();
+        long id = jsonMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "create-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().string(IdempotencyKeys.REPLAYED_HEADER, "true"))
+            .andExpect(jsonPath("$.id").value(id))
+            .andExpect(jsonPath("$.content").value("Sent twice after a timeout"));
+
+        assertEquals(before + 1, noteRepository.count());
+
+        // La misma clave con otro cuerpo no es un reintento
+        mockMvc.perform(post("/api/notes").header(IdempotencyKeys.HEADER, "create-1")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Other\",\"content\":\"x\"}"))
+            .andExpect(status().isUnprocessableContent());
+
+    }
+
+    @Test
+    void shouldReplayUpdatesWithTheirETag() throws Exception {
+
+        long id = noteService.create(new NoteRequest("Original", "Content")).getId();
+        String body = "{\"title\":\"Updated\",\"content\":\"Content\"}";
+
+        mockMvc.perform(put("/api/notes/{id}", id).header(IdempotencyKeys.HEADER, "update-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"1\""));
+
+        // La repetición no vuelve a incrementar la versión
+        mockMvc.perform(put("/api/notes/{id}", id).header(IdempotencyKeys.HEADER, "update-1")
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"1\""))
+            .andExpect(header().string(IdempotencyKeys.REPLAYED_HEADER, "true"));
+
+        assertEquals(1L, noteService.getById(id).getVersion());
+
+    }
+
+    @Test
+    void shouldRollBackTheWriteWhenAnotherInstanceSavedTheKeyFirst() {
+
+        store.save("shared-1", "fingerprint", () -> noteService.create(new NoteRequest("First instance", "Content")));
+        long before = noteRepository.count();
+
+        // Lo que vería la segunda instancia: la nota y la clave van en la misma transacción
+        assertThrows(DataIntegrityViolationException.class,
+                     () -> store.save("shared-1", "fingerprint", () -> noteService.create(new NoteRequest("Second instance", "Content"))));
+
+        assertEquals(before, noteRepository.count());
+        assertEquals("First instance", store.find("shared-1").orElseThrow().response().getTitle());
+
+    }
+
+    @Test
+    void shouldNotCacheTheWriteThatWasRolledBack() {
+
+        long id = noteService.create(new NoteRequest("Original", "Content")).getId();
+        store.save("shared-2", "fingerprint", () -> noteService.update(id, new NoteRequest("First instance", "Content"), null));
+
+        // El @CachePut de la segunda se hace dentro de la transacción que se deshace: no llega a la caché
+        assertThrows(DataIntegrityViolationException.class,
+                     () -> store.save("shared-2", "fingerprint", () -> noteService.update(id, new NoteRequest("Second instance", "Content"), null)));
+
+        NoteResponse cached = cacheManager.getCache(CacheConfig.NOTES_CACHE).get(OwnerContext.key(id), NoteResponse.class);
+        assertEquals("First instance", cached.getTitle());
+        assertEquals(1L, cached.getVersion());
+        assertEquals("First instance", noteService.getById(id).getTitle());
+
+        // Tampoco una nota creada en una transacción deshecha
+        NoteResponse[] rolledBack = new NoteResponse[1];
+        assertThrows(DataIntegrityViolationException.class, () -> store.save("shared-2", "fingerprint", () -> {
+            rolledBack[0] = noteService.create(new NoteRequest("Never committed", "Content"));
+            return rolledBack[0];
+        }));
+        assertNull(cacheManager.getCache(CacheConfig.NOTES_CACHE).get(OwnerContext.key(rolledBack[0].getId())));
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.example.notes_api.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.exception.IdempotencyKeyInProgressException;
+import com.example.notes_api.exception.IdempotencyKeyReusedException;
+import com.example.notes_api.exception.InvalidIdempotencyKeyException;
+import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.owner.OwnerContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+public class IdempotencyKeysTest {
+
+    private static final String CREATE = "POST /api/notes";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final IdempotencyKeys idempotencyKeys = keys(Duration.ofSeconds(10));
+
+    private final AtomicInteger writes = new AtomicInteger();
+
+    @Test
+    void shouldReplayTheStoredResponseWithoutWritingAgain() {
+
+        IdempotencyKeys.Result first = idempotencyKeys.execute("key-1", CREATE, request("A"), create());
+        IdempotencyKeys.Result second = idempotencyKeys.execute("key-1", CREATE, request("A"), create());
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertSame(first.response(), second.response());
+        assertEquals(1, writes.get());
+        assertEquals(1, meterRegistry.counter("notes.idempotency.requests", "result", "replayed").count());
+
+        // Sin clave no se guarda ni se compara nada
+        idempotencyKeys.execute(null, CREATE, request("A"), create());
+        idempotencyKeys.execute(null, CREATE, request("A"), create());
+        assertEquals(3, writes.get());
+
+    }
+
+    @Test
+    void shouldRejectAKeyReusedForAnotherRequest() {
+
+        idempotencyKeys.execute("key-1", CREATE, request("A"), create());
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                     () -> idempotencyKeys.execute("key-1", CREATE, request("B"), create()));
+        assertThrows(IdempotencyKeyReusedException.class,
+                     () -> idempotencyKeys.execute("key-1", "PUT /api/notes/1 If-Match: null", request("A"), create()));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                     () -> idempotencyKeys.execute("not a valid key", CREATE, request("A"), create()));
+        assertEquals(1, writes.get());
+
+    }
+
+    @Test
+    void shouldKeepKeysOfEachOwnerApart() {
+
+        OwnerContext.runAs("alice", () -> idempotencyKeys.execute("key-1", CREATE, request("A"), create()));
+        IdempotencyKeys.Result bob = OwnerContext.callAs("bob", () -> idempotencyKeys.execute("key-1", CREATE, request("A"), create()));
+
+        assertFalse(bob.replayed());
+        assertEquals(2, writes.get());
+
+    }
+
+    @Test
+    void shouldNotStoreFailedWrites() {
+
+        assertThrows(NoteNotFoundException.class, () -> idempotencyKeys.execute("key-1", CREATE, request("A"), () -> {
+            writes.incrementAndGet();
+            throw new NoteNotFoundException("Note not found with id: 1");
+        }));
+
+        IdempotencyKeys.Result retry = idempotencyKeys.execute("key-1", CREATE, request("A"), create());
+
+        assertFalse(retry.replayed());
+        assertEquals(2, writes.get());
+
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<NoteResponse> slowCreate = () -> {
+            writing.countDown();
+            await(release);
+            return create().get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotencyKeys.Result> first = executor.submit(() -> idempotencyKeys.execute("key-1", CREATE, request("A"), slowCreate));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyKeys.Result> second = executor.submit(() -> idempotencyKeys.execute("key-1", CREATE, request("A"), slowCreate));
+            Future<IdempotencyKeys.Result> third = executor.submit(() -> idempotencyKeys.execute("key-1", CREATE, request("A"), slowCreate));
+
+            Thread.sleep(200); // Los duplicados ya esperan a la primera
+            release.countDown();
+
+            NoteResponse response = first.get(5, TimeUnit.SECONDS).response();
+            assertSame(response, second.get(5, TimeUnit.SECONDS).response());
+            assertSame(response, third.get(5, TimeUnit.SECONDS).response());
+            assertTrue(second.get().replayed());
+            assertEquals(1, writes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTheTimeout() throws Exception {
+
+        IdempotencyKeys impatient = keys(Duration.ofMillis(100));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<IdempotencyKeys.Result> first = executor.submit(() -> impatient.execute("key-1", CREATE, request("A"), () -> {
+                writing.countDown();
+                await(release);
+                return create().get();
+            }));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            assertThrows(IdempotencyKeyInProgressException.class,
+                         () -> impatient.execute("key-1", CREATE, request("A"), create()));
+
+            release.countDown();
+            assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(impatient.execute("key-1", CREATE, request("A"), create()).replayed());
+        } finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+    private IdempotencyKeys keys(Duration waitTimeout) {
+        return new IdempotencyKeys(new InMemoryIdempotencyStore(1000, Duration.ofHours(1)), JsonMapper.builder().build(),
+                                   meterRegistry, waitTimeout);
+    }
+
+    private Supplier<NoteResponse> create() {
+        return () -> {
+            long id = writes.incrementAndGet();
+            return new NoteResponse(id, "Title " + id, "Content", null, null, 0L);
+        };
+    }
+
+    private static NoteRequest request(String title) {
+        return new NoteRequest(title, "Content");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
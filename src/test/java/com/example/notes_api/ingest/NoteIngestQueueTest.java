@@ -0,0 +1,176 @@
+package com.example.notes_api.ingest;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.BatchItemResult.Status;
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.IngestStatusResponse;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.exception.IngestQueueFullException;
+import com.example.notes_api.service.NoteService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class NoteIngestQueueTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    void shouldPersistSubmittedNotes() throws Exception {
+        NoteService noteService = mock(NoteService.class);
+        when(noteService.createBatch(anyList())).thenAnswer(createdAnswer());
+
+        NoteIngestQueue ingestQueue = queue(noteService, 10);
+        IngestStatusResponse accepted = ingestQueue.submit(new NoteRequest("Title", "Content"));
+
+        assertEquals(IngestStatusResponse.Status.QUEUED, accepted.getStatus());
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+            ingestQueue.getStatus(accepted.getTicket()).getStatus() == IngestStatusResponse.Status.PERSISTED);
+        assertEquals(1L, ingestQueue.getStatus(accepted.getTicket()).getId());
+
+        ingestQueue.close();
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        NoteService noteService = mock(NoteService.class);
+        when(noteService.createBatch(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return createdAnswer().answer(invocation);
+        });
+
+        NoteIngestQueue ingestQueue = queue(noteService, 1);
+        ingestQueue.submit(new NoteRequest("First", "Content"));
+
+        assertThrows(IngestQueueFullException.class, () -> ingestQueue.submit(new NoteRequest("Second", "Content")));
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> ingestQueue.submit(new NoteRequest("Third", "Content")));
+        ingestQueue.close();
+    }
+
+    @Test
+    void shouldRecoverPendingNotesFromJournalAfterRestart() throws Exception {
+        NoteService unavailable = mock(NoteService.class);
+        when(unavailable.createBatch(anyList())).thenThrow(new IllegalStateException("Database down"));
+
+        NoteIngestQueue first = queue(unavailable, 10);
+        String ticket = first.submit(new NoteRequest("Title", "Content")).getTicket();
+        first.close();
+
+        NoteService available = mock(NoteService.class);
+        when(available.createBatch(anyList())).thenAnswer(createdAnswer());
+
+        NoteIngestQueue restarted = queue(available, 10);
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+            restarted.getStatus(ticket).getStatus() == IngestStatusResponse.Status.PERSISTED);
+        restarted.close();
+    }
+
+    @Test
+    void shouldRecoverTagsFromJournal() throws Exception {
+        // Una línea escrita antes de las etiquetas y una nota con etiquetas pendiente al parar
+        Files.writeString(tempDir.resolve("ingest.journal"),
+                          "{\"op\":\"add\",\"ticket\":\"old\",\"owner\":\"default\",\"title\":\"Old\",\"content\":\"Content\"}\n");
+        NoteService unavailable = mock(NoteService.class);
+        when(unavailable.createBatch(anyList())).thenThrow(new IllegalStateException("Database down"));
+
+        NoteIngestQueue first = queue(unavailable, 10);
+        String ticket = first.submit(new NoteRequest("Tagged", "Content", List.of("work", "urgent"))).getTicket();
+        first.close();
+
+        List<NoteRequest> written = new CopyOnWriteArrayList<>();
+        NoteService available = mock(NoteService.class);
+        when(available.createBatch(anyList())).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return createdAnswer().answer(invocation);
+        });
+
+        NoteIngestQueue restarted = queue(available, 10);
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+            restarted.getStatus(ticket).getStatus() == IngestStatusResponse.Status.PERSISTED);
+        restarted.close();
+
+        Map<String, List<String>> tags = new HashMap<>();
+        written.forEach(request -> tags.put(request.getTitle(), request.getTags()));
+        assertEquals(List.of("work", "urgent"), tags.get("Tagged"));
+        assertTrue(tags.containsKey("Old"));
+        assertNull(tags.get("Old"));
+    }
+
+    @Test
+    void shouldRetryOnlyTheItemsOfAFailedChunk() throws Exception {
+        // El bloque de "Second" falla la primera vez; lo ya escrito no se vuelve a enviar
+        List<String> written = new CopyOnWriteArrayList<>();
+        AtomicBoolean failedOnce = new AtomicBoolean();
+        NoteService noteService = mock(NoteService.class);
+        when(noteService.createBatch(anyList())).thenAnswer(invocation -> {
+            List<NoteRequest> notes = invocation.getArgument(0);
+            List<BatchItemResult> items = new ArrayList<>();
+            for (int i = 0; i < notes.size(); i++) {
+                String title = notes.get(i).getTitle();
+                if (title.equals("Second") && failedOnce.compareAndSet(false, true)) {
+                    items.add(BatchItemResult.failed(i, null));
+                } else {
+                    written.add(title);
+                    items.add(BatchItemResult.success(i, ids.incrementAndGet(), Status.CREATED));
+                }
+            }
+            return new BatchResponse(items);
+        });
+
+        NoteIngestQueue ingestQueue = queue(noteService, 10);
+        String first = ingestQueue.submit(new NoteRequest("First", "Content")).getTicket();
+        String second = ingestQueue.submit(new NoteRequest("Second", "Content")).getTicket();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> List.of(first, second).stream().allMatch(ticket ->
+            ingestQueue.getStatus(ticket).getStatus() == IngestStatusResponse.Status.PERSISTED));
+        assertEquals(List.of("First", "Second"), written);
+        ingestQueue.close();
+    }
+
+    private NoteIngestQueue queue(NoteService noteService, int capacity) throws Exception {
+        return new NoteIngestQueue(noteService, new SimpleMeterRegistry(), capacity, 100, Duration.ofMillis(10),
+                                   tempDir.resolve("ingest.journal").toString(), false, Duration.ofMinutes(1));
+    }
+
+    private Answer<BatchResponse> createdAnswer() {
+        return invocation -> {
+            List<NoteRequest> notes = invocation.getArgument(0);
+            List<BatchItemResult> items = new ArrayList<>();
+            for (int i = 0; i < notes.size(); i++) {
+                items.add(BatchItemResult.success(i, ids.incrementAndGet(), Status.CREATED));
+            }
+            return new BatchResponse(items);
+        };
+    }
+
+}
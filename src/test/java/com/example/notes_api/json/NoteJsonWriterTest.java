@@ -0,0 +1,170 @@
+package com.example.notes_api.json;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.service.NoteService;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    Golden tests: NoteJsonWriter debe producir exactamente los mismos bytes que Jackson.
+    Se compara con el JsonMapper que configura Spring Boot (el que escribe las respuestas con
+    el converter desactivado), no con uno por defecto: si cambia su configuración, el test falla.
+*/
+@SpringBootTest(properties = "notes.json.fast-writer.enabled=true")
+@AutoConfigureMockMvc
+public class NoteJsonWriterTest {
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Test
+    void shouldMatchJacksonForEscapesAndUnicode() throws IOException {
+
+        List<String> texts = List.of(
+            "",
+            "plain text",
+            "quote \" backslash \\ slash / and controls \b\t\n\f\r\u0000\u0001\u001f\u007f",
+            "latin é ñ ü, cjk 漢字, emoji 😀👍🏽, separators   ",
+            "lone high \uD83D end",
+            "lone low \uDE00 end",
+            "high at end \uD83D",
+            "<script>alert('x')</script> & more"
+        );
+        for (String text : texts) {
+            assertSameBytes(new NoteResponse(7L, text, text, LocalDateTime.of(2024, 1, 2, 3, 4, 5), null, 0L));
+        }
+
+    }
+
+    @Test
+    void shouldMatchJacksonForTimestampsAndNumbers() throws IOException {
+
+        int[] nanos = { 0, 1, 10, 100_000_000, 120_000_000, 123_000_000, 123_456_000, 123_456_789, 999_999_999 };
+        for (int nano : nanos) {
+            LocalDateTime time = LocalDateTime.of(2024, 12, 31, 23, 59, 0, nano);
+            assertSameBytes(new NoteResponse(Long.MAX_VALUE, "t", "c", time, time.plusSeconds(61), Long.MIN_VALUE));
+        }
+        assertSameBytes(new NoteResponse(-5L, "t", "c", LocalDateTime.of(1, 1, 1, 0, 0), LocalDateTime.of(9999, 6, 15, 12, 0, 1), 0L));
+        assertSameBytes(new NoteResponse(1L, "t", "c", LocalDateTime.of(10000, 1, 1, 0, 0), LocalDateTime.of(-1, 1, 1, 0, 0), 1L));
+        assertSameBytes(new NoteResponse());
+
+    }
+
+    @Test
+    void shouldMatchJacksonForPagesAndListsLargerThanTheBuffer() throws IOException {
+
+        Random random = new Random(42);
+        List<NoteResponse> notes = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime time = base.plusNanos(random.nextInt(5) * 250_000_000L * i);
+            notes.add(new NoteResponse((long) i, "Title " + i, randomText(random, random.nextInt(300)), time, time, (long) i % 3));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NoteJsonWriter.writePage(new PageResponse<>(notes, "aWQ6NTAw"), out);
+        assertArrayEquals(jsonMapper.writeValueAsBytes(new PageResponse<>(notes, "aWQ6NTAw")), out.toByteArray());
+        assertTrue(out.size() > NoteJsonWriter.BUFFER_SIZE);
+
+        out.reset();
+        NoteJsonWriter.writePage(new PageResponse<>(List.of(), null), out);
+        assertArrayEquals(jsonMapper.writeValueAsBytes(new PageResponse<>(List.of(), null)), out.toByteArray());
+
+        out.reset();
+        NoteJsonWriter.writeNotes(notes, out);
+        assertArrayEquals(jsonMapper.writeValueAsBytes(notes), out.toByteArray());
+
+    }
+
+    @Test
+    void shouldWriteTheSameResponsesAsJacksonThroughTheConverter() throws Exception {
+
+        NoteResponse created = noteService.create(new NoteRequest("Converter \"golden\"", "emoji 😀 and \u0001 control", List.of("json")));
+        NoteResponse note = noteService.getById(created.getId());
+
+        MvcResult byId = mockMvc.perform(get("/api/notes/{id}", note.getId()).accept(MediaType.APPLICATION_JSON))
+                                .andExpect(status().isOk())
+                                .andReturn();
+        assertArrayEquals(jsonMapper.writeValueAsBytes(note), byId.getResponse().getContentAsByteArray());
+
+        PageResponse<NoteResponse> page = noteService.getPage(null, 10);
+        MvcResult pageResult = mockMvc.perform(get("/api/notes").param("limit", "10").accept(MediaType.APPLICATION_JSON))
+                                      .andExpect(status().isOk())
+                                      .andReturn();
+        assertArrayEquals(jsonMapper.writeValueAsBytes(page), pageResult.getResponse().getContentAsByteArray());
+
+    }
+
+    @Test
+    void shouldOnlyWriteNoteTypes() {
+
+        NoteJsonHttpMessageConverter converter = new NoteJsonHttpMessageConverter();
+
+        assertTrue(converter.canWrite(NoteResponse.class, NoteResponse.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(typeOf(new ParameterizedTypeReference<PageResponse<NoteResponse>>() { }), PageResponse.class, null));
+        assertTrue(converter.canWrite(typeOf(new ParameterizedTypeReference<List<NoteResponse>>() { }), ArrayList.class, MediaType.APPLICATION_JSON));
+
+        assertFalse(converter.canWrite(typeOf(new ParameterizedTypeReference<PageResponse<NoteSummaryResponse>>() { }), PageResponse.class, null));
+        assertFalse(converter.canWrite(PageResponse.class, PageResponse.class, null)); // Sin tipo genérico no se sabe qué contiene
+        assertFalse(converter.canWrite(NoteResponse.class, NoteResponse.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(NoteResponse.class, null, MediaType.APPLICATION_JSON));
+
+    }
+
+    private void assertSameBytes(NoteResponse note) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NoteJsonWriter.writeNote(note, out);
+        assertArrayEquals(jsonMapper.writeValueAsBytes(note), out.toByteArray(), () -> out.toString());
+    }
+
+    private static Type typeOf(ParameterizedTypeReference<?> reference) {
+        return reference.getType();
+    }
+
+    // Mezcla ASCII, controles, BMP y pares surrogate
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(4)) {
+                case 0 -> text.append((char) random.nextInt(0x80));
+                case 1 -> text.append((char) (0x80 + random.nextInt(0xD800 - 0x80)));
+                case 2 -> text.appendCodePoint(0x10000 + random.nextInt(0x10FFFF - 0x10000));
+                default -> text.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.notes_api.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/*
+    De punta a punta sobre H2: el tráfico normal no debe disparar la guarda de consultas.
+    Contexto nuevo para que notes.http.statements solo tenga las peticiones de esta prueba.
+*/
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryCountFilter queryCountFilter;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldKeepEveryRouteOfNormalTrafficWithinTheLimit() throws Exception {
+
+        String created = mockMvc.perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Title\",\"content\":\"Content\",\"tags\":[\"work\"]}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        long id = jsonMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(put("/api/notes/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Edited\",\"content\":\"Edited content\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(put("/api/notes/{id}", id).header("If-Match", "1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Edited again\",\"content\":\"Edited again\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes").param("tags", "work")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes").param("modifiedSince", LocalDateTime.now().minusHours(1).toString())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/{id}/revisions", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/{id}/revisions/{revision}", id, 1)).andExpect(status().isOk());
+        mockMvc.perform(post("/api/notes/{id}/revisions/{revision}/restore", id, 1)).andExpect(status().isOk());
+        mockMvc.perform(put("/api/notes/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"id\":" + id + ",\"title\":\"Batch\",\"content\":\"Batch content\"}]"))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/{id}", id)).andExpect(status().isOk());
+
+        Collection<DistributionSummary> routes = meterRegistry.find("notes.http.statements").summaries();
+        assertFalse(routes.isEmpty());
+        for (DistributionSummary route : routes) {
+            String name = route.getId().getTag("method") + " " + route.getId().getTag("uri");
+            assertTrue(route.max() <= queryCountFilter.maxStatements(), name + " executed " + route.max() + " statements");
+        }
+
+        // El PUT: el bloqueo, el UPDATE y la revisión (número, secuencia e INSERT), sin releer la nota
+        DistributionSummary update = meterRegistry.find("notes.http.statements").tag("method", "PUT").tag("uri", "/api/notes/{id}").summary();
+        assertEquals(2, update.count());
+        assertTrue(update.max() <= 5, "PUT /api/notes/{id} executed " + update.max() + " statements");
+
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.notes_api.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryCountFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final StatementCounter statementCounter = new StatementCounter();
+
+    @Test
+    void shouldRecordStatementsPerRequestPattern() throws Exception {
+        QueryCountFilter filter = new QueryCountFilter(meterRegistry, 5);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes/7");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/notes/{id}");
+            statementCounter.inspect("select 1");
+            statementCounter.inspect("select 2");
+        });
+
+        DistributionSummary summary = meterRegistry.find("notes.http.statements")
+                                                   .tag("method", "GET")
+                                                   .tag("uri", "/api/notes/{id}")
+                                                   .summary();
+        assertNotNull(summary);
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    void shouldNotCountStatementsOutsideRequests() throws Exception {
+        statementCounter.inspect("select 1");
+
+        QueryCountFilter filter = new QueryCountFilter(meterRegistry, 5);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/notes"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertEquals(0.0, meterRegistry.find("notes.http.statements").summary().totalAmount());
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.notes_api.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.notes_api.model.CompressedTextConverter;
+import com.example.notes_api.model.Note;
+
+// Una base en V2 con notas anteriores a content_preview/content_length, y después la migración
+public class V3__BackfillContentPreviewTest {
+
+    private static final String INSERT = "insert into notes (id, owner_id, title, content, tags, created_at, updated_at, version) values (?, 'default', 'Old', ?, '', '2020-01-01 00:00:00', '2020-01-01 00:00:00', 7)";
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:notes_backfill;MODE=MySQL;DB_CLOSE_DELAY=-1");
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void shouldFillPreviewAndLengthOfExistingNotes() {
+
+        flyway("2").migrate();
+
+        String shortContent = "Short note";
+        String emojiContent = "a".repeat(Note.PREVIEW_LENGTH - 1) + "😀 and more";
+        String longContent = "Lorem ipsum dolor sit amet. ".repeat(100);
+        jdbcTemplate.update(INSERT, 1, shortContent);
+        jdbcTemplate.update(INSERT, 2, emojiContent);
+        jdbcTemplate.update(INSERT, 3, new CompressedTextConverter(true, 100).convertToDatabaseColumn(longContent));
+
+        flyway(null).migrate();
+
+        assertBackfilled(1, shortContent);
+        assertBackfilled(2, emojiContent);
+        assertBackfilled(3, longContent);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from notes where content_length is null", Integer.class));
+
+    }
+
+    private void assertBackfilled(long id, String content) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("select content_preview, content_length, version from notes where id = ?", id);
+        assertEquals(Note.previewOf(content), row.get("CONTENT_PREVIEW"));
+        assertEquals(content.length(), row.get("CONTENT_LENGTH"));
+        // La nota no cambia para los clientes: ni versión ni fecha de modificación
+        assertEquals(7L, row.get("VERSION"));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0),
+                     jdbcTemplate.queryForObject("select updated_at from notes where id = ?", LocalDateTime.class, id));
+    }
+
+    private Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                                  .dataSource(dataSource)
+                                  .javaMigrations(new V3__BackfillContentPreview());
+        if (target != null) {
+            configuration.target(target);
+        }
+        return configuration.load();
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.notes_api.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CompressedTextConverterTest {
+
+    private final CompressedTextConverter converter = new CompressedTextConverter(true, 100);
+
+    @Test
+    void shouldCompressLargeContentAndRestoreIt() {
+        String content = "Lorem ipsum dolor sit amet. ".repeat(100);
+
+        String column = converter.convertToDatabaseColumn(content);
+
+        assertTrue(column.startsWith(CompressedTextConverter.PREFIX));
+        assertTrue(column.length() < content.length());
+        assertEquals(content, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void shouldKeepShortContentAsIs() {
+        assertEquals("Short note", converter.convertToDatabaseColumn("Short note"));
+        assertEquals("Short note", converter.convertToEntityAttribute("Short note"));
+    }
+
+    @Test
+    void shouldNotCompressWhenDisabled() {
+        CompressedTextConverter disabled = new CompressedTextConverter(false, 100);
+        String content = "a".repeat(1000);
+
+        assertEquals(content, disabled.convertToDatabaseColumn(content));
+    }
+
+    @Test
+    void shouldAlwaysEncodeContentThatLooksCompressed() {
+        CompressedTextConverter disabled = new CompressedTextConverter(false, 100);
+
+        String column = disabled.convertToDatabaseColumn("gz:not really compressed");
+
+        assertEquals("gz:not really compressed", disabled.convertToEntityAttribute(column));
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.example.notes_api.owner;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// De punta a punta sobre H2: las notas de un dueño no son visibles ni modificables por otro
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OwnerIsolationTest {
+
+    private static final String ALICE = "alice";
+
+    private static final String BOB = "bob";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void shouldHideNotesFromOtherOwners() throws Exception {
+
+        long id = create(ALICE, "Alice secret");
+
+        mockMvc.perform(get("/api/notes/{id}", id).header(OwnerContext.HEADER, ALICE))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notes/{id}", id).header(OwnerContext.HEADER, BOB))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/notes").header(OwnerContext.HEADER, BOB))
+            .andExpect(jsonPath("$.items[*].id", not(hasItem((int) id))));
+        mockMvc.perform(get("/api/notes/search").param("q", "secret").header(OwnerContext.HEADER, BOB))
+            .andExpect(jsonPath("$.items.length()").value(0));
+        mockMvc.perform(get("/api/notes/search").param("q", "secret").header(OwnerContext.HEADER, ALICE))
+            .andExpect(jsonPath("$.items[0].id").value(id));
+
+    }
+
+    @Test
+    void shouldNotLetOtherOwnersModifyNotes() throws Exception {
+
+        long id = create(ALICE, "Alice note");
+
+        mockMvc.perform(put("/api/notes/{id}", id).header(OwnerContext.HEADER, BOB)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Hijacked\",\"content\":\"x\"}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/notes/{id}", id).header(OwnerContext.HEADER, BOB))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/notes/batch").header(OwnerContext.HEADER, BOB)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + id + "]"))
+            .andExpect(jsonPath("$.items[0].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/notes/{id}", id).header(OwnerContext.HEADER, ALICE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Alice note"));
+
+    }
+
+    @Test
+    void shouldScopeSyncTombstonesByOwner() throws Exception {
+
+        String since = LocalDateTime.now().minusMinutes(1).toString();
+        long id = create(ALICE, "Soon deleted");
+        mockMvc.perform(delete("/api/notes/{id}", id).header(OwnerContext.HEADER, ALICE))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes").param("modifiedSince", since).header(OwnerContext.HEADER, ALICE))
+            .andExpect(jsonPath("$.deleted[*].id", hasItem((int) id)));
+        mockMvc.perform(get("/api/notes").param("modifiedSince", since).header(OwnerContext.HEADER, BOB))
+            .andExpect(jsonPath("$.deleted[*].id", not(hasItem((int) id))));
+
+    }
+
+    @Test
+    void shouldRejectInvalidOwner() throws Exception {
+
+        mockMvc.perform(get("/api/notes").header(OwnerContext.HEADER, OwnerContext.ALL_OWNERS))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Invalid X-Owner-Id: *"));
+
+    }
+
+    private long create(String owner, String title) throws Exception {
+        String body = mockMvc.perform(post("/api/notes").header(OwnerContext.HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"content\":\"Content\"}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body).get("id").asLong();
+    }
+
+}
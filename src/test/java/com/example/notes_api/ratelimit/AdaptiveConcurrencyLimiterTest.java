@@ -0,0 +1,91 @@
+package com.example.notes_api.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.notes_api.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private static final Duration TARGET = Duration.ofMillis(50);
+
+    @Test
+    void shouldRejectWhenLimitIsReached() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(TARGET, 2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(10 * MILLIS);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+
+    }
+
+    @Test
+    void shouldGrowUnderLoadAndShrinkWhenLatencyRises() {
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(TARGET, 20, 5, 200);
+
+        // Todos los permisos en uso y latencia estable: el límite sube
+        runAtFullLoad(limiter, 200, 10 * MILLIS);
+        int grown = limiter.limit();
+        assertTrue(grown > 20, "limit should grow, was " + grown);
+
+        // La latencia supera el objetivo: el límite baja hasta el mínimo
+        runAtFullLoad(limiter, 200, 100 * MILLIS);
+        assertEquals(5, limiter.limit());
+
+    }
+
+    @Test
+    void shouldRespond503AndReleasePermitAfterCompletion() {
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(TARGET, 1, 1, 1);
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(meterRegistry, limiter);
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/notes");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(first, response, null));
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest("GET", "/api/notes"), response, null));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        interceptor.afterCompletion(first, response, null, null);
+        interceptor.afterCompletion(first, response, null, null); // Solo libera una vez
+        assertEquals(0, limiter.inFlight());
+
+        assertEquals(1, meterRegistry.counter("notes.admission.requests", "outcome", "admitted").count());
+        assertEquals(1, meterRegistry.counter("notes.admission.requests", "outcome", "rejected").count());
+
+    }
+
+    // Ocupa todos los permisos disponibles y los libera con la latencia indicada, "rounds" veces
+    private static void runAtFullLoad(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int i = 0; i < rounds; i++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+
+}
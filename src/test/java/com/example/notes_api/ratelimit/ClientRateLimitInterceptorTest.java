@@ -0,0 +1,110 @@
+package com.example.notes_api.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.example.notes_api.exception.RateLimitExceededException;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.ratelimit.ClientRateLimitInterceptor.Limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ClientRateLimitInterceptorTest {
+
+    // Límite por dirección que no se alcanza: todas las peticiones simuladas vienen de 127.0.0.1
+    private static final Limit UNLIMITED = new Limit(1000, 1000);
+
+    @Test
+    void shouldAllowBurstThenRefillAtRate() {
+
+        AtomicLong now = new AtomicLong(1_000_000_000L);
+        TokenBucket bucket = new TokenBucket(10, 3, now::get); // Un permiso cada 100 ms
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(100_000_000L, bucket.tryAcquire()); // Cubo vacío: falta un intervalo
+
+        now.addAndGet(100_000_000L);
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+
+    }
+
+    @Test
+    void shouldLimitEachClientSeparately() {
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClientRateLimitInterceptor interceptor = new ClientRateLimitInterceptor(meterRegistry, new Limit(0.5, 2), new Limit(0.5, 2), UNLIMITED, UNLIMITED);
+
+        interceptor.preHandle(get("noisy"), null, null);
+        interceptor.preHandle(get("noisy"), null, null);
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                                                     () -> interceptor.preHandle(get("noisy"), null, null));
+        assertEquals(2, ex.getRetryAfterSeconds());
+
+        assertTrue(interceptor.preHandle(get("quiet"), null, null));
+        // Sin X-Api-Key el cliente es el dueño
+        OwnerContext.runAs("owner-a", () -> assertTrue(interceptor.preHandle(get(null), null, null)));
+
+        assertEquals(1, meterRegistry.counter("notes.rate-limit.requests", "operation", "read", "outcome", "rejected").count());
+        assertEquals(4, meterRegistry.counter("notes.rate-limit.requests", "operation", "read", "outcome", "admitted").count());
+
+    }
+
+    @Test
+    void shouldKeepReadsAndWritesInSeparateBuckets() {
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClientRateLimitInterceptor interceptor = new ClientRateLimitInterceptor(meterRegistry, new Limit(0.5, 1), new Limit(0.5, 1), UNLIMITED, UNLIMITED);
+
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/notes");
+        write.addHeader(ClientRateLimitInterceptor.API_KEY_HEADER, "reader");
+
+        interceptor.preHandle(get("reader"), null, null);
+        assertThrows(RateLimitExceededException.class, () -> interceptor.preHandle(get("reader"), null, null));
+        // Las lecturas agotaron su cupo, pero las escrituras tienen el suyo
+        assertTrue(interceptor.preHandle(write, null, null));
+        assertThrows(RateLimitExceededException.class, () -> interceptor.preHandle(write, null, null));
+
+        assertEquals(1, meterRegistry.counter("notes.rate-limit.requests", "operation", "write", "outcome", "rejected").count());
+
+    }
+
+    @Test
+    void shouldLimitTheAddressOfAClientThatRotatesKeys() {
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClientRateLimitInterceptor interceptor = new ClientRateLimitInterceptor(meterRegistry, new Limit(0.5, 1), new Limit(0.5, 1),
+                                                                                new Limit(0.5, 3), new Limit(0.5, 3));
+
+        // Cada clave nueva tendría un cubo lleno, pero la dirección se queda sin cupo a la cuarta
+        interceptor.preHandle(get("key-1"), null, null);
+        interceptor.preHandle(get("key-2"), null, null);
+        interceptor.preHandle(get("key-3"), null, null);
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                                                     () -> interceptor.preHandle(get("key-4"), null, null));
+        assertEquals("Rate limit exceeded for reads from this address", ex.getMessage());
+
+        // Otra dirección no se ve afectada
+        MockHttpServletRequest other = get("key-5");
+        other.setRemoteAddr("10.0.0.2");
+        assertTrue(interceptor.preHandle(other, null, null));
+
+    }
+
+    private static MockHttpServletRequest get(String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes");
+        if (apiKey != null) {
+            request.addHeader(ClientRateLimitInterceptor.API_KEY_HEADER, apiKey);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.example.notes_api.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSearchHit;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.model.NoteTombstone;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteSearchView;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+
+// Índice en memoria (o en un directorio temporal) con la BD simulada: notes hace de tabla
+public class NoteSearchIndexTest {
+
+    private final Map<Long, NoteSearchView> notes = new LinkedHashMap<>();
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+
+    private final NoteTombstoneRepository tombstoneRepository = mock(NoteTombstoneRepository.class);
+
+    private NoteSearchIndex searchIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        when(noteRepository.findSearchViewsByIdIn(any())).thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0))
+            .stream().filter(notes::containsKey).map(notes::get).toList());
+
+        searchIndex = index("");
+
+        created(1L, "Shopping list", "Buy milk and bread");
+        created(2L, "Milk recipes", "Pancakes with milk");
+        created(3L, "Meeting", "Quarterly planning");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    void shouldRankTitleMatchesFirstAndHighlightTerms() {
+
+        PageResponse<NoteSearchHit> page = searchIndex.search("milk", null, 10);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(0).getId()); // "milk" en el title pesa más
+        assertEquals("<em>Milk</em> recipes", page.getItems().get(0).getTitleHighlight());
+        assertEquals("Buy <em>milk</em> and bread", page.getItems().get(1).getContentHighlight());
+        assertNull(page.getNextCursor());
+
+    }
+
+    @Test
+    void shouldPaginateWithSearchAfterCursor() {
+
+        PageResponse<NoteSearchHit> first = searchIndex.search("milk", null, 1);
+        assertNotNull(first.getNextCursor());
+
+        PageResponse<NoteSearchHit> second = searchIndex.search("milk", first.getNextCursor(), 1);
+        assertEquals(1, second.getItems().size());
+        assertEquals(1L, second.getItems().get(0).getId());
+        assertNull(second.getNextCursor());
+
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+
+        searchIndex.onNoteChanged(NoteChangedEvent.updated(note(3L, "Meeting", "Bring milk")));
+        searchIndex.onNoteChanged(NoteChangedEvent.deleted(1L));
+
+        PageResponse<NoteSearchHit> page = searchIndex.search("milk", null, 10);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.getItems().stream().noneMatch(hit -> hit.getId() == 1L));
+
+    }
+
+    @Test
+    void shouldReadHitsFromTheDatabase() {
+
+        // El índice no guarda el texto: el resaltado sale de la fila actual y las notas que ya no están se omiten
+        notes.put(1L, view(1L, "Shopping list", "Buy oat milk and bread"));
+        notes.remove(2L);
+
+        PageResponse<NoteSearchHit> page = searchIndex.search("milk", null, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("Buy oat <em>milk</em> and bread", page.getItems().get(0).getContentHighlight());
+
+    }
+
+    @Test
+    void shouldApplyEventsReceivedDuringTheRebuildAfterIt() throws IOException {
+
+        // La reconstrucción lee la nota 2 después de que su borrado se confirmara y se publicara
+        when(noteRepository.streamSearchViews()).thenAnswer(invocation -> Stream.of(1L, 2L, 3L).map(id -> {
+            if (id == 1L) {
+                searchIndex.onNoteChanged(NoteChangedEvent.deleted(2L));
+            }
+            return notes.get(id);
+        }));
+
+        searchIndex.rebuild();
+
+        assertEquals(List.of(1L), ids(searchIndex.search("milk", null, 10)));
+
+    }
+
+    @Test
+    void shouldRefreshWithWritesFromOtherInstances() throws IOException {
+
+        when(noteRepository.streamSearchViews()).thenAnswer(invocation -> notes.values().stream());
+        searchIndex.rebuild();
+
+        // Otra instancia modifica la nota 3 y borra la 1: aquí no llega ningún evento
+        notes.put(3L, view(3L, "Meeting", "Bring milk"));
+        notes.remove(1L);
+        when(noteRepository.streamSearchViewsModifiedSince(any())).thenAnswer(invocation -> Stream.of(notes.get(3L)));
+        when(tombstoneRepository.streamDeletedSince(any())).thenAnswer(invocation -> Stream.of(new NoteTombstone(1L, LocalDateTime.now())));
+
+        searchIndex.refresh();
+
+        assertEquals(List.of(2L, 3L), ids(searchIndex.search("milk", null, 10)).stream().sorted().toList());
+        assertNull(searchIndex.search("milk", null, 2).getNextCursor()); // La 1 ya no está en el índice
+
+    }
+
+    @Test
+    void shouldNotRefreshBeforeLoading() throws IOException {
+
+        searchIndex.refresh();
+
+        verify(noteRepository, never()).streamSearchViewsModifiedSince(any());
+
+    }
+
+    @Test
+    void shouldCatchUpAPersistedIndexInsteadOfRebuildingIt(@TempDir Path indexPath) throws IOException {
+
+        when(noteRepository.streamSearchViews()).thenAnswer(invocation -> notes.values().stream());
+        NoteSearchIndex persisted = index(indexPath.toString());
+        persisted.load();
+        persisted.close();
+
+        // Con la aplicación parada: se modifica la nota 3 y se borra la 1
+        notes.put(3L, view(3L, "Meeting", "Bring milk"));
+        notes.remove(1L);
+        when(noteRepository.streamSearchViewsModifiedSince(any())).thenAnswer(invocation -> Stream.of(notes.get(3L)));
+        when(tombstoneRepository.streamDeletedSince(any())).thenAnswer(invocation -> Stream.of(new NoteTombstone(1L, LocalDateTime.now())));
+
+        NoteSearchIndex reopened = index(indexPath.toString());
+        try {
+            reopened.load();
+
+            verify(noteRepository).streamSearchViews(); // Solo la primera vez
+            assertEquals(List.of(2L, 3L), ids(reopened.search("milk", null, 10)).stream().sorted().toList());
+        } finally {
+            reopened.close();
+        }
+
+    }
+
+    @Test
+    void shouldRebuildAPersistedIndexOlderThanTheTombstones(@TempDir Path indexPath) throws IOException {
+
+        when(noteRepository.streamSearchViews()).thenAnswer(invocation -> notes.values().stream());
+        NoteSearchIndex persisted = index(indexPath.toString());
+        persisted.load();
+        persisted.close();
+
+        // Sin tombstones de todo el tiempo que estuvo parada no se sabe qué se borró
+        NoteSearchIndex reopened = new NoteSearchIndex(noteRepository, tombstoneRepository, mock(PlatformTransactionManager.class),
+                                                       indexPath.toString(), Duration.ZERO);
+        try {
+            reopened.load();
+
+            verify(noteRepository, never()).streamSearchViewsModifiedSince(any());
+            assertEquals(2, reopened.search("milk", null, 10).getItems().size());
+        } finally {
+            reopened.close();
+        }
+
+    }
+
+    private NoteSearchIndex index(String indexPath) throws IOException {
+        return new NoteSearchIndex(noteRepository, tombstoneRepository, mock(PlatformTransactionManager.class),
+                                   indexPath, Duration.ofDays(30));
+    }
+
+    private void created(Long id, String title, String content) {
+        notes.put(id, view(id, title, content));
+        searchIndex.onNoteChanged(NoteChangedEvent.created(note(id, title, content)));
+    }
+
+    private static List<Long> ids(PageResponse<NoteSearchHit> page) {
+        return page.getItems().stream().map(NoteSearchHit::getId).toList();
+    }
+
+    private static NoteResponse note(Long id, String title, String content) {
+        return new NoteResponse(id, title, content, null, null, 0L);
+    }
+
+    private static NoteSearchView view(Long id, String title, String content) {
+        return new NoteSearchView() {
+
+            @Override
+            public String getOwnerId() {
+                return OwnerContext.DEFAULT_OWNER;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+
+        };
+    }
+
+}
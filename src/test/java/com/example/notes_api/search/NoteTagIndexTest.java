@@ -0,0 +1,142 @@
+package com.example.notes_api.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.model.NoteTombstone;
+import com.example.notes_api.owner.OwnerContext;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteTagView;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+
+// Índice en memoria: la BD solo se simula para la reconstrucción y el refresco
+public class NoteTagIndexTest {
+
+    private final NoteRepository noteRepository = mock(NoteRepository.class);
+
+    private final NoteTombstoneRepository tombstoneRepository = mock(NoteTombstoneRepository.class);
+
+    private NoteTagIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new NoteTagIndex(noteRepository, tombstoneRepository, mock(PlatformTransactionManager.class));
+
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(1L, "work", "urgent")));
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(2L, "work")));
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(3L, "home", "urgent")));
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(4L)));
+    }
+
+    @Test
+    void shouldIntersectOrUniteTagsInIdOrder() {
+
+        assertEquals(List.of(1L), tagIndex.findIds(List.of("urgent", "work"), TagMatch.AND, 0, 10));
+        assertEquals(List.of(1L, 2L, 3L), tagIndex.findIds(List.of("home", "work"), TagMatch.OR, 0, 10));
+        assertEquals(List.of(), tagIndex.findIds(List.of("work", "missing"), TagMatch.AND, 0, 10));
+
+        // Cursor y límite: ids mayores que afterId, como mucho limit
+        assertEquals(List.of(2L), tagIndex.findIds(List.of("home", "work"), TagMatch.OR, 1L, 1));
+
+    }
+
+    @Test
+    void shouldFindSparseIntersectionsPastTheLeapfrogBudget() {
+
+        // Etiquetas alternas: ninguna nota entre 10 y 2000 tiene las dos, así que el leapfrog agota sus intentos
+        for (long id = 10; id < 2_000; id++) {
+            tagIndex.onNoteChanged(NoteChangedEvent.created(note(id, id % 2 == 0 ? "even" : "odd")));
+        }
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(2_000L, "even", "odd")));
+        tagIndex.onNoteChanged(NoteChangedEvent.created(note(2_001L, "even", "odd")));
+
+        assertEquals(List.of(2_000L, 2_001L), tagIndex.findIds(List.of("even", "odd"), TagMatch.AND, 0, 5));
+        assertEquals(List.of(2_001L), tagIndex.findIds(List.of("even", "odd"), TagMatch.AND, 2_000L, 5));
+
+    }
+
+    @Test
+    void shouldFollowUpdatesAndDeletes() {
+
+        tagIndex.onNoteChanged(NoteChangedEvent.updated(note(2L, "home")));
+        tagIndex.onNoteChanged(NoteChangedEvent.deleted(3L));
+
+        assertEquals(List.of(1L), tagIndex.findIds(List.of("work"), TagMatch.AND, 0, 10));
+        assertEquals(List.of(2L), tagIndex.findIds(List.of("home"), TagMatch.AND, 0, 10));
+        assertEquals(List.of(1L), tagIndex.findIds(List.of("urgent"), TagMatch.AND, 0, 10));
+
+    }
+
+    @Test
+    void shouldOnlySeeNotesOfCurrentOwner() {
+
+        OwnerContext.runAs("alice", () -> tagIndex.onNoteChanged(NoteChangedEvent.created(note(5L, "work"))));
+
+        assertEquals(List.of(1L, 2L), tagIndex.findIds(List.of("work"), TagMatch.AND, 0, 10));
+        assertEquals(List.of(5L), OwnerContext.callAs("alice", () -> tagIndex.findIds(List.of("work"), TagMatch.AND, 0, 10)));
+
+    }
+
+    @Test
+    void shouldPickUpWritesOfOtherInstancesOnRefresh() {
+
+        when(noteRepository.streamTagViews()).thenAnswer(invocation -> Stream.of(view("default", 1L, "work"), view("default", 2L, "work")));
+        tagIndex.rebuild();
+
+        // Otra instancia quita las etiquetas de la nota 1, crea la 5 con "work" y borra la 2
+        when(noteRepository.streamTagViewsModifiedSince(any())).thenAnswer(invocation -> Stream.of(view("default", 1L), view("default", 5L, "work")));
+        when(tombstoneRepository.streamDeletedSince(any())).thenAnswer(invocation -> Stream.of(tombstone("default", 2L)));
+        assertEquals(List.of(1L, 2L), tagIndex.findIds(List.of("work"), TagMatch.AND, 0, 10));
+
+        tagIndex.refresh();
+
+        assertEquals(List.of(5L), tagIndex.findIds(List.of("work"), TagMatch.AND, 0, 10));
+
+    }
+
+    // El dueño lo rellena Hibernate (@TenantId) al guardarlo
+    private static NoteTombstone tombstone(String ownerId, Long noteId) {
+        NoteTombstone tombstone = new NoteTombstone(noteId, LocalDateTime.now());
+        ReflectionTestUtils.setField(tombstone, "ownerId", ownerId);
+        return tombstone;
+    }
+
+    private static NoteTagView view(String ownerId, Long id, String... tags) {
+        return new NoteTagView() {
+
+            @Override
+            public String getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public List<String> getTags() {
+                return tags.length == 0 ? null : List.of(tags);
+            }
+
+        };
+    }
+
+    private static NoteResponse note(Long id, String... tags) {
+        return new NoteResponse(id, "Title " + id, "Content", List.of(tags), null, null, 0L);
+    }
+
+}
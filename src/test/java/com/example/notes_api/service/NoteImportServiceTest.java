@@ -0,0 +1,135 @@
+package com.example.notes_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.notes_api.dto.NoteImportResponse;
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.model.NoteImport;
+import com.example.notes_api.repository.NoteImportRepository;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.transfer.NoteTransferCodec;
+import com.example.notes_api.transfer.NoteTransferFormat;
+
+import tools.jackson.databind.SequenceWriter;
+
+@SpringBootTest
+public class NoteImportServiceTest {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteImportService noteImportService;
+
+    @Autowired
+    private NoteTransferCodec codec;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteImportRepository importRepository;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAllInBatch();
+        importRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldImportGzippedCsvExportAndCountInvalidRecords() throws IOException {
+
+        noteService.create(new NoteRequest("Plain", "simple content"));
+        noteService.create(new NoteRequest("Quoted, \"title\"", "line 1\nline 2, with \"quotes\"", List.of("work", "home")));
+
+        // Exportación en CSV comprimida, igual que GET /api/notes/export?format=csv&gzip=true
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        try (SequenceWriter writer = codec.writer(NoteTransferFormat.CSV, new GZIPOutputStream(exported))) {
+            noteService.streamAll(writer::write);
+        }
+        noteRepository.deleteAllInBatch();
+
+        NoteImportResponse result = noteImportService.importNotes("backup-1", NoteTransferFormat.CSV,
+                                                                  new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(NoteImport.Status.COMPLETED, result.getStatus());
+        assertEquals(2, result.getImported());
+        List<NoteResponse> notes = noteService.getPage(null, 10).getItems();
+        assertEquals("Quoted, \"title\"", notes.get(1).getTitle());
+        assertEquals("line 1\nline 2, with \"quotes\"", notes.get(1).getContent());
+        assertEquals(List.of("home", "work"), notes.get(1).getTags());
+
+        // Una nota inválida se cuenta y no detiene la importación
+        String csv = "title,content\n,no title\nValid,content\n";
+        result = noteImportService.importNotes(null, NoteTransferFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(NoteImport.Status.COMPLETED, result.getStatus());
+        assertEquals(2, result.getProcessed());
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getInvalid());
+    }
+
+    @Test
+    void shouldResumeFromCheckpointAfterBrokenUpload() {
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1_200; i++) {
+            ndjson.append("{\"id\":").append(i).append(",\"title\":\"Note ").append(i).append("\",\"content\":\"Content ").append(i).append("\"}\n");
+        }
+        byte[] file = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        // La subida se corta a mitad del segundo bloque: solo queda guardado el primero
+        NoteImportResponse failed = noteImportService.importNotes("migration", NoteTransferFormat.NDJSON, brokenAfter(file, file.length * 3 / 4));
+        assertEquals(NoteImport.Status.FAILED, failed.getStatus());
+        assertEquals(500, failed.getProcessed());
+        assertTrue(failed.getError().startsWith("Record "));
+        assertEquals(500, noteRepository.count());
+
+        NoteImportResponse resumed = noteImportService.importNotes("migration", NoteTransferFormat.NDJSON, new ByteArrayInputStream(file));
+        assertEquals(NoteImport.Status.COMPLETED, resumed.getStatus());
+        assertEquals(1_200, resumed.getProcessed());
+        assertEquals(1_200, resumed.getImported());
+        assertEquals(1_200, noteRepository.count());
+        String afterCheckpoint = noteService.getPage(null, 500).getNextCursor();
+        assertEquals("Note 500", noteService.getPage(afterCheckpoint, 1).getItems().get(0).getTitle()); // Sigue justo tras el checkpoint
+
+        // Repetir una importación terminada no vuelve a insertar nada
+        noteImportService.importNotes("migration", NoteTransferFormat.NDJSON, new ByteArrayInputStream(file));
+        assertEquals(1_200, noteRepository.count());
+        assertEquals(NoteImport.Status.COMPLETED, noteImportService.getImport("migration").getStatus());
+    }
+
+    private static InputStream brokenAfter(byte[] data, int limit) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+
+            private int read;
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (read >= limit) {
+                    throw new IOException("Connection reset");
+                }
+                int n = super.read(buffer, offset, Math.min(length, limit - read));
+                read += Math.max(n, 0);
+                return n;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.notes_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteRevisionSummary;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteRevisionNotFoundException;
+import com.example.notes_api.model.NoteRevision;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteRevisionRepository;
+
+// Sobre H2: snapshots cada 16 revisiones (valor por defecto), deltas inversos entre medias
+@SpringBootTest
+public class NoteRevisionServiceTest {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteRevisionService noteRevisionService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteRevisionRepository revisionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAllInBatch();
+        revisionRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldReconstructEveryRevisionFromBoundedDeltas() {
+
+        String content = "lorem ipsum dolor sit amet ".repeat(2_000);
+        NoteResponse note = noteService.create(new NoteRequest("Title 0", content));
+        assertEquals(0, revisionRepository.count()); // Una nota sin modificar no ocupa nada en el historial
+        List<String> contents = new ArrayList<>(List.of(content));
+        for (int i = 1; i <= 40; i++) {
+            content = content.substring(0, i * 100) + "edit " + i + content.substring(i * 100 + 3);
+            noteService.update(note.getId(), new NoteRequest("Title " + i, content), null);
+            contents.add(content);
+        }
+
+        for (int revision = 1; revision <= contents.size(); revision++) {
+            assertEquals(contents.get(revision - 1), noteRevisionService.getRevision(note.getId(), revision).getContent());
+            assertTrue(revisionRepository.findChain(note.getId(), revision).size() <= 16);
+        }
+
+        // La revisión 41 es la nota; de las 40 guardadas, 16 y 32 son snapshots y el resto deltas pequeños
+        List<NoteRevision> stored = revisionRepository.findAll();
+        assertEquals(40, stored.size());
+        assertEquals(List.of(16, 32), stored.stream().filter(NoteRevision::isSnapshot).map(NoteRevision::getRevision).sorted().toList());
+        assertTrue(stored.stream().filter(r -> !r.isSnapshot()).allMatch(r -> r.getData().length() < 100));
+        assertEquals("Title 40", noteRevisionService.getRevision(note.getId(), 41).getTitle());
+        assertEquals("Title 0", noteRevisionService.getRevision(note.getId(), 1).getTitle());
+
+    }
+
+    @Test
+    void shouldListTheCurrentRevisionFromItsMetadata() {
+
+        NoteResponse note = noteService.create(new NoteRequest("Current", "Current content"));
+        // Un content que no se puede descomprimir: si el listado lo leyera, fallaría
+        jdbcTemplate.update("update notes set content = 'gz:not-gzip' where id = ?", note.getId());
+
+        NoteRevisionSummary current = noteRevisionService.getRevisions(note.getId(), null, 10).getItems().get(0);
+
+        assertEquals(1, current.getRevision());
+        assertEquals("Current", current.getTitle());
+        assertEquals("Current content".length(), current.getContentLength());
+        assertEquals(noteRepository.findRevisionHeadById(note.getId()).orElseThrow().getUpdatedAt(), current.getCreatedAt());
+
+    }
+
+    @Test
+    void shouldListNewestFirstAndRestoreAsNewRevision() {
+
+        NoteResponse note = noteService.create(new NoteRequest("First", "First content"));
+        noteService.update(note.getId(), new NoteRequest("Second", "Second content"), null);
+        noteService.update(note.getId(), new NoteRequest("Second", "Second content"), null); // Sin cambios: no hay revisión
+        NoteResponse third = noteService.update(note.getId(), new NoteRequest("Third", "Third content"), null);
+
+        PageResponse<NoteRevisionSummary> page = noteRevisionService.getRevisions(note.getId(), null, 2);
+        assertEquals(List.of(3, 2), page.getItems().stream().map(NoteRevisionSummary::getRevision).toList());
+        page = noteRevisionService.getRevisions(note.getId(), page.getNextCursor(), 2);
+        assertEquals(List.of(1), page.getItems().stream().map(NoteRevisionSummary::getRevision).toList());
+        assertNull(page.getNextCursor());
+
+        NoteResponse restored = noteRevisionService.restore(note.getId(), 1, third.getVersion());
+        assertEquals("First content", restored.getContent());
+        assertEquals("First content", noteService.getById(note.getId()).getContent());
+        assertEquals("First", noteRevisionService.getRevision(note.getId(), 4).getTitle());
+
+        assertThrows(NoteRevisionNotFoundException.class, () -> noteRevisionService.getRevision(note.getId(), 9));
+
+        noteService.deleteById(note.getId(), null);
+        assertThrows(NoteNotFoundException.class, () -> noteRevisionService.getRevision(note.getId(), 1));
+        assertEquals(0, revisionRepository.count());
+
+    }
+
+}
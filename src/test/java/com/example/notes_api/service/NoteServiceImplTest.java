@@ -2,26 +2,62 @@ package com.example.notes_api.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.notes_api.config.CacheConfig;
+import com.example.notes_api.dto.BatchItemResult;
+import com.example.notes_api.dto.BatchResponse;
+import com.example.notes_api.dto.NoteBatchUpdateRequest;
 import com.example.notes_api.dto.NoteRequest;
 import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSummaryResponse;
+import com.example.notes_api.dto.PageResponse;
+import com.example.notes_api.event.NoteChangedEvent;
+import com.example.notes_api.event.NoteUpdatingEvent;
+import com.example.notes_api.exception.InvalidCursorException;
 import com.example.notes_api.exception.NoteNotFoundException;
+import com.example.notes_api.exception.NoteVersionMismatchException;
 import com.example.notes_api.model.Note;
+import com.example.notes_api.owner.OwnerContext;
 import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteUpdateStateWithContent;
+
+import jakarta.validation.Validation;
 
 @ExtendWith(MockitoExtension.class) //Activa el soporte de Mockito en JUnit 5
 public class NoteServiceImplTest {
@@ -29,8 +65,18 @@ public class NoteServiceImplTest {
     @Mock //Crea un objeto simulado de NoteRepository
     private NoteRepository noteRepository;
 
-    @InjectMocks
-    private INoteService noteService; //Inyecta los mocks en NoteServiceImpl
+    @Mock //Recibe los NoteChangedEvent que publica el service
+    private ApplicationEventPublisher eventPublisher;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.NOTES_CACHE);
+
+    private INoteService noteService;
+
+    @BeforeEach
+    void setUp() {
+        // Con el historial de revisiones activo (notes.revisions.enabled), como por defecto
+        noteService = service(true);
+    }
 
     @Test
     void shouldCreateNoteSuccessfully() {
@@ -59,6 +105,7 @@ public class NoteServiceImplTest {
 
         //5 Veritifación de interacciones con el mock
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(eventPublisher, times(1)).publishEvent(any(NoteChangedEvent.class)); // El índice de búsqueda se entera del alta
         
     }
 
@@ -68,12 +115,10 @@ public class NoteServiceImplTest {
         // Arrange (Preparar) -> Datos de entrada
         Long noteId = 1L;
 
-        Note note = new Note();
-        note.setTitle("Test title");
-        note.setContent("Test content");
+        NoteResponse note = new NoteResponse(noteId, "Test title", "Test content", null, null, 1L);
 
-        // Mock del Repository para simular el comportamiento del método findById
-        when(noteRepository.findById(noteId))
+        // Mock del Repository para simular la proyección findResponseById
+        when(noteRepository.findResponseById(noteId))
                             .thenReturn(Optional.of(note));
 
         // Act (Actuar) -> Llamar al método a probar
@@ -84,8 +129,9 @@ public class NoteServiceImplTest {
         assertEquals("Test title", response.getTitle());
         assertEquals("Test content", response.getContent());
 
-        // Veritifación de interacciones con el mock
-        verify(noteRepository, times(1)).findById(noteId);
+        // Veritifación de interacciones con el mock: no se carga la entidad
+        verify(noteRepository, times(1)).findResponseById(noteId);
+        verify(noteRepository, never()).findById(any());
 
     }
 
@@ -96,8 +142,8 @@ public class NoteServiceImplTest {
         // Arrange (Preparar) -> Datos de entrada
         Long noteId = 99L;
 
-        // Mock del Repository para simular el comportamiento del método findById
-        when(noteRepository.findById(noteId))
+        // Mock del Repository para simular la proyección findResponseById
+        when(noteRepository.findResponseById(noteId))
                             .thenReturn(Optional.empty()); // Simula que no se encuentra la nota en la BD .empty()
         
         // Act y Assert (Actuar y Afirmar) -> Llamar al método a probar y verificar que lanza la excepción
@@ -110,7 +156,7 @@ public class NoteServiceImplTest {
         assertEquals("Note not found with id: 99", exception.getMessage());
 
         // Veritifación de interacciones con el mock
-        verify(noteRepository, times(1)).findById(noteId);
+        verify(noteRepository, times(1)).findResponseById(noteId);
 
     }
     
@@ -123,35 +169,56 @@ public class NoteServiceImplTest {
         request.setTitle("Updated Title");
         request.setContent("Updated Content");
 
-        Note existingNote = new Note();
-        existingNote.setTitle("Old Title");
-        existingNote.setContent("Old Content");
-
-        Note updateNote = new Note();
-        updateNote.setTitle("Updated Title");
-        updateNote.setContent("Updated Content");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 2, 10, 0);
 
-        //Mock del Repository para simular el comportamiento del método findById y save
-        when(noteRepository.findById(noteId))
-                            .thenReturn(Optional.of(existingNote));
-
-        when(noteRepository.save(any(Note.class)))
-                            .thenReturn(existingNote);
+        //Mock del Repository: la fila bloqueada (con el content anterior) y el UPDATE que afecta una fila
+        when(noteRepository.findUpdateStateWithContentById(noteId))
+                            .thenReturn(Optional.of(state("Old Title", "Old Content", List.of("work"), createdAt, updatedAt, 1L)));
+        when(noteRepository.updateById(eq(noteId), eq("Updated Title"), eq("Updated Content"), eq("Updated Content"), eq(15), eq(List.of("work")), any(LocalDateTime.class), isNull()))
+                            .thenReturn(1);
 
         //Act (Actuar) -> Llamar al método a probar
-        NoteResponse response = noteService.update(noteId, request);
+        NoteResponse response = noteService.update(noteId, request, null);
 
-        //Assert (Afirmar) -> Verificar los resultados
+        //Assert (Afirmar) -> Verificar los resultados: createdAt y version salen de la fila bloqueada
         assertNotNull(response);
+        assertEquals(noteId, response.getId());
         assertEquals("Updated Title", response.getTitle());
         assertEquals("Updated Content", response.getContent());
+        assertEquals(List.of("work"), response.getTags());
+        assertEquals(createdAt, response.getCreatedAt());
+        assertEquals(2L, response.getVersion());
+        assertNotNull(response.getUpdatedAt());
 
-        //Veritifación de interacciones con el mock
-        verify(noteRepository, times(1)).findById(noteId);
-        verify(noteRepository, times(1)).save(any(Note.class));
+        //Veritifación de interacciones con el mock: el SELECT ... FOR UPDATE y el UPDATE, nada más
+        verify(noteRepository).findUpdateStateWithContentById(noteId);
+        verify(noteRepository).updateById(eq(noteId), any(), any(), any(), any(), any(), any(), isNull());
+        verifyNoMoreInteractions(noteRepository);
+        verify(eventPublisher).publishEvent(new NoteUpdatingEvent(noteId, "Old Title", "Old Content", updatedAt, "Updated Title", "Updated Content"));
 
+    }
 
+    @Test
+    void shouldNotReadThePreviousContentWhenRevisionsAreDisabled() {
 
+        INoteService withoutRevisions = service(false);
+        Long noteId = 1L;
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        // La proyección sin content
+        when(noteRepository.findUpdateStateById(noteId))
+                            .thenReturn(Optional.of(state("Old Title", null, List.of(), createdAt, createdAt, 3L)));
+        when(noteRepository.updateById(eq(noteId), any(), any(), any(), any(), any(), any(), eq(3L)))
+                            .thenReturn(1);
+
+        NoteResponse response = withoutRevisions.update(noteId, new NoteRequest("Updated Title", "Updated Content"), 3L);
+
+        assertEquals(4L, response.getVersion());
+        verify(noteRepository).findUpdateStateById(noteId);
+        verify(noteRepository).updateById(eq(noteId), any(), any(), any(), any(), any(), any(), eq(3L));
+        verifyNoMoreInteractions(noteRepository);
+        verify(eventPublisher, never()).publishEvent(any(NoteUpdatingEvent.class));
 
     }
 
@@ -164,38 +231,58 @@ public class NoteServiceImplTest {
         request.setTitle("Updated Title");
         request.setContent("Updated Content");
 
-        when(noteRepository.findById(noteId))
-                            .thenReturn(Optional.empty());
+        when(noteRepository.findUpdateStateWithContentById(noteId))
+                            .thenReturn(Optional.empty()); // No hay fila que bloquear
         
         NoteNotFoundException exception = 
                             assertThrows(NoteNotFoundException.class, () -> {
-                                noteService.update(noteId, request);
+                                noteService.update(noteId, request, null);
                             });
 
         // Verificar el mensaje de la excepción
         assertEquals("Note not found with id: 99", exception.getMessage());
 
-        // Veritifación de interacciones con el mock
-        verify(noteRepository).findById(noteId);
-        verify(noteRepository, never()).save(any());
+        // Veritifación de interacciones con el mock: sin UPDATE
+        verify(noteRepository, never()).updateById(any(), any(), any(), any(), any(), any(), any(), any());
 
 
     }
 
     @Test
-    void shouldDeleteNoteWhenIdExists() {
+    void shouldThrowVersionMismatchWhenIfMatchVersionIsStale() {
 
         Long noteId = 1L;
 
-        Note existiNote = new Note();
+        NoteRequest request = new NoteRequest("Updated Title", "Updated Content");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        // La nota existe pero ya no está en la versión 1
+        when(noteRepository.findUpdateStateWithContentById(noteId))
+                            .thenReturn(Optional.of(state("Title", "Content", List.of(), createdAt, createdAt, 2L)));
 
-        when(noteRepository.findById(noteId))
-                            .thenReturn(Optional.of(existiNote));
+        assertThrows(NoteVersionMismatchException.class, () -> {
+            noteService.update(noteId, request, 1L);
+        });
+
+        // Ni UPDATE ni revisión de un estado que no se sobrescribe
+        verify(noteRepository, never()).updateById(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(NoteUpdatingEvent.class));
+
+    }
+
+    @Test
+    void shouldDeleteNoteWhenIdExists() {
+
+        Long noteId = 1L;
+
+        when(noteRepository.deleteNoteById(noteId, null))
+                            .thenReturn(1);
         
-        noteService.deleteById(noteId);
+        noteService.deleteById(noteId, null);
 
-        verify(noteRepository).findById(noteId);
-        verify(noteRepository).delete(existiNote);
+        verify(noteRepository).deleteNoteById(noteId, null);
+        verify(noteRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(NoteChangedEvent.deleted(noteId));
 
 
     }
@@ -205,23 +292,274 @@ public class NoteServiceImplTest {
 
         Long noteId = 99L;
 
-        when(noteRepository.findById(noteId))
-                            .thenReturn(Optional.empty());
+        when(noteRepository.deleteNoteById(noteId, null))
+                            .thenReturn(0);
         
         NoteNotFoundException exception = 
                             assertThrows(NoteNotFoundException.class, () -> {
-                                noteService.deleteById(noteId);
+                                noteService.deleteById(noteId, null);
                             });
 
         // Verificar el mensaje de la excepción
         assertEquals("Note not found with id: 99", exception.getMessage());
 
         // Veritifación de interacciones con el mock
-        verify(noteRepository).findById(noteId);
-        verify(noteRepository, never()).delete(any());
+        verify(noteRepository).deleteNoteById(noteId, null);
+
+    }
+
+    @Test
+    void shouldReturnFirstPageWithCursorWhenMoreNotesExist() {
+
+        // Arrange -> el repositorio devuelve limit + 1 filas, así que hay otra página
+        NoteResponse first = new NoteResponse(1L, "First", "First content", null, null, 1L);
+        NoteResponse second = new NoteResponse(2L, "Second", "Second content", null, null, 1L);
+
+        when(noteRepository.findResponsesAfter(0L, Limit.of(2)))
+                            .thenReturn(List.of(first, second));
+
+        // Act
+        PageResponse<NoteResponse> page = noteService.getPage(null, 1);
+
+        // Assert -> el cursor apunta a la última nota entregada
+        assertEquals(1, page.getItems().size());
+        assertEquals("First", page.getItems().get(0).getTitle());
+        assertEquals(NoteCursor.encode(1L), page.getNextCursor());
+
+    }
+
+    @Test
+    void shouldReturnLastPageWithoutCursor() {
+
+        NoteResponse note = new NoteResponse(11L, "Only", "Only content", null, null, 1L);
+
+        String cursor = NoteCursor.encode(10L);
+
+        when(noteRepository.findResponsesAfter(10L, Limit.of(51)))
+                            .thenReturn(List.of(note));
+
+        PageResponse<NoteResponse> page = noteService.getPage(cursor, 50);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor()); // No hay más páginas
+
+    }
+
+    @Test
+    void shouldReturnSummaryPageWithoutContent() {
+
+        NoteSummaryResponse first = new NoteSummaryResponse(1L, "First", "Content", 7, null, null);
+        NoteSummaryResponse second = new NoteSummaryResponse(2L, "Second", "Content", 7, null, null);
+
+        when(noteRepository.findSummariesAfter(0L, Limit.of(2)))
+                            .thenReturn(List.of(first, second));
+
+        PageResponse<NoteSummaryResponse> page = noteService.getSummaryPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(NoteCursor.encode(1L), page.getNextCursor());
+        verify(noteRepository, never()).findResponsesAfter(any(), any());
+
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCursorIsInvalid() {
+
+        assertThrows(InvalidCursorException.class, () -> {
+            noteService.getPage("not-a-cursor", 10);
+        });
+
+        verify(noteRepository, never()).findResponsesAfter(any(), any());
 
     }
 
+    @Test
+    void shouldCreateValidNotesAndReportInvalidOnesInBatch() {
+
+        NoteRequest valid = new NoteRequest("Valid title", "Valid content");
+        NoteRequest invalid = new NoteRequest("", "Content");
+
+        when(noteRepository.saveAll(anyList()))
+                            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        BatchResponse response = noteService.createBatch(List.of(valid, invalid));
+
+        // Assert -> el válido se guarda y el inválido trae su mensaje de validación
+        assertEquals(1, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(BatchItemResult.Status.CREATED, response.getItems().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.INVALID, response.getItems().get(1).getStatus());
+        assertEquals(List.of("Title must not be blank"), response.getItems().get(1).getErrors());
+
+        verify(noteRepository, times(1)).saveAll(anyList());
 
+    }
+
+    @Test
+    void shouldKeepCommittedChunksAndMarkTheFailedChunkInBatch() {
+
+        // Un bloque completo (BATCH_CHUNK_SIZE) y un segundo bloque de una nota cuya escritura falla
+        List<NoteRequest> requests = new ArrayList<>();
+        for (int i = 0; i <= INoteService.BATCH_CHUNK_SIZE; i++) {
+            requests.add(new NoteRequest("Title " + i, "Content"));
+        }
+        when(noteRepository.saveAll(anyList()))
+                            .thenAnswer(invocation -> invocation.getArgument(0))
+                            .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        BatchResponse response = noteService.createBatch(requests);
+
+        // El primer bloque ya está confirmado; el segundo se deshizo y se informa por elemento
+        assertEquals(INoteService.BATCH_CHUNK_SIZE, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals(BatchItemResult.Status.CREATED, response.getItems().get(0).getStatus());
+        BatchItemResult failed = response.getItems().get(INoteService.BATCH_CHUNK_SIZE);
+        assertEquals(BatchItemResult.Status.FAILED, failed.getStatus());
+        assertEquals(INoteService.BATCH_CHUNK_SIZE, failed.getIndex());
+
+    }
+
+    @Test
+    void shouldReportStaleVersionsPerItemInBatchUpdate() {
+
+        NoteBatchUpdateRequest current = new NoteBatchUpdateRequest(1L, "New title", "New content");
+        current.setVersion(3L);
+        NoteBatchUpdateRequest stale = new NoteBatchUpdateRequest(2L, "New title", "New content");
+        stale.setVersion(1L);
+        NoteBatchUpdateRequest unconditional = new NoteBatchUpdateRequest(3L, "New title", "New content");
+
+        when(noteRepository.findAllForUpdateById(Set.of(1L, 2L, 3L)))
+                            .thenReturn(List.of(note(1L, 3L), note(2L, 2L), note(3L, 7L)));
+
+        BatchResponse response = noteService.updateBatch(List.of(current, stale, unconditional));
+
+        // La versión desfasada solo afecta a su elemento
+        assertEquals(BatchItemResult.Status.UPDATED, response.getItems().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.VERSION_MISMATCH, response.getItems().get(1).getStatus());
+        assertEquals(List.of("Note 2 does not match version 1"), response.getItems().get(1).getErrors());
+        assertEquals(BatchItemResult.Status.UPDATED, response.getItems().get(2).getStatus());
+        assertEquals(2, response.getSucceeded());
+
+    }
+
+    @Test
+    void shouldPublishBatchUpdatesWithTheFlushedVersion() {
+
+        Note note = note(1L, 3L);
+        when(noteRepository.findAllForUpdateById(Set.of(1L)))
+                            .thenReturn(List.of(note));
+        // El flush es el que incrementa la versión (@Version) de la entidad gestionada
+        doAnswer(invocation -> {
+            ReflectionTestUtils.setField(note, "version", 4L);
+            return null;
+        }).when(noteRepository).flush();
+
+        noteService.updateBatch(List.of(new NoteBatchUpdateRequest(1L, "New title", "New content")));
+
+        // El evento sale después del flush y lleva la versión nueva
+        InOrder inOrder = inOrder(noteRepository, eventPublisher);
+        inOrder.verify(noteRepository).flush();
+        ArgumentCaptor<NoteChangedEvent> event = ArgumentCaptor.forClass(NoteChangedEvent.class);
+        inOrder.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(4L, event.getValue().note().getVersion());
+        assertEquals("New title", event.getValue().note().getTitle());
+
+    }
+
+    @Test
+    void shouldReportNotFoundIdsInBatchDelete() {
+
+        when(noteRepository.findExistingIds(List.of(1L, 99L)))
+                            .thenReturn(List.of(1L));
+
+        BatchResponse response = noteService.deleteBatch(List.of(1L, 99L));
+
+        assertEquals(BatchItemResult.Status.DELETED, response.getItems().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, response.getItems().get(1).getStatus());
+        assertEquals(List.of("Note not found with id: 99"), response.getItems().get(1).getErrors());
+
+        verify(noteRepository).deleteAllByIdInBatch(Set.of(1L));
+
+    }
+
+    @Test
+    void shouldRefreshOnlyTheBatchNotesInTheCache() {
+
+        Cache cache = cacheManager.getCache(CacheConfig.NOTES_CACHE);
+        cache.put(OwnerContext.key(1L), new NoteResponse(1L, "Title", "Content", null, null, 3L));
+        cache.put(OwnerContext.key(2L), new NoteResponse(2L, "Title", "Content", null, null, 0L));
+        cache.put(OwnerContext.key(5L), new NoteResponse(5L, "Untouched", "Content", null, null, 0L));
+        when(noteRepository.findAllForUpdateById(Set.of(1L)))
+                            .thenReturn(List.of(note(1L, 3L)));
+        when(noteRepository.findExistingIds(List.of(2L)))
+                            .thenReturn(List.of(2L));
+
+        noteService.updateBatch(List.of(new NoteBatchUpdateRequest(1L, "New title", "New content")));
+        noteService.deleteBatch(List.of(2L));
+
+        // Solo cambian las claves de las notas escritas: el resto de la caché sigue sirviendo
+        assertEquals("New title", cache.get(OwnerContext.key(1L), NoteResponse.class).getTitle());
+        assertNull(cache.get(OwnerContext.key(2L)));
+        assertEquals("Untouched", cache.get(OwnerContext.key(5L), NoteResponse.class).getTitle());
+
+    }
+
+    private INoteService service(boolean revisionsEnabled) {
+        return new INoteService(
+            noteRepository,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class),
+            eventPublisher,
+            null,
+            null,
+            cacheManager,
+            revisionsEnabled
+        );
+    }
+
+    private static Note note(Long id, Long version) {
+        Note note = new Note();
+        note.setTitle("Title");
+        note.setContent("Content");
+        ReflectionTestUtils.setField(note, "id", id);
+        ReflectionTestUtils.setField(note, "version", version);
+        return note;
+    }
+
+    private static NoteUpdateStateWithContent state(String title, String content, List<String> tags, LocalDateTime createdAt,
+                                                    LocalDateTime updatedAt, Long version) {
+        return new NoteUpdateStateWithContent() {
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+
+            @Override
+            public List<String> getTags() {
+                return tags;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
 
 }
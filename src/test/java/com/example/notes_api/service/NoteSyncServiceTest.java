@@ -0,0 +1,141 @@
+package com.example.notes_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.notes_api.dto.NoteRequest;
+import com.example.notes_api.dto.NoteResponse;
+import com.example.notes_api.dto.NoteSyncResponse;
+import com.example.notes_api.exception.SyncExpiredException;
+import com.example.notes_api.repository.NoteRepository;
+import com.example.notes_api.repository.NoteTombstoneRepository;
+
+// Sobre H2: comprueba que los borrados dejan tombstone y que el cursor recorre ambas listas
+// notes.sync.safety-lag=0s en las pruebas; el margen se prueba aparte con su propio servicio
+@SpringBootTest
+public class NoteSyncServiceTest {
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteSyncService noteSyncService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldReturnModifiedAndDeletedNotesAcrossPages() {
+
+        LocalDateTime since = LocalDateTime.now().minusSeconds(1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(noteService.create(new NoteRequest("Title " + i, "Content " + i)).getId());
+        }
+        noteService.deleteById(ids.get(0), null);
+        noteService.deleteBatch(List.of(ids.get(1), ids.get(2)));
+
+        List<Long> modified = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NoteSyncResponse page = noteSyncService.getChangesSince(since, cursor, 2);
+            page.getItems().forEach(note -> modified.add(note.getId()));
+            page.getDeleted().forEach(tombstone -> deleted.add(tombstone.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(ids.get(3), ids.get(4)), modified);
+        assertEquals(List.of(ids.get(0), ids.get(1), ids.get(2)), deleted);
+        assertEquals(2, pages);
+        assertNull(noteSyncService.getChangesSince(since, null, 2).getSyncToken()); // Solo en la última página
+
+    }
+
+    @Test
+    void shouldOnlyReturnChangesAfterModifiedSince() throws InterruptedException {
+
+        NoteResponse old = noteService.create(new NoteRequest("Old", "Old content"));
+        Thread.sleep(5);
+        LocalDateTime since = LocalDateTime.now();
+        noteService.update(old.getId(), new NoteRequest("Old", "Edited"), null);
+        noteService.create(new NoteRequest("New", "New content"));
+
+        NoteSyncResponse page = noteSyncService.getChangesSince(since, null, 10);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(old.getId(), page.getItems().get(0).getId()); // Ordenadas por updatedAt
+        assertEquals("Edited", page.getItems().get(0).getContent());
+        assertNull(page.getNextCursor());
+        assertNotNull(page.getSyncToken());
+
+    }
+
+    @Test
+    void shouldDeliverLateCommitsOnTheNextSync() {
+
+        // Con un minuto de margen, lo escrito en el último minuto aún no se entrega
+        NoteSyncService lagged = new INoteSyncService(noteRepository, tombstoneRepository, Duration.ofDays(30), Duration.ofMinutes(1));
+        LocalDateTime since = LocalDateTime.now().minusMinutes(10);
+        Long recent = noteService.create(new NoteRequest("Recent", "Content")).getId();
+
+        NoteSyncResponse first = lagged.getChangesSince(since, null, 10);
+
+        assertEquals(List.of(), first.getItems());
+        LocalDateTime token = first.getSyncToken();
+        assertTrue(token.isBefore(LocalDateTime.now().minusSeconds(59)));
+
+        // Una transacción que confirma ahora con una fecha anterior a la primera sincronización (pero posterior al token)
+        Long late = noteService.create(new NoteRequest("Late", "Content")).getId();
+        jdbcTemplate.update("update notes set updated_at = ? where id = ?", token.plusSeconds(1), late);
+
+        // La siguiente sincronización parte del token y, pasado el margen, entrega las dos
+        NoteSyncResponse next = noteSyncService.getChangesSince(token, null, 10);
+
+        assertEquals(List.of(late, recent), next.getItems().stream().map(NoteResponse::getId).toList());
+        assertTrue(next.getSyncToken().isAfter(token));
+
+    }
+
+    @Test
+    void shouldPurgeTombstonesAndRejectExpiredSync() {
+
+        Long id = noteService.create(new NoteRequest("Title", "Content")).getId();
+        noteService.deleteById(id, null);
+        assertNotNull(tombstoneRepository.findById(id).orElse(null));
+
+        assertEquals(0, noteSyncService.purgeTombstones()); // Aún dentro de la retención
+        assertThrows(SyncExpiredException.class,
+                     () -> noteSyncService.getChangesSince(LocalDateTime.now().minusDays(31), null, 10));
+
+    }
+
+}
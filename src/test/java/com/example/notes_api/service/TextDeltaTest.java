@@ -0,0 +1,63 @@
+package com.example.notes_api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TextDeltaTest {
+
+    @Test
+    void shouldKeepDeltaProportionalToTheEdit() {
+
+        String previous = text(new Random(1), 50_000);
+        // Dos cambios pequeños lejos uno del otro y un párrafo movido al final
+        String current = previous.substring(0, 1_000) + "INSERTED" + previous.substring(1_010, 30_000)
+                         + previous.substring(30_500) + previous.substring(30_000, 30_500);
+
+        String delta = TextDelta.diff(previous, current);
+
+        assertEquals(current, TextDelta.apply(previous, delta));
+        assertTrue(delta.length() < 200, "delta should be small, was " + delta.length());
+
+    }
+
+    @Test
+    void shouldRoundTripRandomEdits() {
+
+        Random random = new Random(42);
+        String previous = text(random, 2_000);
+        for (int i = 0; i < 200; i++) {
+            String current = edit(random, previous);
+            assertEquals(current, TextDelta.apply(previous, TextDelta.diff(previous, current)));
+            previous = current;
+        }
+        assertEquals("", TextDelta.apply("abc", TextDelta.diff("abc", "")));
+        assertEquals("abc", TextDelta.apply("", TextDelta.diff("", "abc")));
+
+    }
+
+    private static String edit(Random random, String text) {
+        StringBuilder builder = new StringBuilder(text);
+        for (int edits = random.nextInt(4); edits >= 0; edits--) {
+            int at = random.nextInt(builder.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(at, text(random, random.nextInt(40)));
+                case 1 -> builder.delete(at, Math.min(builder.length(), at + random.nextInt(40)));
+                default -> builder.replace(at, Math.min(builder.length(), at + 5), "😀;=+:,");
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append("word").append(random.nextInt(1000)).append(random.nextInt(10) == 0 ? '\n' : ' ');
+        }
+        return builder.substring(0, length);
+    }
+
+}
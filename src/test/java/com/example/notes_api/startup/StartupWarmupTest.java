@@ -0,0 +1,87 @@
+package com.example.notes_api.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "notes.warmup.enabled=true",
+    "notes.warmup.iterations=20",
+    "notes.warmup.threads=2",
+    // Un cupo de una lectura: sin la exención, el calentamiento recibiría 429
+    "notes.rate-limit.enabled=true",
+    "notes.rate-limit.read.requests-per-second=1",
+    "notes.rate-limit.read.burst=1",
+    "notes.admission.enabled=true"
+})
+public class StartupWarmupTest {
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReadinessRecorder readinessRecorder;
+
+    @Test
+    void shouldWarmUpNoteRoutesBeforeAcceptingTraffic() {
+
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        // 20 rondas con 2 GET /api/notes cada una: casi todas terminadas antes de pasar a ACCEPTING_TRAFFIC
+        assertTrue(readinessRecorder.listRequestsWhenReady.get() >= 30, "Requests before ready: " + readinessRecorder.listRequestsWhenReady.get());
+
+        // Fuera del límite por cliente y del control de admisión
+        assertEquals(0, total(meterRegistry.find("notes.rate-limit.requests").counters()));
+        assertEquals(0, total(meterRegistry.find("notes.admission.requests").counters()));
+
+    }
+
+    private static double total(Iterable<Counter> counters) {
+        double total = 0;
+        for (Counter counter : counters) {
+            total += counter.count();
+        }
+        return total;
+    }
+
+    @TestConfiguration
+    static class ReadinessRecorder {
+
+        private final AtomicLong listRequestsWhenReady = new AtomicLong(-1);
+
+        private final MeterRegistry meterRegistry;
+
+        ReadinessRecorder(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @EventListener
+        void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                long requests = 0;
+                for (Timer timer : meterRegistry.find("http.server.requests").tag("uri", "/api/notes").tag("method", "GET").timers()) {
+                    requests += timer.count();
+                }
+                listRequestsWhenReady.set(requests);
+            }
+        }
+
+    }
+
+}